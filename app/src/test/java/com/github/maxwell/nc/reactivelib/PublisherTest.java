@@ -2,23 +2,50 @@ package com.github.maxwell.nc.reactivelib;
 
 import com.github.maxwell.nc.reactivelib.callback.Action;
 import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.callback.Emitter;
 import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.IntConsumer;
+import com.github.maxwell.nc.reactivelib.callback.IntFunction;
+import com.github.maxwell.nc.reactivelib.callback.IntPredicate;
+import com.github.maxwell.nc.reactivelib.callback.LongConsumer;
+import com.github.maxwell.nc.reactivelib.callback.OnSubscribe;
 import com.github.maxwell.nc.reactivelib.callback.Predicate;
+import com.github.maxwell.nc.reactivelib.metrics.LatencyHistogram;
+import com.github.maxwell.nc.reactivelib.metrics.MetricsRegistry;
+import com.github.maxwell.nc.reactivelib.metrics.ReactiveMetrics;
+import com.github.maxwell.nc.reactivelib.observable.create.ScalarPublisher;
+import com.github.maxwell.nc.reactivelib.observable.transform.FusedPublisher;
+import com.github.maxwell.nc.reactivelib.primitive.IntPublisher;
+import com.github.maxwell.nc.reactivelib.primitive.LongPublisher;
+import com.github.maxwell.nc.reactivelib.scheduler.IoScheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.NamedThreadFactory;
+import com.github.maxwell.nc.reactivelib.scheduler.ParallelScheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.SchedulerFactory;
 import com.github.maxwell.nc.reactivelib.scheduler.Schedulers;
+import com.github.maxwell.nc.reactivelib.scheduler.SingleThreadScheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.VirtualThreadScheduler;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
 import com.github.maxwell.nc.reactivelib.subscription.Subscription;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 
@@ -108,10 +135,13 @@ public class PublisherTest {
 
     @Test
     public void timer() throws Exception {
-        final int[] count = {0};
         final int request = 10;
         final int cancelTime = 5;
-        Publisher.timer(100)
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        //在定时线程中只收集数据，断言放在测试线程中
+        final List<Long> received = new ArrayList<>();
+        final Throwable[] error = new Throwable[1];
+        Publisher.timer(20)
                 .subscribe(new FlowSubscriber<Long>() {
                     @Override
                     protected long getRequestCount() {
@@ -120,26 +150,37 @@ public class PublisherTest {
 
                     @Override
                     public void onNext(Long item) {
-                        //0,1,2,3,4...
-                        assertFalse(item >= request);
-                        count[0]++;
+                        received.add(item);
                         //test cancel task
-                        if (count[0] == cancelTime) {
+                        if (received.size() == cancelTime) {
                             cancelTask();
                         }
                     }
 
                     @Override
                     public void onComplete() {
-                        assertEquals(count[0], cancelTime);
+                        latch.countDown();
                     }
 
                     @Override
                     public void onError(Throwable throwable) {
-                        fail();
+                        error[0] = throwable;
+                        latch.countDown();
                     }
 
                 });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertNull(error[0]);
+        //在onNext中取消后回调onComplete，不再发送数据
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L), received);
+
+        //间隔必须大于0
+        try {
+            Publisher.timer(0);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            //间隔无效
+        }
     }
 
     @Test
@@ -207,6 +248,104 @@ public class PublisherTest {
                 });
     }
 
+    @Test
+    public void request() throws Exception {
+        final List<Integer> received = new ArrayList<>();
+        final boolean[] isComplete = {false};
+        FlowSubscriber<Integer> subscriber = new FlowSubscriber<Integer>() {
+            @Override
+            protected long getRequestCount() {
+                return 2;
+            }
+
+            @Override
+            public void onNext(Integer integer) {
+                received.add(integer);
+            }
+
+            @Override
+            public void onComplete() {
+                isComplete[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail();
+            }
+        };
+        Publisher.just(1, 2, 3, 4, 5).subscribe(subscriber);
+        assertEquals(Arrays.asList(1, 2), received);
+        assertFalse(isComplete[0]);
+
+        //请求量累加
+        subscriber.request(2);
+        assertEquals(Arrays.asList(1, 2, 3, 4), received);
+        assertFalse(isComplete[0]);
+
+        //请求量溢出视为无限请求
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), received);
+        assertTrue(isComplete[0]);
+    }
+
+    @Test
+    public void bufferRequest() throws Exception {
+        final List<List<Integer>> received = new ArrayList<>();
+        Publisher.from(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8))
+                .buffer(3)
+                .subscribe(new FlowSubscriber<List<Integer>>() {
+                    @Override
+                    protected long getRequestCount() {
+                        return 2;
+                    }
+
+                    @Override
+                    public void onNext(List<Integer> integers) {
+                        received.add(integers);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        fail();
+                    }
+                });
+        //请求2个List，向上游请求6个数据
+        assertEquals(2, received.size());
+        assertEquals(Arrays.asList(1, 2, 3), received.get(0));
+        assertEquals(Arrays.asList(4, 5, 6), received.get(1));
+    }
+
+    @Test
+    public void selectRequest() throws Exception {
+        final List<Integer> received = new ArrayList<>();
+        Publisher.just(1, 2, 3, 4, 5, 6)
+                .select(new Predicate<Integer>() {
+                    @Override
+                    public boolean test(Integer integer) throws Exception {
+                        return integer % 2 == 0;
+                    }
+                })
+                .subscribe(new FlowSubscriber<Integer>() {
+                    @Override
+                    protected long getRequestCount() {
+                        return 2;
+                    }
+
+                    @Override
+                    public void onNext(Integer integer) {
+                        received.add(integer);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        fail();
+                    }
+                });
+        //被抛弃的数据会补充请求量
+        assertEquals(Arrays.asList(2, 4), received);
+    }
+
     @Test
     public void retry() throws Exception {
         final int[] sum = {0};//计算次数
@@ -277,6 +416,75 @@ public class PublisherTest {
                 });
     }
 
+    /**
+     * 错误返回特定数据时下游出错和已取消测试
+     */
+    @Test
+    public void errorReturnDownstream() throws Exception {
+        final RuntimeException testException = new RuntimeException("test");
+        final RuntimeException downstreamException = new RuntimeException("downstream");
+        //不响应取消的上游
+        final Subscriber<?>[] upstream = new Subscriber<?>[1];
+        Publisher<Integer> source = new Publisher<Integer>() {
+            @Override
+            protected void subscribeActual(Subscriber<Integer> subscriber) {
+                upstream[0] = subscriber;
+                subscriber.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long count) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+            }
+        };
+        Function<Throwable, Integer> fallback = new Function<Throwable, Integer>() {
+            @Override
+            public Integer apply(Throwable throwable) {
+                return -1;
+            }
+        };
+
+        //下游处理特定数据时出错，回调onError而不是抛给上游
+        final List<Object> signals = new ArrayList<>();
+        final Subscription[] subscription = new Subscription[1];
+        Subscriber<Integer> throwing = new Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Integer integer) {
+                signals.add(integer);
+                throw downstreamException;
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("complete");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add(throwable);
+            }
+        };
+        source.errorReturn(fallback).subscribe(throwing);
+        upstream[0].onError(testException);
+        assertEquals(Arrays.<Object>asList(-1, downstreamException), signals);
+
+        //取消后不再发送特定数据
+        signals.clear();
+        source.errorReturn(fallback).subscribe(throwing);
+        subscription[0].cancel();
+        upstream[0].onError(testException);
+        assertTrue(signals.isEmpty());
+    }
+
     @Test
     public void subscribeOn() throws Exception {
         final CountDownLatch latch = new CountDownLatch(4);//异步阻塞用
@@ -356,4 +564,1506 @@ public class PublisherTest {
         latch.await();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void observeOnOrder() throws Exception {
+        final int total = 10000;
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        final List<Integer> list = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            list.add(i);
+        }
+        //在工作线程中只收集数据，断言放在测试线程中
+        final List<Integer> received = new ArrayList<>(total);
+        final Throwable[] error = new Throwable[1];
+        Publisher.from(list)
+                .observeOn(Schedulers.parallel(), 16)
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        received.add(integer);
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) {
+                        error[0] = throwable;
+                        latch.countDown();
+                    }
+                }, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertNull(error[0]);
+        //多线程调度器也保证顺序，onComplete在所有数据之后回调
+        assertEquals(list, received);
+    }
+
+    @Test
+    public void fuse() throws Exception {
+        final List<String> received = new ArrayList<>();
+        Publisher<String> publisher = Publisher.just(1, 2, 3, 4, 5, 6)
+                .map(new Function<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer integer) throws Exception {
+                        return integer * 10;
+                    }
+                })
+                .select(new Predicate<Integer>() {
+                    @Override
+                    public boolean test(Integer integer) throws Exception {
+                        return integer != 30;
+                    }
+                })
+                .map(new Function<Integer, String>() {
+                    @Override
+                    public String apply(Integer integer) throws Exception {
+                        return String.valueOf(integer);
+                    }
+                })
+                .select(new Predicate<String>() {
+                    @Override
+                    public boolean test(String s) throws Exception {
+                        return !s.equals("50");
+                    }
+                });
+        //相邻的map和select融合为一个阶段
+        assertTrue(publisher instanceof FusedPublisher);
+        publisher.subscribe(new FlowSubscriber<String>() {
+            @Override
+            protected long getRequestCount() {
+                return 3;
+            }
+
+            @Override
+            public void onNext(String s) {
+                received.add(s);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail();
+            }
+        });
+        assertEquals(Arrays.asList("10", "20", "40"), received);
+    }
+
+    @Test
+    public void fusionBuffer() throws Exception {
+        final List<List<Integer>> received = new ArrayList<>();
+        final boolean[] isComplete = {false};
+        FlowSubscriber<List<Integer>> subscriber = new FlowSubscriber<List<Integer>>() {
+            @Override
+            protected long getRequestCount() {
+                return 2;
+            }
+
+            @Override
+            public void onNext(List<Integer> integers) {
+                received.add(integers);
+            }
+
+            @Override
+            public void onComplete() {
+                isComplete[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail();
+            }
+        };
+        //buffer直接从融合后的map拉取数据
+        Publisher.just(1, 2, 3, 4, 5, 6, 7)
+                .map(new Function<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer integer) throws Exception {
+                        return integer * 2;
+                    }
+                })
+                .select(new Predicate<Integer>() {
+                    @Override
+                    public boolean test(Integer integer) throws Exception {
+                        return integer != 4;
+                    }
+                })
+                .buffer(2)
+                .subscribe(subscriber);
+        assertEquals(Arrays.asList(Arrays.asList(2, 6), Arrays.asList(8, 10)), received);
+        assertFalse(isComplete[0]);
+
+        subscriber.request(5);
+        assertEquals(Arrays.asList(12, 14), received.get(2));
+        assertEquals(3, received.size());
+        assertTrue(isComplete[0]);
+    }
+
+    @Test
+    public void fusionObserveOn() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        final Thread origin = Thread.currentThread();//原始线程
+        final List<Thread> mapThreads = new ArrayList<>();
+        final List<Integer> received = new ArrayList<>();
+        Publisher.from(Arrays.asList(1, 2, 3))
+                .map(new Function<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer integer) throws Exception {
+                        mapThreads.add(Thread.currentThread());
+                        return integer;
+                    }
+                })
+                .observeOn(Schedulers.single())
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        received.add(integer);
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) {
+                        fail();
+                    }
+                }, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        assertEquals(Arrays.asList(1, 2, 3), received);
+        //线程边界不融合map，回调仍然在原线程执行
+        assertEquals(Arrays.asList(origin, origin, origin), mapThreads);
+    }
+
+    @Test
+    public void intPublisher() throws Exception {
+        final List<int[]> received = new ArrayList<>();
+        IntPublisher.range(1, 10)
+                .map(new IntFunction() {
+                    @Override
+                    public int apply(int t) throws Exception {
+                        return t * 2;
+                    }
+                })
+                .select(new IntPredicate() {
+                    @Override
+                    public boolean test(int t) throws Exception {
+                        return t % 3 != 0;
+                    }
+                })
+                .buffer(3)
+                .subscribe(new Consumer<int[]>() {
+                    @Override
+                    public void accept(int[] ints) {
+                        received.add(ints);
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) {
+                        fail();
+                    }
+                });
+        //2,4,8,10,14,16,20
+        assertEquals(3, received.size());
+        assertTrue(Arrays.equals(new int[]{2, 4, 8}, received.get(0)));
+        assertTrue(Arrays.equals(new int[]{10, 14, 16}, received.get(1)));
+        assertTrue(Arrays.equals(new int[]{20}, received.get(2)));
+    }
+
+    @Test
+    public void primitiveReduce() throws Exception {
+        final long[] result = new long[3];
+        LongPublisher.fromArray(5, -3, 9, 1).sum().subscribe(new LongConsumer() {
+            @Override
+            public void accept(long t) {
+                result[0] = t;
+            }
+        });
+        LongPublisher.fromArray(5, -3, 9, 1).min().subscribe(new LongConsumer() {
+            @Override
+            public void accept(long t) {
+                result[1] = t;
+            }
+        });
+        IntPublisher.range(0, 100).max().subscribe(new IntConsumer() {
+            @Override
+            public void accept(int t) {
+                result[2] = t;
+            }
+        });
+        assertEquals(12, result[0]);
+        assertEquals(-3, result[1]);
+        assertEquals(99, result[2]);
+
+        //没有数据时最大值直接完成
+        final boolean[] isComplete = {false};
+        IntPublisher.fromArray().max().subscribe(new IntConsumer() {
+            @Override
+            public void accept(int t) {
+                fail();
+            }
+        }, null, new Action() {
+            @Override
+            public void run() {
+                isComplete[0] = true;
+            }
+        });
+        assertTrue(isComplete[0]);
+    }
+
+    @Test
+    public void bufferTimed() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);//异步阻塞用
+        final List<List<Long>> received = new ArrayList<>();
+        //数据产生缓慢，按时间输出不足数量的缓存
+        Publisher.timer(20, Schedulers.newThread())
+                .buffer(1000, 100, TimeUnit.MILLISECONDS, Schedulers.single())
+                .subscribe(new FlowSubscriber<List<Long>>() {
+                    @Override
+                    public void onNext(List<Long> longs) {
+                        received.add(longs);
+                        latch.countDown();
+                        if (latch.getCount() == 0) {
+                            cancelTask();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        fail();
+                    }
+                });
+        latch.await();
+        assertEquals(2, received.size());
+        assertFalse(received.get(0).isEmpty());
+        assertTrue(received.get(0).size() < 1000);
+        assertEquals(0L, (long) received.get(0).get(0));
+
+        //数据足够时按数量输出
+        final List<List<Integer>> sized = new ArrayList<>();
+        final CountDownLatch complete = new CountDownLatch(1);
+        Publisher.from(Arrays.asList(1, 2, 3, 4, 5, 6, 7))
+                .buffer(3, 1, TimeUnit.HOURS, Schedulers.single())
+                .subscribe(new Consumer<List<Integer>>() {
+                    @Override
+                    public void accept(List<Integer> integers) {
+                        sized.add(integers);
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        complete.countDown();
+                    }
+                });
+        complete.await();
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Arrays.asList(7)), sized);
+    }
+
+    @Test
+    public void bufferTimedBackpressure() throws Exception {
+        final List<Long> requests = new ArrayList<>();
+        final boolean[] cancelled = new boolean[1];
+        final List<Subscriber<Integer>> upstream = new ArrayList<>();
+        Publisher<Integer> source = new Publisher<Integer>() {
+            @Override
+            protected void subscribeActual(Subscriber<Integer> subscriber) {
+                upstream.add(subscriber);
+                subscriber.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long count) {
+                        requests.add(count);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        cancelled[0] = true;
+                    }
+                });
+            }
+        };
+
+        final Throwable[] error = new Throwable[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        source.buffer(3, 1, TimeUnit.MILLISECONDS, Schedulers.newThread())
+                .subscribe(new FlowSubscriber<List<Integer>>() {
+                    @Override
+                    protected long getRequestCount() {
+                        return 2;
+                    }
+
+                    @Override
+                    public void onNext(List<Integer> integers) {
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        error[0] = throwable;
+                        latch.countDown();
+                    }
+                });
+        //下游请求2个List，向上游请求2*3个数据
+        assertEquals(Arrays.asList(6L), requests);
+
+        //下游不再请求，定时输出的List超过暂存容量后出错
+        for (int i = 0; i < 1000 && latch.getCount() != 0; i++) {
+            upstream.get(0).onNext(i);
+            Thread.sleep(2);
+        }
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(error[0] instanceof IllegalStateException);
+        assertTrue(cancelled[0]);
+    }
+
+    @Test
+    public void bufferReuse() throws Exception {
+        final List<List<Integer>> instances = new ArrayList<>();
+        final List<Integer> sums = new ArrayList<>();
+        Publisher.just(1, 2, 3, 4, 5, 6, 7)
+                .buffer(3, true)
+                .subscribe(new Consumer<List<Integer>>() {
+                    @Override
+                    public void accept(List<Integer> integers) {
+                        instances.add(integers);
+                        int sum = 0;
+                        for (Integer integer : integers) {
+                            sum += integer;
+                        }
+                        sums.add(sum);
+                    }
+                });
+        assertEquals(Arrays.asList(6, 15, 7), sums);
+        //重复使用同一个List
+        assertTrue(instances.get(0) == instances.get(1));
+        assertTrue(instances.get(1) == instances.get(2));
+    }
+
+    @Test
+    public void interval() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);//异步阻塞用
+        final List<Long> received = new ArrayList<>();
+        final Thread[] threads = {null};
+        long start = System.nanoTime();
+        Publisher.interval(50, 10, TimeUnit.MILLISECONDS)
+                .subscribe(new FlowSubscriber<Long>() {
+                    @Override
+                    public void onNext(Long item) {
+                        received.add(item);
+                        threads[0] = Thread.currentThread();
+                        latch.countDown();
+                        if (latch.getCount() == 0) {
+                            cancelTask();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        fail();
+                    }
+                });
+        //订阅不会阻塞当前线程
+        assertTrue(received.isEmpty());
+        latch.await();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(Arrays.asList(0L, 1L, 2L), received);
+        assertTrue(threads[0] != Thread.currentThread());
+    }
+
+    @Test
+    public void delay() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        final List<Integer> received = new ArrayList<>();
+        long start = System.nanoTime();
+        Publisher.just(1, 2, 3, 4, 5)
+                .delay(50, TimeUnit.MILLISECONDS, Schedulers.newThread())
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        received.add(integer);
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        assertTrue(received.isEmpty());
+        latch.await();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        //延时后顺序不变
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), received);
+    }
+
+    @Test
+    public void schedulerTime() throws Exception {
+        Scheduler scheduler = Schedulers.single();
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        final boolean[] disposedRun = {false};
+        long start = scheduler.now(TimeUnit.NANOSECONDS);
+        //取消尚未执行的延时任务
+        Disposable disposable = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                disposedRun[0] = true;
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+        disposable.dispose();
+        assertTrue(disposable.isDisposed());
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+        latch.await();
+        assertTrue(scheduler.now(TimeUnit.NANOSECONDS) - start >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertFalse(disposedRun[0]);
+
+        //同一个工作者串行执行，多线程调度器下顺序不变
+        final Scheduler.Worker worker = Schedulers.parallel().createWorker();
+        final List<Integer> received = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            worker.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    received.add(value);
+                    if (value == 99) {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        done.await();
+        assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) received.get(i));
+        }
+
+        //释放后周期任务停止
+        final int[] ticks = {0};
+        final CountDownLatch periodic = new CountDownLatch(3);
+        worker.schedulePeriodically(new Runnable() {
+            @Override
+            public void run() {
+                ticks[0]++;
+                periodic.countDown();
+            }
+        }, 0, 5, TimeUnit.MILLISECONDS);
+        periodic.await();
+        worker.dispose();
+        int count = ticks[0];
+        Thread.sleep(50);
+        assertTrue(ticks[0] <= count + 1);
+    }
+
+    /**
+     * 任务抛出Error后工作者继续执行后续任务
+     */
+    @Test
+    public void workerError() throws Exception {
+        final List<Throwable> uncaught = new ArrayList<>();
+        ThreadFactory factory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r);
+                thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                    @Override
+                    public void uncaughtException(Thread t, Throwable e) {
+                        uncaught.add(e);
+                    }
+                });
+                return thread;
+            }
+        };
+        ParallelScheduler scheduler = new ParallelScheduler(1, false, factory);
+        Scheduler.Worker worker = scheduler.createWorker();
+        final Error testError = new Error("test");
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        worker.schedule(new Runnable() {
+            @Override
+            public void run() {
+                throw testError;
+            }
+        });
+        worker.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.<Throwable>asList(testError), uncaught);
+        worker.dispose();
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void workStealing() throws Exception {
+        ParallelScheduler scheduler = new ParallelScheduler(4, true);
+        final int count = 10000;
+        final CountDownLatch latch = new CountDownLatch(count);//异步阻塞用
+        final AtomicInteger executed = new AtomicInteger();
+        for (int i = 0; i < count; i++) {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    executed.incrementAndGet();
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        assertEquals(count, executed.get());
+
+        //工作者固定在一个队列，仍然保持顺序
+        final List<Integer> received = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        Publisher.from(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8))
+                .observeOn(scheduler, 2)
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        received.add(integer);
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        done.countDown();
+                    }
+                });
+        done.await();
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), received);
+    }
+
+    @Test
+    public void flatMap() throws Exception {
+        //同步内部生产者和单个数据
+        final List<Integer> received = new ArrayList<>();
+        Publisher.just(1, 2, 3)
+                .flatMap(new Function<Integer, Publisher<Integer>>() {
+                    @Override
+                    public Publisher<Integer> apply(Integer integer) throws Exception {
+                        if (integer == 2) {
+                            return Publisher.just(20);
+                        }
+                        return Publisher.just(integer * 10, integer * 10 + 1);
+                    }
+                })
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        received.add(integer);
+                    }
+                });
+        assertEquals(Arrays.asList(10, 11, 20, 30, 31), received);
+
+        //限制同时订阅的数量
+        final int maxConcurrency = 2;
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        Publisher.from(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8))
+                .flatMap(new Function<Integer, Publisher<Integer>>() {
+                    @Override
+                    public Publisher<Integer> apply(Integer integer) throws Exception {
+                        final Publisher<Integer> inner = Publisher.just(integer, integer)
+                                .delay(5, TimeUnit.MILLISECONDS, Schedulers.parallel());
+                        //统计同时订阅的数量
+                        return new Publisher<Integer>() {
+                            @Override
+                            protected void subscribeActual(final Subscriber<Integer> subscriber) {
+                                int now = active.incrementAndGet();
+                                if (now > maxActive.get()) {
+                                    maxActive.set(now);
+                                }
+                                inner.subscribe(new Subscriber<Integer>() {
+                                    @Override
+                                    public void onSubscribe(Subscription s) {
+                                        subscriber.onSubscribe(s);
+                                    }
+
+                                    @Override
+                                    public void onNext(Integer integer) {
+                                        subscriber.onNext(integer);
+                                    }
+
+                                    @Override
+                                    public void onComplete() {
+                                        active.decrementAndGet();
+                                        subscriber.onComplete();
+                                    }
+
+                                    @Override
+                                    public void onError(Throwable throwable) {
+                                        subscriber.onError(throwable);
+                                    }
+                                });
+                            }
+                        };
+                    }
+                }, maxConcurrency, 4)
+                .subscribe(new FlowSubscriber<Integer>() {
+                    @Override
+                    public void onNext(Integer integer) {
+                        count.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        fail();
+                    }
+                });
+        latch.await();
+        assertEquals(16, count.get());
+        assertTrue(maxActive.get() <= maxConcurrency);
+    }
+
+    @Test
+    public void concatMap() throws Exception {
+        //每个数据延时不同，越早的数据越晚到达，连接后仍然保持顺序
+        final Function<Integer, Publisher<Integer>> function = new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer integer) throws Exception {
+                return Publisher.just(integer * 10, integer * 10 + 1)
+                        .delay(50 - integer * 10, TimeUnit.MILLISECONDS, Schedulers.parallel());
+            }
+        };
+        final List<Integer> expected = Arrays.asList(10, 11, 20, 21, 30, 31, 40, 41);
+
+        final List<Integer> concat = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        Publisher.just(1, 2, 3, 4)
+                .concatMap(function)
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        concat.add(integer);
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        assertEquals(expected, concat);
+
+        final List<Integer> eager = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        Publisher.just(1, 2, 3, 4)
+                .concatMapEager(function, 4, 2)
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        eager.add(integer);
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        done.countDown();
+                    }
+                });
+        done.await();
+        assertEquals(expected, eager);
+        //同时订阅，总耗时接近最长的延时而不是延时之和
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(90));
+    }
+
+    /**
+     * 取消和设置取消操作同时发生时，取消操作只执行一次
+     */
+    @Test
+    public void createCancellation() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            final AtomicInteger runs = new AtomicInteger();
+            final List<Emitter<Integer>> emitters = new ArrayList<>();
+            final FlowSubscriber<Integer> subscriber = new FlowSubscriber<Integer>() {
+                @Override
+                public void onNext(Integer integer) {
+                }
+            };
+            Publisher.create(new OnSubscribe<Integer>() {
+                @Override
+                public void call(Emitter<Integer> emitter) {
+                    emitters.add(emitter);
+                }
+            }, BackpressureStrategy.BUFFER).subscribe(subscriber);
+
+            final CountDownLatch start = new CountDownLatch(1);
+            Thread canceller = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    subscriber.cancelTask();
+                }
+            });
+            canceller.start();
+            start.countDown();
+            emitters.get(0).setCancellation(new Action() {
+                @Override
+                public void run() {
+                    runs.incrementAndGet();
+                }
+            });
+            canceller.join();
+            assertEquals(1, runs.get());
+        }
+    }
+
+    @Test
+    public void backpressure() throws Exception {
+        final List<Integer> received = new ArrayList<>();
+        final Throwable[] error = new Throwable[1];
+        final boolean[] isComplete = {false};
+        final long[] demand = new long[1];
+        OnSubscribe<Integer> emitFive = new OnSubscribe<Integer>() {
+            @Override
+            public void call(Emitter<Integer> emitter) {
+                demand[0] = emitter.requested();
+                for (int i = 1; i <= 5; i++) {
+                    emitter.onNext(i);
+                }
+                emitter.onComplete();
+            }
+        };
+        FlowSubscriber<Integer> subscriber = new FlowSubscriber<Integer>() {
+            @Override
+            protected long getRequestCount() {
+                return 2;
+            }
+
+            @Override
+            public void onNext(Integer integer) {
+                received.add(integer);
+            }
+
+            @Override
+            public void onComplete() {
+                isComplete[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error[0] = throwable;
+            }
+        };
+
+        //缓存尚未请求的数据
+        Publisher.create(emitFive, BackpressureStrategy.BUFFER).subscribe(subscriber);
+        assertEquals(2, demand[0]);
+        assertEquals(Arrays.asList(1, 2), received);
+        assertFalse(isComplete[0]);
+        subscriber.request(3);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), received);
+        assertTrue(isComplete[0]);
+
+        received.clear();
+        isComplete[0] = false;
+        Publisher.create(emitFive, BackpressureStrategy.DROP).subscribe(subscriber);
+        assertEquals(Arrays.asList(1, 2), received);
+        assertTrue(isComplete[0]);
+
+        //只保留最新的数据
+        received.clear();
+        isComplete[0] = false;
+        Publisher.create(emitFive, BackpressureStrategy.LATEST).subscribe(subscriber);
+        assertEquals(Arrays.asList(1, 2), received);
+        subscriber.request(1);
+        assertEquals(Arrays.asList(1, 2, 5), received);
+        assertTrue(isComplete[0]);
+
+        received.clear();
+        Publisher.create(emitFive, BackpressureStrategy.ERROR).subscribe(subscriber);
+        assertEquals(Arrays.asList(1, 2), received);
+        assertTrue(error[0] instanceof IllegalStateException);
+
+        received.clear();
+        isComplete[0] = false;
+        Publisher.just(1, 2, 3, 4, 5).onBackpressureDrop().subscribe(subscriber);
+        assertEquals(Arrays.asList(1, 2), received);
+        assertTrue(isComplete[0]);
+
+        received.clear();
+        Publisher.just(1, 2, 3, 4, 5).onBackpressureLatest().subscribe(subscriber);
+        subscriber.request(1);
+        assertEquals(Arrays.asList(1, 2, 5), received);
+
+        //缓存已满时回调并发送错误
+        received.clear();
+        error[0] = null;
+        final boolean[] overflow = {false};
+        Publisher.just(1, 2, 3, 4, 5, 6).onBackpressureBuffer(3, new Action() {
+            @Override
+            public void run() {
+                overflow[0] = true;
+            }
+        }).subscribe(subscriber);
+        assertEquals(Arrays.asList(1, 2), received);
+        assertTrue(overflow[0]);
+        assertTrue(error[0] instanceof IllegalStateException);
+
+        received.clear();
+        isComplete[0] = false;
+        Publisher.just(1, 2, 3, 4, 5).onBackpressureBuffer(3).subscribe(subscriber);
+        subscriber.request(3);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), received);
+        assertTrue(isComplete[0]);
+    }
+
+    @Test
+    public void dispose() throws Exception {
+        final AtomicInteger cancels = new AtomicInteger();
+        //统计取消上游的次数
+        Publisher<Long> source = new Publisher<Long>() {
+            @Override
+            protected void subscribeActual(final Subscriber<Long> subscriber) {
+                Publisher.interval(0, 5, TimeUnit.MILLISECONDS).subscribe(new Subscriber<Long>() {
+                    @Override
+                    public void onSubscribe(final Subscription s) {
+                        subscriber.onSubscribe(new Subscription() {
+                            @Override
+                            public void request(long count) {
+                                s.request(count);
+                            }
+
+                            @Override
+                            public void cancel() {
+                                cancels.incrementAndGet();
+                                s.cancel();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onNext(Long aLong) {
+                        subscriber.onNext(aLong);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        subscriber.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        subscriber.onError(throwable);
+                    }
+                });
+            }
+        };
+
+        final AtomicInteger received = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(3);//异步阻塞用
+        Disposable disposable = source
+                .map(new Function<Long, Long>() {
+                    @Override
+                    public Long apply(Long aLong) {
+                        return aLong * 2;
+                    }
+                })
+                .errorReturn(new Function<Throwable, Long>() {
+                    @Override
+                    public Long apply(Throwable throwable) {
+                        return -1L;
+                    }
+                })
+                .subscribe(new Consumer<Long>() {
+                    @Override
+                    public void accept(Long aLong) {
+                        received.incrementAndGet();
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        assertFalse(disposable.isDisposed());
+        disposable.dispose();
+        disposable.dispose();
+        assertTrue(disposable.isDisposed());
+        //取消只向上游传递一次，之后不再收到数据
+        assertEquals(1, cancels.get());
+        int count = received.get();
+        Thread.sleep(30);
+        assertEquals(count, received.get());
+
+        //释放后不再回调onError，onNext出错仍然回调onError
+        final List<Throwable> errors = new ArrayList<>();
+        final RuntimeException testException = new RuntimeException("test");
+        Subscription noop = new Subscription() {
+            @Override
+            public void request(long count) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+        Consumer<Throwable> collectError = new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable throwable) {
+                errors.add(throwable);
+            }
+        };
+        LambdaSubscriber<Integer> disposed = new LambdaSubscriber<>(null, null, collectError);
+        disposed.onSubscribe(noop);
+        disposed.dispose();
+        disposed.onError(testException);
+        assertTrue(errors.isEmpty());
+
+        LambdaSubscriber<Integer> throwing = new LambdaSubscriber<>(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                throw testException;
+            }
+        }, null, collectError);
+        throwing.onSubscribe(noop);
+        throwing.onNext(1);
+        throwing.onError(new RuntimeException("late"));
+        assertEquals(Arrays.<Throwable>asList(testException), errors);
+        assertTrue(throwing.isDisposed());
+    }
+
+    /**
+     * 主线程调度器测试
+     */
+    @Test
+    public void mainThread() throws Exception {
+        //模拟非Android平台的主线程
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, "main-loop");
+            }
+        });
+        Schedulers.setMainThreadScheduler(Schedulers.form(executor));
+        try {
+            final List<String> threads = new ArrayList<>();
+            final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+            Publisher.just(1, 2)
+                    .subscribeOn(Schedulers.newThread())
+                    .observeOn(Schedulers.uiThread())
+                    .subscribe(new Consumer<Integer>() {
+                        @Override
+                        public void accept(Integer integer) {
+                            threads.add(Thread.currentThread().getName());
+                        }
+                    }, null, new Action() {
+                        @Override
+                        public void run() {
+                            latch.countDown();
+                        }
+                    });
+            latch.await();
+            assertEquals(Arrays.asList("main-loop", "main-loop"), threads);
+        } finally {
+            Schedulers.setMainThreadScheduler(null);
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 性能统计测试
+     */
+    @Test
+    public void metrics() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        //分桶相对误差不超过1/32
+        long p50 = histogram.getValueAtPercentile(50);
+        assertTrue(Math.abs(p50 - 500000) <= 500000 / 32);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(Math.abs(p99 - 990000) <= 990000 / 32);
+        histogram.reset();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        MetricsRegistry registry = new MetricsRegistry();
+        assertTrue(registry.stage("map:test") == registry.stage("map:test"));
+        registry.stage("observeOn:test").onQueue(3, 100);
+        MetricsRegistry.Stage stage = registry.getStage("observeOn:test");
+        assertEquals(3, stage.getQueueDepth());
+        assertEquals(100, stage.getQueueWait().getMax());
+
+        //需要通过-Dreactivelite.metrics=true开启
+        if (!ReactiveMetrics.ENABLED) {
+            return;
+        }
+        ReactiveMetrics.setCollector(registry);
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+            Publisher.just(1, 2, 3, 4)
+                    .buffer(2)
+                    .observeOn(Schedulers.newThread())
+                    .subscribe(new Consumer<List<Integer>>() {
+                        @Override
+                        public void accept(List<Integer> integers) {
+                        }
+                    }, null, new Action() {
+                        @Override
+                        public void run() {
+                            latch.countDown();
+                        }
+                    });
+            latch.await();
+            assertEquals(4, registry.getStage("buffer").getCount());
+            assertEquals(2, registry.getStage("observeOn:" + Schedulers.newThread().getClass().getName()).getCount());
+        } finally {
+            ReactiveMetrics.setCollector(null);
+        }
+    }
+
+    /**
+     * IO调度器测试
+     */
+    @Test
+    public void ioScheduler() throws Exception {
+        final String[] names = new String[2];
+        //使用独立的调度器，不受其他测试缓存的线程影响
+        Scheduler io = new IoScheduler();
+        for (int i = 0; i < 2; i++) {
+            final int index = i;
+            final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+            Scheduler.Worker worker = io.createWorker();
+            worker.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    names[index] = Thread.currentThread().getName();
+                    latch.countDown();
+                }
+            });
+            latch.await();
+            worker.dispose();
+        }
+        //工作者释放后线程被下一个工作者重复使用
+        assertTrue(names[0].startsWith("ReactiveLite-IO-"));
+        assertEquals(names[0], names[1]);
+
+        final List<String> threads = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        Publisher.just(1, 2, 3)
+                .subscribeOn(Schedulers.virtual())
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        threads.add(Thread.currentThread().getName());
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        assertEquals(3, threads.size());
+        if (!VirtualThreadScheduler.isSupported()) {
+            assertTrue(Schedulers.virtual() == Schedulers.io());
+        }
+    }
+
+    /**
+     * 蹦床调度器和循环重试测试
+     */
+    @Test
+    public void trampoline() throws Exception {
+        final List<Integer> order = new ArrayList<>();
+        final Scheduler trampoline = Schedulers.trampoline();
+        trampoline.schedule(new Runnable() {
+            @Override
+            public void run() {
+                trampoline.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        order.add(2);
+                    }
+                });
+                order.add(1);
+            }
+        });
+        //嵌套调度的任务在外层任务返回后执行
+        assertEquals(Arrays.asList(1, 2), order);
+
+        //任务抛出Error后继续执行队列中的任务
+        final List<Throwable> uncaught = new ArrayList<>();
+        final Error testError = new Error("test");
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                uncaught.add(e);
+            }
+        });
+        try {
+            order.clear();
+            trampoline.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    trampoline.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            order.add(2);
+                        }
+                    });
+                    throw testError;
+                }
+            });
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+        assertEquals(Arrays.asList(2), order);
+        assertEquals(Arrays.<Throwable>asList(testError), uncaught);
+
+        //同步出错的数据源重试多次不会栈溢出
+        final AtomicInteger subscribes = new AtomicInteger();
+        final RuntimeException testException = new RuntimeException("test");
+        final Throwable[] error = new Throwable[1];
+        Publisher.create(new OnSubscribe<Integer>() {
+            @Override
+            public void call(Emitter<Integer> emitter) {
+                subscribes.incrementAndGet();
+                emitter.onError(testException);
+            }
+        }, BackpressureStrategy.BUFFER)
+                .retry(100000)
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        fail();
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) {
+                        error[0] = throwable;
+                    }
+                });
+        assertEquals(100001, subscribes.get());
+        assertEquals(testException, error[0]);
+
+        //重试时只发送尚未满足的请求量
+        final List<Integer> received = new ArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        Publisher.create(new OnSubscribe<Integer>() {
+            @Override
+            public void call(Emitter<Integer> emitter) {
+                emitter.onNext(1);
+                if (attempts.incrementAndGet() < 3) {
+                    emitter.onError(testException);
+                } else {
+                    emitter.onNext(2);
+                    emitter.onComplete();
+                }
+            }
+        }, BackpressureStrategy.BUFFER)
+                .retry(5)
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        received.add(integer);
+                    }
+                });
+        assertEquals(Arrays.asList(1, 1, 1, 2), received);
+    }
+
+    /**
+     * 退避重试测试
+     */
+    @Test
+    public void retryBackoff() throws Exception {
+        final RuntimeException testException = new RuntimeException("test");
+        final AtomicInteger attempts = new AtomicInteger();
+        Publisher<Integer> flaky = Publisher.create(new OnSubscribe<Integer>() {
+            @Override
+            public void call(Emitter<Integer> emitter) {
+                if (attempts.incrementAndGet() < 3) {
+                    emitter.onError(testException);
+                } else {
+                    emitter.onNext(attempts.get());
+                    emitter.onComplete();
+                }
+            }
+        }, BackpressureStrategy.BUFFER);
+
+        final List<Integer> received = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        long start = System.nanoTime();
+        flaky.retryBackoff(3, 20, TimeUnit.MILLISECONDS)
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        received.add(integer);
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        //等待20ms和40ms后第三次订阅成功
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 60);
+        assertEquals(Arrays.asList(3), received);
+
+        attempts.set(-10);
+        final Throwable[] error = new Throwable[1];
+        final CountDownLatch errorLatch = new CountDownLatch(1);//异步阻塞用
+        flaky.retryBackoff(2, 1, 1, TimeUnit.MILLISECONDS, Schedulers.io())
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        fail();
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) {
+                        error[0] = throwable;
+                        errorLatch.countDown();
+                    }
+                });
+        errorLatch.await();
+        assertEquals(testException, error[0]);
+        assertEquals(-7, attempts.get());
+
+        //返回的生产者完成时下游完成
+        final boolean[] completed = {false};
+        flaky.retryWhen(new Function<Publisher<Throwable>, Publisher<?>>() {
+            @Override
+            public Publisher<?> apply(Publisher<Throwable> errors) {
+                return Publisher.empty();
+            }
+        }).subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                fail();
+            }
+        }, null, new Action() {
+            @Override
+            public void run() {
+                completed[0] = true;
+            }
+        });
+        assertTrue(completed[0]);
+    }
+
+    /**
+     * 调度器生命周期测试
+     */
+    @Test
+    public void schedulerLifecycle() throws Exception {
+        //替换并行调度器
+        Schedulers.setParallelSchedulerFactory(new SchedulerFactory() {
+            @Override
+            public Scheduler create() {
+                return new ParallelScheduler(2, true, new NamedThreadFactory("custom", Thread.MAX_PRIORITY));
+            }
+        });
+        final Thread[] thread = new Thread[1];
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        Schedulers.parallel().schedule(new Runnable() {
+            @Override
+            public void run() {
+                thread[0] = Thread.currentThread();
+                latch.countDown();
+            }
+        });
+        latch.await();
+        assertTrue(thread[0].getName().startsWith("custom-"));
+        assertTrue(thread[0].isDaemon());
+        assertEquals(Thread.MAX_PRIORITY, thread[0].getPriority());
+        Schedulers.setParallelSchedulerFactory(null);
+        assertFalse(Schedulers.parallel().schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 0, TimeUnit.MILLISECONDS) == null);
+
+        //关闭后拒绝任务，重新启动后恢复
+        Scheduler single = new SingleThreadScheduler();
+        single.shutdown();
+        try {
+            single.schedule(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+            fail();
+        } catch (RejectedExecutionException e) {
+            //关闭后拒绝任务
+        }
+        single.start();
+        final CountDownLatch restarted = new CountDownLatch(1);//异步阻塞用
+        single.schedule(new Runnable() {
+            @Override
+            public void run() {
+                restarted.countDown();
+            }
+        });
+        restarted.await();
+        single.shutdown();
+
+        Schedulers.shutdown();
+        Schedulers.start();
+        final CountDownLatch done = new CountDownLatch(1);//异步阻塞用
+        Publisher.just(1)
+                .delay(1, TimeUnit.MILLISECONDS)
+                .subscribeOn(Schedulers.single())
+                .observeOn(Schedulers.io())
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        done.countDown();
+                    }
+                });
+        done.await();
+
+        //并发获取时得到同一个调度器
+        Schedulers.setSingleSchedulerFactory(null);
+        final Scheduler[] schedulers = new Scheduler[8];
+        final CountDownLatch ready = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(schedulers.length);
+        for (int i = 0; i < schedulers.length; i++) {
+            final int index = i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ready.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    schedulers[index] = Schedulers.single();
+                    finished.countDown();
+                }
+            }).start();
+        }
+        ready.countDown();
+        finished.await();
+        for (Scheduler scheduler : schedulers) {
+            assertTrue(scheduler == schedulers[0]);
+        }
+    }
+
+    /**
+     * 单个数据快速路径测试
+     */
+    @Test
+    public void scalar() throws Exception {
+        Publisher<Integer> source = Publisher.just(1);
+        assertTrue(source instanceof ScalarPublisher);
+
+        //请求前不发送数据
+        final List<Object> signals = new ArrayList<>();
+        final Subscription[] subscription = new Subscription[1];
+        source.map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer integer) {
+                return integer + 1;
+            }
+        }).subscribe(new Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(Integer integer) {
+                signals.add(integer);
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("complete");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add(throwable);
+            }
+        });
+        assertTrue(signals.isEmpty());
+        subscription[0].request(1);
+        subscription[0].request(1);
+        assertEquals(Arrays.<Object>asList(2, "complete"), signals);
+
+        //每次订阅都重新计算
+        final AtomicInteger calls = new AtomicInteger();
+        final List<Integer> values = new ArrayList<>();
+        Publisher<Integer> mapped = source.map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer integer) {
+                return integer + calls.incrementAndGet();
+            }
+        });
+        assertEquals(0, calls.get());
+        Consumer<Integer> collect = new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                values.add(integer);
+            }
+        };
+        mapped.subscribe(collect);
+        mapped.subscribe(collect);
+        assertEquals(Arrays.asList(2, 3), values);
+
+        //筛选不通过时直接完成
+        final boolean[] completed = {false};
+        source.select(new Predicate<Integer>() {
+            @Override
+            public boolean test(Integer integer) {
+                return integer > 1;
+            }
+        }).subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                fail();
+            }
+        }, null, new Action() {
+            @Override
+            public void run() {
+                completed[0] = true;
+            }
+        });
+        assertTrue(completed[0]);
+
+        //计算出错时回调onError
+        final RuntimeException testException = new RuntimeException("test");
+        final Throwable[] error = new Throwable[1];
+        source.map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer integer) {
+                throw testException;
+            }
+        }).subscribe(null, new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable throwable) {
+                error[0] = throwable;
+            }
+        });
+        assertTrue(error[0] == testException);
+
+        //flatMap直接发送单个数据
+        values.clear();
+        Publisher.just(1, 2, 3).flatMap(new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer integer) {
+                return Publisher.just(integer * 10);
+            }
+        }).subscribe(collect);
+        assertEquals(Arrays.asList(10, 20, 30), values);
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.github.maxwell.nc.reactivelib.observable.blocking;
+
+import com.github.maxwell.nc.reactivelib.BackpressureStrategy;
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.callback.Emitter;
+import com.github.maxwell.nc.reactivelib.callback.OnSubscribe;
+import com.github.maxwell.nc.reactivelib.scheduler.Schedulers;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 阻塞操作单元测试
+ */
+public class BlockingTest {
+
+    private static final RuntimeException TEST_EXCEPTION = new RuntimeException("test");
+
+    /**
+     * 发送1、2后出错的生产者
+     */
+    private static Publisher<Integer> itemsThenError() {
+        return Publisher.create(new OnSubscribe<Integer>() {
+            @Override
+            public void call(Emitter<Integer> emitter) {
+                emitter.onNext(1);
+                emitter.onNext(2);
+                emitter.onError(TEST_EXCEPTION);
+            }
+        }, BackpressureStrategy.BUFFER);
+    }
+
+    private static List<Integer> items(int count) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    /**
+     * blockingFirst测试
+     */
+    @Test
+    public void blockingFirst() throws Exception {
+        assertEquals(Integer.valueOf(1), Publisher.just(1, 2, 3).blockingFirst());
+        assertEquals(Long.valueOf(0), Publisher.interval(0, 5, TimeUnit.MILLISECONDS).blockingFirst());
+        assertEquals(Integer.valueOf(1), itemsThenError().blockingFirst());
+        try {
+            Publisher.<Integer>empty().blockingFirst();
+            fail();
+        } catch (NoSuchElementException e) {
+            //没有数据
+        }
+    }
+
+    /**
+     * blockingLast测试
+     */
+    @Test
+    public void blockingLast() throws Exception {
+        assertEquals(Integer.valueOf(3), Publisher.just(1, 2, 3).blockingLast());
+        try {
+            Publisher.<Integer>error(TEST_EXCEPTION).blockingLast();
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e == TEST_EXCEPTION);
+        }
+    }
+
+    /**
+     * blockingIterable按预取数量分批请求测试
+     */
+    @Test
+    public void blockingIterablePrefetch() throws Exception {
+        final List<Long> requests = new ArrayList<>();
+        Publisher<Integer> source = new Publisher<Integer>() {
+            @Override
+            protected void subscribeActual(final Subscriber<Integer> subscriber) {
+                Publisher.from(items(20)).subscribe(new Subscriber<Integer>() {
+                    @Override
+                    public void onSubscribe(final Subscription s) {
+                        subscriber.onSubscribe(new Subscription() {
+                            @Override
+                            public void request(long count) {
+                                synchronized (requests) {
+                                    requests.add(count);
+                                }
+                                s.request(count);
+                            }
+
+                            @Override
+                            public void cancel() {
+                                s.cancel();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onNext(Integer integer) {
+                        subscriber.onNext(integer);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        subscriber.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        subscriber.onError(throwable);
+                    }
+                });
+            }
+        };
+        List<Integer> values = new ArrayList<>();
+        for (Integer integer : source.subscribeOn(Schedulers.io()).blockingIterable(8)) {
+            values.add(integer);
+        }
+        assertEquals(items(20), values);
+        synchronized (requests) {
+            assertEquals(Long.valueOf(8), requests.get(0));
+            for (int i = 1; i < requests.size(); i++) {
+                assertEquals(Long.valueOf(6), requests.get(i));
+            }
+        }
+    }
+
+    /**
+     * blockingIterable出错前的数据测试
+     */
+    @Test
+    public void blockingIterableItemsBeforeError() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        try {
+            for (Integer integer : itemsThenError().blockingIterable()) {
+                values.add(integer);
+            }
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e == TEST_EXCEPTION);
+        }
+        assertEquals(Arrays.asList(1, 2), values);
+    }
+
+    /**
+     * blockingIterable提前结束遍历测试
+     */
+    @Test
+    public void blockingIterableDispose() throws Exception {
+        Iterator<Long> iterator = Publisher.interval(0, 1, TimeUnit.MILLISECONDS).blockingIterable(2).iterator();
+        assertEquals(Long.valueOf(0), iterator.next());
+        assertEquals(Long.valueOf(1), iterator.next());
+        ((Disposable) iterator).dispose();
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * blockingForEach测试
+     */
+    @Test
+    public void blockingForEach() throws Exception {
+        //在调用线程处理异步数据
+        final List<Thread> threads = new ArrayList<>();
+        final List<Integer> consumed = new ArrayList<>();
+        Publisher.from(items(100)).observeOn(Schedulers.io()).blockingForEach(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                threads.add(Thread.currentThread());
+                consumed.add(integer);
+            }
+        });
+        assertEquals(items(100), consumed);
+        for (Thread thread : threads) {
+            assertTrue(thread == Thread.currentThread());
+        }
+
+        //出错前的数据也会处理
+        consumed.clear();
+        try {
+            itemsThenError().blockingForEach(new Consumer<Integer>() {
+                @Override
+                public void accept(Integer integer) {
+                    consumed.add(integer);
+                }
+            });
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e == TEST_EXCEPTION);
+        }
+        assertEquals(Arrays.asList(1, 2), consumed);
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.github.maxwell.nc.reactivelib.observable.multicast;
+
+import com.github.maxwell.nc.reactivelib.BackpressureStrategy;
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Action;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.callback.Emitter;
+import com.github.maxwell.nc.reactivelib.callback.OnSubscribe;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 多播操作符单元测试
+ */
+public class MulticastTest {
+
+    /**
+     * 统计订阅上游的次数
+     */
+    private static Publisher<Integer> counted(final Publisher<Integer> source, final AtomicInteger subscriptions) {
+        return new Publisher<Integer>() {
+            @Override
+            protected void subscribeActual(Subscriber<Integer> subscriber) {
+                subscriptions.incrementAndGet();
+                source.subscribe(subscriber);
+            }
+        };
+    }
+
+    /**
+     * 连接后所有订阅者共用一次上游订阅
+     */
+    @Test
+    public void publish() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        ConnectablePublisher<Integer> published = counted(Publisher.just(1, 2, 3), subscriptions).publish();
+        final List<Integer> first = new ArrayList<>();
+        final List<Integer> second = new ArrayList<>();
+        published.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                first.add(integer);
+            }
+        });
+        published.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                second.add(integer);
+            }
+        });
+        assertTrue(first.isEmpty());
+        published.connect();
+        assertEquals(Arrays.asList(1, 2, 3), first);
+        assertEquals(Arrays.asList(1, 2, 3), second);
+        assertEquals(1, subscriptions.get());
+    }
+
+    /**
+     * 连接后订阅的只收到缓存中最近的数据
+     */
+    @Test
+    public void replay() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        ConnectablePublisher<Integer> replayed = counted(Publisher.just(1, 2, 3), subscriptions).replay(2);
+        replayed.connect();
+        final List<Integer> late = new ArrayList<>();
+        final boolean[] completed = new boolean[1];
+        replayed.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                late.add(integer);
+            }
+        }, null, new Action() {
+            @Override
+            public void run() {
+                completed[0] = true;
+            }
+        });
+        assertEquals(Arrays.asList(2, 3), late);
+        assertTrue(completed[0]);
+        assertEquals(1, subscriptions.get());
+    }
+
+    /**
+     * 共享异步数据：两个订阅者共用一次上游订阅
+     */
+    @Test
+    public void share() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Publisher<Integer> shared = counted(Publisher.just(1, 2, 3).delay(20, TimeUnit.MILLISECONDS), subscriptions)
+                .share();
+        final CountDownLatch latch = new CountDownLatch(2);//异步阻塞用
+        final List<Integer> a = new ArrayList<>();
+        final List<Integer> b = new ArrayList<>();
+        Action countDown = new Action() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+        shared.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                a.add(integer);
+            }
+        }, null, countDown);
+        shared.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                b.add(integer);
+            }
+        }, null, countDown);
+        latch.await();
+        assertEquals(Arrays.asList(1, 2, 3), a);
+        assertEquals(Arrays.asList(1, 2, 3), b);
+        assertEquals(1, subscriptions.get());
+    }
+
+    /**
+     * 唯一的订阅者在连接返回前取消时断开连接测试
+     */
+    @Test
+    public void refCountReleaseDuringConnect() throws Exception {
+        final AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        //发送一个数据后不结束
+        Publisher<Integer> shared = Publisher.create(new OnSubscribe<Integer>() {
+            @Override
+            public void call(Emitter<Integer> emitter) {
+                emitter.setCancellation(new Action() {
+                    @Override
+                    public void run() {
+                        upstreamCancelled.set(true);
+                    }
+                });
+                emitter.onNext(1);
+            }
+        }, BackpressureStrategy.BUFFER).share();
+
+        final List<Integer> received = new ArrayList<>();
+        shared.subscribe(new Subscriber<Integer>() {
+            private Subscription upstream;
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                upstream = s;
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Integer integer) {
+                received.add(integer);
+                //在connect()返回前取消
+                upstream.cancel();
+            }
+
+            @Override
+            public void onComplete() {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+        });
+        assertEquals(Arrays.asList(1), received);
+        assertTrue(upstreamCancelled.get());
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Action;
+import com.github.maxwell.nc.reactivelib.callback.BiFunction;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.Predicate;
+import com.github.maxwell.nc.reactivelib.scheduler.ParallelScheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 并行操作符单元测试
+ */
+public class ParallelTest {
+
+    private static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) throws Exception {
+            return integer % 2 == 0;
+        }
+    };
+
+    private final Scheduler scheduler = new ParallelScheduler(4, true);
+
+    /**
+     * 0到999的数据
+     */
+    private static List<Integer> source() {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            source.add(i);
+        }
+        return source;
+    }
+
+    /**
+     * 合并时保持原始顺序
+     */
+    @Test
+    public void sequentialOrdered() throws Exception {
+        final List<Integer> ordered = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        Publisher.from(source())
+                .parallel(4, 16)
+                .runOn(scheduler, 8)
+                .map(new Function<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer integer) throws Exception {
+                        return integer * integer;
+                    }
+                })
+                .select(EVEN)
+                .sequentialOrdered()
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        ordered.add(integer);
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        assertEquals(500, ordered.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(4 * i * i, (int) ordered.get(i));
+        }
+    }
+
+    /**
+     * 合并时不保持顺序
+     */
+    @Test
+    public void sequential() throws Exception {
+        final List<Integer> unordered = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        Publisher.from(source())
+                .parallel(4)
+                .runOn(scheduler)
+                .select(EVEN)
+                .sequential()
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        unordered.add(integer);
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        assertEquals(500, unordered.size());
+        long sum = 0;
+        for (Integer integer : unordered) {
+            sum += integer;
+        }
+        assertEquals(249500L, sum);
+    }
+
+    /**
+     * 合并各条轨道的结果
+     */
+    @Test
+    public void reduce() throws Exception {
+        final Integer[] total = {null};
+        final CountDownLatch latch = new CountDownLatch(1);//异步阻塞用
+        Publisher.from(source())
+                .parallel(3)
+                .runOn(scheduler)
+                .reduce(new BiFunction<Integer, Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer a, Integer b) throws Exception {
+                        return a + b;
+                    }
+                })
+                .subscribe(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) {
+                        total[0] = integer;
+                    }
+                }, null, new Action() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        assertEquals(499500, (int) total[0]);
+    }
+
+}
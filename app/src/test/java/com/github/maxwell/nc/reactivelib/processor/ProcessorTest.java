@@ -0,0 +1,121 @@
+package com.github.maxwell.nc.reactivelib.processor;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * 处理器单元测试
+ */
+public class ProcessorTest {
+
+    /**
+     * 订阅后只收到之后发送的数据
+     */
+    @Test
+    public void publish() throws Exception {
+        PublishProcessor<Integer> publish = new PublishProcessor<>();
+        final List<Integer> first = new ArrayList<>();
+        final List<Integer> second = new ArrayList<>();
+        publish.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                first.add(integer);
+            }
+        });
+        publish.onNext(1);
+        publish.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                second.add(integer);
+            }
+        });
+        publish.onNext(2);
+        publish.onComplete();
+        assertEquals(Arrays.asList(1, 2), first);
+        assertEquals(Arrays.asList(2), second);
+        assertFalse(publish.hasSubscribers());
+    }
+
+    /**
+     * 订阅时先收到最新的数据
+     */
+    @Test
+    public void behavior() throws Exception {
+        BehaviorProcessor<String> behavior = new BehaviorProcessor<>("default");
+        final List<String> values = new ArrayList<>();
+        Consumer<String> collect = new Consumer<String>() {
+            @Override
+            public void accept(String s) {
+                values.add(s);
+            }
+        };
+        behavior.subscribe(collect);
+        behavior.onNext("a");
+        behavior.onNext("b");
+        behavior.subscribe(collect);
+        assertEquals(Arrays.asList("default", "a", "b", "b"), values);
+        assertEquals("b", behavior.getValue());
+    }
+
+    /**
+     * 结束后订阅也会重放缓存中最近的数据
+     */
+    @Test
+    public void replay() throws Exception {
+        ReplayProcessor<Integer> replay = new ReplayProcessor<>(2);
+        Publisher.just(1, 2, 3).subscribe(replay);
+        final List<Integer> replayed = new ArrayList<>();
+        replay.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                replayed.add(integer);
+            }
+        });
+        assertEquals(Arrays.asList(2, 3), replayed);
+    }
+
+    /**
+     * 多个线程同时发送
+     */
+    @Test
+    public void serialized() throws Exception {
+        final Processor<Integer> serialized = new PublishProcessor<Integer>().serialized();
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(4);//异步阻塞用
+        serialized.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                count.incrementAndGet();
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        serialized.onNext(j);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+        assertEquals(40000, count.get());
+    }
+
+}
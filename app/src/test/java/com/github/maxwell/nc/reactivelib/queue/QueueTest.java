@@ -0,0 +1,74 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 队列单元测试类
+ */
+public class QueueTest {
+
+    @Test
+    public void spsc() throws Exception {
+        SpscArrayQueue<Integer> queue = new SpscArrayQueue<>(3);
+        //容量向上取2的幂
+        assertEquals(4, queue.capacity());
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, (int) queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void mpsc() throws Exception {
+        final int producers = 4;
+        final int count = 10000;
+        final MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(64);
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        while (!queue.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+
+        long sum = 0;
+        int received = 0;
+        while (received != producers * count) {
+            Integer v = queue.poll();
+            if (v == null) {
+                Thread.yield();
+                continue;
+            }
+            sum += v;
+            received++;
+        }
+        assertEquals((long) producers * count * (count - 1) / 2, sum);
+        assertTrue(queue.isEmpty());
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.github.maxwell.nc.reactivelib.benchmark;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.Predicate;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 组装和订阅开销测试<br>
+ * 数据量只有1个，结果主要反映创建生产者和订阅者链的开销：<br>
+ * assemble：只组装操作符链<br>
+ * subscribe：订阅已经组装好的操作符链<br>
+ * assembleAndSubscribe：每次都组装并订阅<br>
+ * subscribeLambda：通过回调订阅，包括创建{@link Disposable}的开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AssemblyBenchmark {
+
+    private static final Function<Integer, Integer> INCREMENT = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer integer) {
+            return integer + 1;
+        }
+    };
+
+    private static final Predicate<Integer> ALWAYS = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) {
+            return integer >= 0;
+        }
+    };
+
+    private static final Function<Throwable, Integer> FALLBACK = new Function<Throwable, Integer>() {
+        @Override
+        public Integer apply(Throwable throwable) {
+            return -1;
+        }
+    };
+
+    private final Publisher<Integer> assembled = chain();
+
+    private static Publisher<Integer> chain() {
+        return Publisher.just(1)
+                .map(INCREMENT)
+                .select(ALWAYS)
+                .retry(1)
+                .errorReturn(FALLBACK);
+    }
+
+    @Benchmark
+    public Publisher<Integer> assemble() {
+        return chain();
+    }
+
+    @Benchmark
+    public void subscribe(Blackhole bh) {
+        assembled.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void assembleAndSubscribe(Blackhole bh) {
+        chain().subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public Disposable subscribeLambda(final Blackhole bh) {
+        return assembled.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                bh.consume(integer);
+            }
+        });
+    }
+
+}
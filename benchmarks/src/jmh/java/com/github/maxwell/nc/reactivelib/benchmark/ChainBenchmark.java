@@ -0,0 +1,100 @@
+package com.github.maxwell.nc.reactivelib.benchmark;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 操作符链吞吐量测试<br>
+ * 在{@link #count}个数据上叠加{@link #depth}层map、select或buffer，测量每层操作符的开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChainBenchmark {
+
+    private static final Function<Integer, Integer> INCREMENT = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer integer) {
+            return integer + 1;
+        }
+    };
+
+    private static final Predicate<Integer> ALWAYS = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) {
+            return integer >= 0;
+        }
+    };
+
+    private static final Function<List<Integer>, Integer> FIRST = new Function<List<Integer>, Integer>() {
+        @Override
+        public Integer apply(List<Integer> list) {
+            return list.get(0);
+        }
+    };
+
+    @Param({"1000", "1000000"})
+    public int count;
+
+    @Param({"1", "2", "4"})
+    public int depth;
+
+    private Publisher<Integer> map;
+    private Publisher<Integer> select;
+    private Publisher<Integer> mapSelect;
+    private Publisher<Integer> buffer;
+
+    @Setup
+    public void setup() {
+        Integer[] array = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = i;
+        }
+        Publisher<Integer> source = Publisher.just(array);
+        map = source;
+        select = source;
+        mapSelect = source;
+        buffer = source;
+        for (int i = 0; i < depth; i++) {
+            map = map.map(INCREMENT);
+            select = select.select(ALWAYS);
+            mapSelect = mapSelect.map(INCREMENT).select(ALWAYS);
+            buffer = buffer.buffer(16).map(FIRST);
+        }
+    }
+
+    @Benchmark
+    public void map(Blackhole bh) {
+        map.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void select(Blackhole bh) {
+        select.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void mapSelect(Blackhole bh) {
+        mapSelect.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void buffer(Blackhole bh) {
+        buffer.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.github.maxwell.nc.reactivelib.benchmark;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据源发送吞吐量测试<br>
+ * just：数组数据源发送{@link #count}个数据<br>
+ * from：Iterable数据源发送{@link #count}个数据
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmissionBenchmark {
+
+    @Param({"1", "1000", "1000000"})
+    public int count;
+
+    private Publisher<Integer> just;
+    private Publisher<Integer> from;
+
+    @Setup
+    public void setup() {
+        Integer[] array = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = i;
+        }
+        just = Publisher.just(array);
+        from = Publisher.from(Arrays.asList(array));
+    }
+
+    @Benchmark
+    public void just(Blackhole bh) {
+        just.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void from(Blackhole bh) {
+        from.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+}
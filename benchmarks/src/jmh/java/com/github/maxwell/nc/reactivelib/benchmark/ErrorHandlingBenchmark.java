@@ -0,0 +1,82 @@
+package com.github.maxwell.nc.reactivelib.benchmark;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 错误处理吞吐量测试<br>
+ * retryPass、errorReturnPass：没有错误时经过处理操作符的开销<br>
+ * retryFail：每次订阅都出错，重试{@link #times}次后结束<br>
+ * errorReturnFail：出错后返回特定数据
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ErrorHandlingBenchmark {
+
+    private static final Function<Throwable, Integer> FALLBACK = new Function<Throwable, Integer>() {
+        @Override
+        public Integer apply(Throwable throwable) {
+            return -1;
+        }
+    };
+
+    @Param({"1000"})
+    public int count;
+
+    @Param({"1", "16"})
+    public int times;
+
+    private Publisher<Integer> retryPass;
+    private Publisher<Integer> retryFail;
+    private Publisher<Integer> errorReturnPass;
+    private Publisher<Integer> errorReturnFail;
+
+    @Setup
+    public void setup() {
+        Integer[] array = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = i;
+        }
+        Publisher<Integer> source = Publisher.just(array);
+        //预先创建异常，只测量处理的开销
+        Publisher<Integer> error = Publisher.error(new IllegalStateException("benchmark"));
+        retryPass = source.retry(times);
+        retryFail = error.retry(times);
+        errorReturnPass = source.errorReturn(FALLBACK);
+        errorReturnFail = error.errorReturn(FALLBACK);
+    }
+
+    @Benchmark
+    public void retryPass(Blackhole bh) {
+        retryPass.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void retryFail(Blackhole bh) {
+        retryFail.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void errorReturnPass(Blackhole bh) {
+        errorReturnPass.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void errorReturnFail(Blackhole bh) {
+        errorReturnFail.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.github.maxwell.nc.reactivelib.benchmark;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.Schedulers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 切换线程吞吐量测试<br>
+ * 通过各种调度器observeOn发送{@link #count}个数据，测量从订阅到结束的耗时，包括队列和线程交接的开销<br>
+ * 主线程调度器依赖Android的Looper，不在此测试
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ObserveOnBenchmark {
+
+    @Param({"single", "newThread", "parallel", "executor"})
+    public String scheduler;
+
+    @Param({"1", "1000", "100000"})
+    public int count;
+
+    private ExecutorService executor;
+    private Publisher<Integer> observeOn;
+
+    @Setup
+    public void setup() {
+        Integer[] array = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = i;
+        }
+        Scheduler s;
+        switch (scheduler) {
+            case "single":
+                s = Schedulers.single();
+                break;
+            case "newThread":
+                s = Schedulers.newThread();
+                break;
+            case "parallel":
+                s = Schedulers.parallel();
+                break;
+            default:
+                executor = Executors.newSingleThreadExecutor();
+                s = Schedulers.form(executor);
+                break;
+        }
+        observeOn = Publisher.just(array).observeOn(s);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void observeOn(Blackhole bh) throws InterruptedException {
+        PerfSubscriber<Integer> subscriber = new PerfSubscriber<>(bh);
+        observeOn.subscribe(subscriber);
+        subscriber.await();
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.github.maxwell.nc.reactivelib.benchmark;
+
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测试用订阅者<br>
+ * 请求所有数据并交给{@link Blackhole}消耗，避免被JIT优化掉；异步测试时通过{@link #await()}等待结束
+ */
+final class PerfSubscriber<T> implements Subscriber<T> {
+
+    private final Blackhole bh;
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    PerfSubscriber(Blackhole bh) {
+        this.bh = bh;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T t) {
+        bh.consume(t);
+    }
+
+    @Override
+    public void onComplete() {
+        latch.countDown();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        bh.consume(throwable);
+        latch.countDown();
+    }
+
+    /**
+     * 等待异步数据流结束
+     */
+    void await() throws InterruptedException {
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("timeout!");
+        }
+    }
+
+}
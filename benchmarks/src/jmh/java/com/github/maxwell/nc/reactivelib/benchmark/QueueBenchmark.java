@@ -0,0 +1,107 @@
+package com.github.maxwell.nc.reactivelib.benchmark;
+
+import com.github.maxwell.nc.reactivelib.queue.MpscArrayQueue;
+import com.github.maxwell.nc.reactivelib.queue.SimpleQueue;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 队列吞吐量测试<br>
+ * 对比{@link SpscArrayQueue}、{@link MpscArrayQueue}和{@link ConcurrentLinkedQueue}：<br>
+ * offerPoll：同一线程存入后取出<br>
+ * spsc组：一个生产者线程和一个消费者线程并发存取
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueueBenchmark {
+
+    private static final Integer ITEM = 1;
+
+    @Param({"SpscArrayQueue", "MpscArrayQueue", "ConcurrentLinkedQueue"})
+    public String type;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private SimpleQueue<Integer> queue;
+
+    @Setup
+    public void setup() {
+        switch (type) {
+            case "SpscArrayQueue":
+                queue = new SpscArrayQueue<>(capacity);
+                break;
+            case "MpscArrayQueue":
+                queue = new MpscArrayQueue<>(capacity);
+                break;
+            default:
+                queue = new LinkedQueue<>();
+                break;
+        }
+    }
+
+    @Benchmark
+    @Group("offerPoll")
+    public Integer offerPoll() {
+        queue.offer(ITEM);
+        return queue.poll();
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public boolean offer() {
+        return queue.offer(ITEM);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public Integer poll() {
+        return queue.poll();
+    }
+
+    /**
+     * 适配{@link ConcurrentLinkedQueue}，每次存入都会分配节点对象
+     */
+    private static final class LinkedQueue<E> implements SimpleQueue<E> {
+
+        private final ConcurrentLinkedQueue<E> queue = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public boolean offer(E e) {
+            return queue.offer(e);
+        }
+
+        @Override
+        public E poll() {
+            return queue.poll();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            queue.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.github.maxwell.nc.reactivelib.benchmark;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.Predicate;
+import com.github.maxwell.nc.reactivelib.observable.create.ArrayPublisher;
+import com.github.maxwell.nc.reactivelib.observable.create.ScalarPublisher;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个数据的订阅开销测试<br>
+ * 主要对比gc.alloc.rate.norm（每次订阅分配的字节数）：<br>
+ * array前缀：只有一个数据的{@link ArrayPublisher}，即优化前just(1)的订阅路径，每个阶段都创建订阅者<br>
+ * scalar前缀：{@link Publisher#just(Object[])}返回的{@link ScalarPublisher}，
+ * 融合的map和select在订阅时直接计算，只创建一个订阅信息
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScalarBenchmark {
+
+    private static final Function<Integer, Integer> INCREMENT = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer integer) {
+            return integer + 1;
+        }
+    };
+
+    private static final Predicate<Integer> ALWAYS = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) {
+            return integer >= 0;
+        }
+    };
+
+    private final Publisher<Integer> arraySource = new ArrayPublisher<>(new Integer[]{1});
+    private final Publisher<Integer> scalarSource = Publisher.just(1);
+
+    private final Publisher<Integer> arrayChain = arraySource.map(INCREMENT).select(ALWAYS);
+    private final Publisher<Integer> scalarChain = scalarSource.map(INCREMENT).select(ALWAYS);
+
+    @Benchmark
+    public void arrayJust(Blackhole bh) {
+        arraySource.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void scalarJust(Blackhole bh) {
+        scalarSource.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void arrayMapSelect(Blackhole bh) {
+        arrayChain.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public void scalarMapSelect(Blackhole bh) {
+        scalarChain.subscribe(new PerfSubscriber<Integer>(bh));
+    }
+
+    @Benchmark
+    public Disposable scalarMapSelectLambda(final Blackhole bh) {
+        return scalarChain.subscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) {
+                bh.consume(integer);
+            }
+        });
+    }
+
+}
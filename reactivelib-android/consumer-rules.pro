@@ -0,0 +1,4 @@
+# Schedulers.mainThread()通过类名加载主线程调度器
+-keep class com.github.maxwell.nc.reactivelib.android.MainThreadScheduler {
+    <init>();
+}
@@ -0,0 +1,59 @@
+package com.github.maxwell.nc.reactivelib.android;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.github.maxwell.nc.reactivelib.scheduler.BaseScheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.Schedulers;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 主线程调度器<br>
+ * 延时调度通过Handler计时<br>
+ * 依赖此模块时{@link Schedulers#mainThread()}会自动加载此调度器，不需要手动设置
+ */
+public class MainThreadScheduler extends BaseScheduler {
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public void schedule(Runnable runnable) {
+        if (Thread.currentThread() != Looper.getMainLooper().getThread()) {
+            mainHandler.post(runnable);
+        } else {//在主线程直接执行
+            runnable.run();
+        }
+    }
+
+    @Override
+    public Disposable schedule(final Runnable runnable, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            return super.schedule(runnable, delay, unit);
+        }
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                runnable.run();
+            }
+        };
+        mainHandler.postDelayed(task, unit.toMillis(delay));
+        return new Disposable() {
+
+            private volatile boolean disposed;
+
+            @Override
+            public void dispose() {
+                disposed = true;
+                mainHandler.removeCallbacks(task);
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return disposed;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.github.maxwell.nc.reactivelib;
+
+/**
+ * 背压策略<br>
+ * 推送形式的数据源发送速度超过下游请求量时的处理方式，用于{@link Publisher#create(com.github.maxwell.nc.reactivelib.callback.OnSubscribe, BackpressureStrategy)}
+ */
+public enum BackpressureStrategy {
+
+    /**
+     * 缓存所有尚未请求的数据，直到下游请求时发送
+     */
+    BUFFER,
+
+    /**
+     * 没有请求量时抛弃数据
+     */
+    DROP,
+
+    /**
+     * 没有请求量时只保留最新的一个数据，下游请求时发送
+     */
+    LATEST,
+
+    /**
+     * 没有请求量时取消数据源并向下游发送{@link IllegalStateException}
+     */
+    ERROR
+
+}
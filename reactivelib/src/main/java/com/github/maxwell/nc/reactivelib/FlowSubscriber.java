@@ -9,9 +9,11 @@ import com.github.maxwell.nc.reactivelib.subscription.Subscription;
 public abstract class FlowSubscriber<T> implements Subscriber<T> {
 
     private FlowSubscription flowSubscription;
+    private Subscription subscription;
 
     @Override
     public void onSubscribe(Subscription s) {
+        subscription = s;
         if (s instanceof FlowSubscription) {
             flowSubscription = (FlowSubscription) s;
         }
@@ -19,7 +21,7 @@ public abstract class FlowSubscriber<T> implements Subscriber<T> {
     }
 
     /**
-     * 获取请求量
+     * 获取订阅时的初始请求量
      */
     protected long getRequestCount() {
         return Long.MAX_VALUE;
@@ -35,6 +37,17 @@ public abstract class FlowSubscriber<T> implements Subscriber<T> {
 
     }
 
+    /**
+     * 追加请求数据，请求量会累加到尚未发送的请求量上
+     *
+     * @param count 追加的请求量（必须大于0）
+     */
+    public void request(long count) {
+        if (subscription != null) {
+            subscription.request(count);
+        }
+    }
+
     /**
      * 取消任务
      */
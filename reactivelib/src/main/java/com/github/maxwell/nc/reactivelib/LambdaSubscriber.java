@@ -2,18 +2,39 @@ package com.github.maxwell.nc.reactivelib;
 
 import com.github.maxwell.nc.reactivelib.callback.Action;
 import com.github.maxwell.nc.reactivelib.callback.Consumer;
-import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
 import com.github.maxwell.nc.reactivelib.subscription.Subscription;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 /**
  * Lambda表达式订阅者<br>
  */
-public class LambdaSubscriber<T> implements Subscriber<T> {
+public class LambdaSubscriber<T> implements Subscriber<T>, Disposable {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<LambdaSubscriber, Subscription> UPSTREAM =
+            AtomicReferenceFieldUpdater.newUpdater(LambdaSubscriber.class, Subscription.class, "upstream");
+
+    private static final Subscription CANCELLED = new Subscription() {
+        @Override
+        public void request(long count) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
 
     private final Consumer<T> onNext;
     private final Action onComplete;
     private final Consumer<? super Throwable> onError;
-    private FlowSubscription subscription;
+
+    /**
+     * 上游订阅信息，释放或结束后为{@link #CANCELLED}<br>
+     * 通过{@link #UPSTREAM}原子更新，每次订阅少创建一个对象
+     */
+    private volatile Subscription upstream;
 
     public LambdaSubscriber(Consumer<T> onNext, Action onComplete, Consumer<? super Throwable> onError) {
         this.onNext = onNext;
@@ -23,8 +44,10 @@ public class LambdaSubscriber<T> implements Subscriber<T> {
 
     @Override
     public void onSubscribe(Subscription s) {
-        if (s instanceof FlowSubscription) {
-            subscription = (FlowSubscription) s;
+        if (!UPSTREAM.compareAndSet(this, null, s)) {
+            //订阅前已经释放
+            s.cancel();
+            return;
         }
         //请求所有可用数据
         s.request(Long.MAX_VALUE);
@@ -33,26 +56,29 @@ public class LambdaSubscriber<T> implements Subscriber<T> {
     @Override
     public void onNext(T t) {
         if (onNext != null) {
-            if (subscription != null && subscription.isCancelled()) {
+            if (upstream == CANCELLED) {
                 return;
             }
             try {
                 onNext.accept(t);
             } catch (Exception e) {
-                if (subscription != null) {
-                    subscription.cancel();
+                Subscription s = UPSTREAM.getAndSet(this, CANCELLED);
+                if (s != CANCELLED) {
+                    if (s != null) {
+                        s.cancel();
+                    }
+                    error(e);
                 }
-                onError(e);
             }
         }
     }
 
     @Override
     public void onComplete() {
+        if (UPSTREAM.getAndSet(this, CANCELLED) == CANCELLED) {
+            return;
+        }
         if (onComplete != null) {
-            if (subscription != null && subscription.isCancelled()) {
-                return;
-            }
             try {
                 onComplete.run();
             } catch (Exception e) {
@@ -63,6 +89,14 @@ public class LambdaSubscriber<T> implements Subscriber<T> {
 
     @Override
     public void onError(Throwable throwable) {
+        //释放后不再回调
+        if (UPSTREAM.getAndSet(this, CANCELLED) == CANCELLED) {
+            return;
+        }
+        error(throwable);
+    }
+
+    private void error(Throwable throwable) {
         if (onError != null) {
             try {
                 onError.accept(throwable);
@@ -72,6 +106,22 @@ public class LambdaSubscriber<T> implements Subscriber<T> {
         }
     }
 
+    /**
+     * 释放订阅，取消上游
+     */
+    @Override
+    public void dispose() {
+        Subscription s = UPSTREAM.getAndSet(this, CANCELLED);
+        if (s != null && s != CANCELLED) {
+            s.cancel();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return upstream == CANCELLED;
+    }
+
     /**
      * 抛出未处理异常（订阅回调逻辑本身代码的问题）
      */
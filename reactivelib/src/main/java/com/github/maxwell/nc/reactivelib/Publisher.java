@@ -3,29 +3,58 @@ package com.github.maxwell.nc.reactivelib;
 import com.github.maxwell.nc.reactivelib.callback.Action;
 import com.github.maxwell.nc.reactivelib.callback.Consumer;
 import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.OnSubscribe;
 import com.github.maxwell.nc.reactivelib.callback.Predicate;
+import com.github.maxwell.nc.reactivelib.observable.blocking.BlockingFirstSubscriber;
+import com.github.maxwell.nc.reactivelib.observable.blocking.BlockingIterable;
+import com.github.maxwell.nc.reactivelib.observable.blocking.BlockingLastSubscriber;
 import com.github.maxwell.nc.reactivelib.observable.create.ArrayPublisher;
+import com.github.maxwell.nc.reactivelib.observable.create.CreatePublisher;
 import com.github.maxwell.nc.reactivelib.observable.create.EmptyPublisher;
 import com.github.maxwell.nc.reactivelib.observable.create.ErrorPublisher;
 import com.github.maxwell.nc.reactivelib.observable.create.IterablePublisher;
+import com.github.maxwell.nc.reactivelib.observable.create.ScalarPublisher;
 import com.github.maxwell.nc.reactivelib.observable.create.TimerPublisher;
+import com.github.maxwell.nc.reactivelib.observable.handle.BackpressureBufferPublisher;
+import com.github.maxwell.nc.reactivelib.observable.handle.BackpressureDropPublisher;
+import com.github.maxwell.nc.reactivelib.observable.handle.BackpressureLatestPublisher;
 import com.github.maxwell.nc.reactivelib.observable.handle.ErrorReturnPublisher;
+import com.github.maxwell.nc.reactivelib.observable.handle.ExponentialBackoff;
 import com.github.maxwell.nc.reactivelib.observable.handle.RetryPublisher;
+import com.github.maxwell.nc.reactivelib.observable.handle.RetryWhenPublisher;
+import com.github.maxwell.nc.reactivelib.observable.multicast.ConnectablePublisher;
+import com.github.maxwell.nc.reactivelib.observable.multicast.PublishPublisher;
+import com.github.maxwell.nc.reactivelib.observable.multicast.RefCountPublisher;
+import com.github.maxwell.nc.reactivelib.observable.multicast.ReplayPublisher;
 import com.github.maxwell.nc.reactivelib.observable.transform.BufferPublisher;
+import com.github.maxwell.nc.reactivelib.observable.transform.ConcatMapPublisher;
+import com.github.maxwell.nc.reactivelib.observable.transform.FlatMapPublisher;
+import com.github.maxwell.nc.reactivelib.observable.transform.FusedPublisher;
 import com.github.maxwell.nc.reactivelib.observable.transform.MapPublisher;
 import com.github.maxwell.nc.reactivelib.observable.transform.SelectPublisher;
+import com.github.maxwell.nc.reactivelib.observable.transform.TimedBufferPublisher;
+import com.github.maxwell.nc.reactivelib.parallel.ParallelPublisher;
 import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
 import com.github.maxwell.nc.reactivelib.scheduler.Schedulers;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+import com.github.maxwell.nc.reactivelib.thread.PublisherDelay;
 import com.github.maxwell.nc.reactivelib.thread.PublisherObserveOn;
 import com.github.maxwell.nc.reactivelib.thread.PublisherSubscribeOn;
 
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 生产者
  */
 public abstract class Publisher<T> {
 
+    /**
+     * 异步操作符默认的缓存（预取）数量
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 128;
+
     /**
      * 创建：空的生产者，直接执行onComplete()回调
      *
@@ -47,7 +76,7 @@ public abstract class Publisher<T> {
     /**
      * 创建：数组类型的数据生产者
      *
-     * @param t 可变数据列，数据为空则返回空的生产者
+     * @param t 可变数据列，数据为空则返回空的生产者，只有一个数据则返回{@link ScalarPublisher}
      * @see ArrayPublisher
      */
     @SafeVarargs
@@ -55,6 +84,9 @@ public abstract class Publisher<T> {
         if (t.length == 0) {
             return empty();
         }
+        if (t.length == 1) {
+            return new ScalarPublisher<>(t[0]);
+        }
         return new ArrayPublisher<>(t);
     }
 
@@ -72,13 +104,13 @@ public abstract class Publisher<T> {
     }
 
     /**
-     * 创建：定时器数据生产者，定时器线程在运行所在的线程
+     * 创建：定时器数据生产者，立即发送第一个数据，数据在共享的定时线程发送
      *
      * @param interval 间隔毫秒（必须大于0）
      * @see TimerPublisher
      */
     public static Publisher<Long> timer(long interval) {
-        return new TimerPublisher(interval, null);
+        return timer(interval, null);
     }
 
     /**
@@ -95,18 +127,70 @@ public abstract class Publisher<T> {
         return new TimerPublisher(interval, scheduler);
     }
 
+    /**
+     * 创建：定时器数据生产者，数据在共享的定时线程发送
+     *
+     * @param initialDelay 第一个数据的延时（不能小于0）
+     * @param period       间隔（必须大于0）
+     * @param unit         非空，时间单位
+     * @see TimerPublisher
+     */
+    public static Publisher<Long> interval(long initialDelay, long period, TimeUnit unit) {
+        return interval(initialDelay, period, unit, null);
+    }
+
+    /**
+     * 创建：定时器数据生产者
+     *
+     * @param initialDelay 第一个数据的延时（不能小于0）
+     * @param period       间隔（必须大于0）
+     * @param unit         非空，时间单位
+     * @param scheduler    发送数据的线程调度器
+     * @see TimerPublisher
+     */
+    public static Publisher<Long> interval(long initialDelay, long period, TimeUnit unit, Scheduler scheduler) {
+        if (initialDelay < 0) {
+            throw new IndexOutOfBoundsException("initialDelay is out of bounds!");
+        }
+        if (period <= 0) {
+            throw new IndexOutOfBoundsException("period is out of bounds!");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit is null!");
+        }
+        return new TimerPublisher(initialDelay, period, unit, scheduler);
+    }
+
+    /**
+     * 创建：通过发射器推送数据的生产者，用于接入回调、监听器等数据源
+     *
+     * @param source   非空，订阅时执行，通过发射器发送数据
+     * @param strategy 非空，推送速度超过请求量时的背压策略
+     * @see CreatePublisher
+     */
+    public static <T> Publisher<T> create(OnSubscribe<T> source, BackpressureStrategy strategy) {
+        if (source == null) {
+            throw new NullPointerException("source is null!");
+        }
+        if (strategy == null) {
+            throw new NullPointerException("strategy is null!");
+        }
+        return new CreatePublisher<>(source, strategy);
+    }
+
     /**
      * 转换：变换数据的生产者
      *
      * @param function 非空，转换操作回调
      * @param <V>      转换后的数据类型
      * @see MapPublisher
+     * @see FusedPublisher
      */
     public <V> Publisher<V> map(Function<T, V> function) {
         if (function == null) {
             throw new NullPointerException("map function is null!");
         }
-        return new MapPublisher<>(this, function);
+        return FusedPublisher.map(this, function);
     }
 
     /**
@@ -122,17 +206,163 @@ public abstract class Publisher<T> {
         return new BufferPublisher<>(this, bufferSize);
     }
 
+    /**
+     * 转换：缓存数据的生产者，缓存一定数量的数据然后合并为List发送
+     *
+     * @param bufferSize 缓存数量（必须大于0）
+     * @param reuse      是否重复使用List，为true时下游不能在onNext之后继续持有List
+     * @see BufferPublisher
+     */
+    public Publisher<List<T>> buffer(int bufferSize, boolean reuse) {
+        if (bufferSize <= 0) {
+            throw new IndexOutOfBoundsException("bufferSize is out of bounds!");
+        }
+        return new BufferPublisher<>(this, bufferSize, reuse);
+    }
+
+    /**
+     * 转换：按数量或时间缓存数据的生产者，以先满足的条件为准合并为List发送
+     *
+     * @param bufferSize 缓存数量（必须大于0）
+     * @param timespan   定时输出的间隔（必须大于0）
+     * @param unit       时间单位
+     * @param scheduler  定时输出执行的调度器
+     * @see TimedBufferPublisher
+     */
+    public Publisher<List<T>> buffer(int bufferSize, long timespan, TimeUnit unit, Scheduler scheduler) {
+        return buffer(bufferSize, timespan, unit, scheduler, false);
+    }
+
+    /**
+     * 转换：按数量或时间缓存数据的生产者，以先满足的条件为准合并为List发送
+     *
+     * @param bufferSize 缓存数量（必须大于0）
+     * @param timespan   定时输出的间隔（必须大于0）
+     * @param unit       时间单位
+     * @param scheduler  定时输出执行的调度器
+     * @param reuse      是否从缓存池重复使用List，为true时下游不能在onNext之后继续持有List
+     * @see TimedBufferPublisher
+     */
+    public Publisher<List<T>> buffer(int bufferSize, long timespan, TimeUnit unit, Scheduler scheduler, boolean reuse) {
+        if (bufferSize <= 0) {
+            throw new IndexOutOfBoundsException("bufferSize is out of bounds!");
+        }
+        if (timespan <= 0) {
+            throw new IndexOutOfBoundsException("timespan is out of bounds!");
+        }
+        if (unit == null || scheduler == null) {
+            throw new NullPointerException("unit or scheduler is null!");
+        }
+        return new TimedBufferPublisher<>(this, bufferSize, timespan, unit, scheduler, reuse);
+    }
+
+    /**
+     * 转换：把每个数据变换为生产者并合并发送的生产者，不保证顺序
+     *
+     * @param function 非空，转换操作回调，返回非空的生产者
+     * @param <V>      转换后的数据类型
+     * @see FlatMapPublisher
+     */
+    public <V> Publisher<V> flatMap(Function<T, Publisher<V>> function) {
+        return flatMap(function, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 转换：把每个数据变换为生产者并合并发送的生产者，不保证顺序
+     *
+     * @param function       非空，转换操作回调，返回非空的生产者
+     * @param maxConcurrency 同时订阅的生产者上限（必须大于0），{@link Integer#MAX_VALUE}为不限制
+     * @param prefetch       每个生产者的预取数量（必须大于0）
+     * @param <V>            转换后的数据类型
+     * @see FlatMapPublisher
+     */
+    public <V> Publisher<V> flatMap(Function<T, Publisher<V>> function, int maxConcurrency, int prefetch) {
+        if (function == null) {
+            throw new NullPointerException("flatMap function is null!");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IndexOutOfBoundsException("maxConcurrency is out of bounds!");
+        }
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
+        return new FlatMapPublisher<>(this, function, maxConcurrency, prefetch);
+    }
+
+    /**
+     * 转换：把每个数据变换为生产者并按顺序连接的生产者，每次只订阅一个生产者
+     *
+     * @param function 非空，转换操作回调，返回非空的生产者
+     * @param <V>      转换后的数据类型
+     * @see ConcatMapPublisher
+     */
+    public <V> Publisher<V> concatMap(Function<T, Publisher<V>> function) {
+        return concatMap(function, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 转换：把每个数据变换为生产者并按顺序连接的生产者，每次只订阅一个生产者
+     *
+     * @param function 非空，转换操作回调，返回非空的生产者
+     * @param prefetch 生产者的预取数量（必须大于0）
+     * @param <V>      转换后的数据类型
+     * @see ConcatMapPublisher
+     */
+    public <V> Publisher<V> concatMap(Function<T, Publisher<V>> function, int prefetch) {
+        if (function == null) {
+            throw new NullPointerException("concatMap function is null!");
+        }
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
+        return new ConcatMapPublisher<>(this, function, 1, prefetch);
+    }
+
+    /**
+     * 转换：把每个数据变换为生产者并按顺序连接的生产者，同时订阅多个生产者并缓存后面的生产者的数据
+     *
+     * @param function 非空，转换操作回调，返回非空的生产者
+     * @param <V>      转换后的数据类型
+     * @see ConcatMapPublisher
+     */
+    public <V> Publisher<V> concatMapEager(Function<T, Publisher<V>> function) {
+        return concatMapEager(function, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 转换：把每个数据变换为生产者并按顺序连接的生产者，同时订阅多个生产者并缓存后面的生产者的数据
+     *
+     * @param function       非空，转换操作回调，返回非空的生产者
+     * @param maxConcurrency 同时订阅的生产者上限（必须大于0），{@link Integer#MAX_VALUE}为不限制
+     * @param prefetch       每个生产者的预取数量（必须大于0）
+     * @param <V>            转换后的数据类型
+     * @see ConcatMapPublisher
+     */
+    public <V> Publisher<V> concatMapEager(Function<T, Publisher<V>> function, int maxConcurrency, int prefetch) {
+        if (function == null) {
+            throw new NullPointerException("concatMapEager function is null!");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IndexOutOfBoundsException("maxConcurrency is out of bounds!");
+        }
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
+        return new ConcatMapPublisher<>(this, function, maxConcurrency, prefetch);
+    }
+
     /**
      * 转换：筛选数据的生产者
      *
      * @param predicate 筛选逻辑
      * @see SelectPublisher
+     * @see FusedPublisher
      */
     public Publisher<T> select(Predicate<T> predicate) {
         if (predicate == null) {
             return this;
         }
-        return new SelectPublisher<>(this, predicate);
+        return FusedPublisher.select(this, predicate);
     }
 
     /**
@@ -148,6 +378,55 @@ public abstract class Publisher<T> {
         return new RetryPublisher<>(this, times);
     }
 
+    /**
+     * 处理：遇到错误（异常）时由handler返回的生产者决定是否重试的生产者<br>
+     * 返回的生产者发送数据时重试，完成时结束，出错时下游收到此错误
+     *
+     * @param handler 非空，参数为错误序列，返回控制重试的生产者
+     * @see RetryWhenPublisher
+     */
+    public Publisher<T> retryWhen(Function<Publisher<Throwable>, Publisher<?>> handler) {
+        if (handler == null) {
+            throw new NullPointerException("retryWhen handler is null!");
+        }
+        return new RetryWhenPublisher<>(this, handler);
+    }
+
+    /**
+     * 处理：遇到错误（异常）按指数退避重试的生产者，在共享的定时线程计时和重新订阅
+     *
+     * @param maxRetries   最大重试次数（必须大于0）
+     * @param initialDelay 第一次重试前的等待时间（不能小于0），之后每次翻倍
+     * @param unit         非空，时间单位
+     * @see ExponentialBackoff
+     */
+    public Publisher<T> retryBackoff(int maxRetries, long initialDelay, TimeUnit unit) {
+        return retryBackoff(maxRetries, initialDelay, Long.MAX_VALUE, unit, null);
+    }
+
+    /**
+     * 处理：遇到错误（异常）按指数退避重试的生产者
+     *
+     * @param maxRetries   最大重试次数（必须大于0）
+     * @param initialDelay 第一次重试前的等待时间（不能小于0），之后每次翻倍
+     * @param maxDelay     最长等待时间（不能小于initialDelay）
+     * @param unit         非空，时间单位
+     * @param scheduler    计时和重新订阅的调度器，为null时使用共享的定时线程
+     * @see ExponentialBackoff
+     */
+    public Publisher<T> retryBackoff(int maxRetries, long initialDelay, long maxDelay, TimeUnit unit, Scheduler scheduler) {
+        if (maxRetries <= 0) {
+            throw new IndexOutOfBoundsException("retry times is out of bounds!");
+        }
+        if (initialDelay < 0 || maxDelay < initialDelay) {
+            throw new IndexOutOfBoundsException("delay is out of bounds!");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit is null!");
+        }
+        return retryWhen(new ExponentialBackoff(maxRetries, initialDelay, maxDelay, unit, scheduler));
+    }
+
     /**
      * 处理：遇到错误（异常）返回特定数据的生产者
      *
@@ -161,6 +440,58 @@ public abstract class Publisher<T> {
         return new ErrorReturnPublisher<>(this, function);
     }
 
+    /**
+     * 处理：下游没有请求量时抛弃数据的生产者
+     *
+     * @see BackpressureDropPublisher
+     */
+    public Publisher<T> onBackpressureDrop() {
+        return onBackpressureDrop(null);
+    }
+
+    /**
+     * 处理：下游没有请求量时抛弃数据的生产者
+     *
+     * @param onDrop 抛弃数据时的回调
+     * @see BackpressureDropPublisher
+     */
+    public Publisher<T> onBackpressureDrop(Consumer<T> onDrop) {
+        return new BackpressureDropPublisher<>(this, onDrop);
+    }
+
+    /**
+     * 处理：下游没有请求量时只保留最新数据的生产者
+     *
+     * @see BackpressureLatestPublisher
+     */
+    public Publisher<T> onBackpressureLatest() {
+        return new BackpressureLatestPublisher<>(this);
+    }
+
+    /**
+     * 处理：下游没有请求量时缓存数据的生产者，缓存已满时发送错误
+     *
+     * @param capacity 缓存容量（必须大于0）
+     * @see BackpressureBufferPublisher
+     */
+    public Publisher<T> onBackpressureBuffer(int capacity) {
+        return onBackpressureBuffer(capacity, null);
+    }
+
+    /**
+     * 处理：下游没有请求量时缓存数据的生产者，缓存已满时发送错误
+     *
+     * @param capacity   缓存容量（必须大于0）
+     * @param onOverflow 缓存已满时的回调
+     * @see BackpressureBufferPublisher
+     */
+    public Publisher<T> onBackpressureBuffer(int capacity, Action onOverflow) {
+        if (capacity <= 0) {
+            throw new IndexOutOfBoundsException("capacity is out of bounds!");
+        }
+        return new BackpressureBufferPublisher<>(this, capacity, onOverflow);
+    }
+
     /**
      * 调度：订阅操作执行线程调度的生产者
      *
@@ -181,10 +512,191 @@ public abstract class Publisher<T> {
      * @see PublisherObserveOn
      */
     public Publisher<T> observeOn(Scheduler scheduler) {
+        return observeOn(scheduler, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 调度：观察者执行的线程控制的生产者
+     *
+     * @param scheduler 调度器，可以从{@link Schedulers}创建
+     * @param prefetch  预取数量，即队列容量（必须大于0）
+     * @see PublisherObserveOn
+     */
+    public Publisher<T> observeOn(Scheduler scheduler, int prefetch) {
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
         if (scheduler == null) {
             return this;
         }
-        return new PublisherObserveOn<>(this, scheduler);
+        return new PublisherObserveOn<>(this, scheduler, prefetch);
+    }
+
+    /**
+     * 并行：把数据分配到多条轨道并行处理
+     *
+     * @param rails 轨道数量（必须大于0），通常为CPU处理器数量
+     * @see ParallelPublisher
+     */
+    public ParallelPublisher<T> parallel(int rails) {
+        return parallel(rails, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 并行：把数据分配到多条轨道并行处理
+     *
+     * @param rails    轨道数量（必须大于0），通常为CPU处理器数量
+     * @param prefetch 预取数量（必须大于0）
+     * @see ParallelPublisher
+     */
+    public ParallelPublisher<T> parallel(int rails, int prefetch) {
+        return ParallelPublisher.from(this, rails, prefetch);
+    }
+
+    /**
+     * 调度：延时发送数据的生产者，数据在共享的定时线程发送
+     *
+     * @param delay 延时（不能小于0）
+     * @param unit  非空，时间单位
+     * @see PublisherDelay
+     */
+    public Publisher<T> delay(long delay, TimeUnit unit) {
+        return delay(delay, unit, null);
+    }
+
+    /**
+     * 调度：延时发送数据的生产者
+     *
+     * @param delay     延时（不能小于0）
+     * @param unit      非空，时间单位
+     * @param scheduler 发送数据的线程调度器
+     * @see PublisherDelay
+     */
+    public Publisher<T> delay(long delay, TimeUnit unit, Scheduler scheduler) {
+        if (delay < 0) {
+            throw new IndexOutOfBoundsException("delay is out of bounds!");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit is null!");
+        }
+        return new PublisherDelay<>(this, delay, unit, scheduler);
+    }
+
+    /**
+     * 多播：调用{@link ConnectablePublisher#connect()}后订阅上游一次，数据同时发送给所有订阅者
+     *
+     * @see PublishPublisher
+     */
+    public ConnectablePublisher<T> publish() {
+        return new PublishPublisher<>(this, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 多播：第一个订阅者订阅时连接上游，所有订阅者共用一次上游订阅，全部取消后断开
+     *
+     * @see RefCountPublisher
+     */
+    public Publisher<T> share() {
+        return publish().refCount();
+    }
+
+    /**
+     * 多播：调用{@link ConnectablePublisher#connect()}后订阅上游一次，
+     * 缓存最近的数据，后来的订阅者会先收到缓存的数据
+     *
+     * @param size 缓存的最大数量（必须大于0）
+     * @see ReplayPublisher
+     */
+    public ConnectablePublisher<T> replay(int size) {
+        if (size <= 0) {
+            throw new IndexOutOfBoundsException("size is out of bounds!");
+        }
+        return new ReplayPublisher<>(this, size);
+    }
+
+    /**
+     * 多播：调用{@link ConnectablePublisher#connect()}后订阅上游一次，
+     * 缓存给定时间内的数据，后来的订阅者会先收到缓存的数据
+     *
+     * @param time 数据在缓存中保留的时间（必须大于0）
+     * @param unit 非空，时间单位
+     * @see ReplayPublisher
+     */
+    public ConnectablePublisher<T> replay(long time, TimeUnit unit) {
+        if (time <= 0) {
+            throw new IndexOutOfBoundsException("time is out of bounds!");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit is null!");
+        }
+        return new ReplayPublisher<>(this, time, unit);
+    }
+
+    /**
+     * 阻塞：在调用线程遍历所有数据，预取{@link #DEFAULT_BUFFER_SIZE}个数据
+     *
+     * @see BlockingIterable
+     */
+    public Iterable<T> blockingIterable() {
+        return blockingIterable(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 阻塞：在调用线程遍历所有数据，最多缓存prefetch个尚未遍历的数据
+     *
+     * @param prefetch 预取数量（必须大于0）
+     * @see BlockingIterable
+     */
+    public Iterable<T> blockingIterable(int prefetch) {
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
+        return new BlockingIterable<>(this, prefetch);
+    }
+
+    /**
+     * 阻塞：等待并返回第一个数据，收到后取消订阅<br>
+     * 上游出错时抛出异常，没有数据时抛出{@link NoSuchElementException}
+     *
+     * @see BlockingFirstSubscriber
+     */
+    public T blockingFirst() {
+        BlockingFirstSubscriber<T> subscriber = new BlockingFirstSubscriber<>();
+        subscribe(subscriber);
+        return subscriber.blockingGet();
+    }
+
+    /**
+     * 阻塞：等待上游完成并返回最后一个数据<br>
+     * 上游出错时抛出异常，没有数据时抛出{@link NoSuchElementException}
+     *
+     * @see BlockingLastSubscriber
+     */
+    public T blockingLast() {
+        BlockingLastSubscriber<T> subscriber = new BlockingLastSubscriber<>();
+        subscribe(subscriber);
+        return subscriber.blockingGet();
+    }
+
+    /**
+     * 阻塞：在调用线程按顺序处理所有数据，直到上游完成<br>
+     * 通过{@link #blockingIterable()}拉取数据，上游出错或onNext抛出异常时取消订阅并抛出异常
+     *
+     * @param onNext 下一个数据操作回调
+     */
+    public void blockingForEach(Consumer<T> onNext) {
+        if (onNext == null) {
+            throw new NullPointerException("onNext is null!");
+        }
+        BlockingIterable.BlockingIterator<T> iterator = new BlockingIterable<>(this, DEFAULT_BUFFER_SIZE).iterator();
+        try {
+            while (iterator.hasNext()) {
+                onNext.accept(iterator.next());
+            }
+        } catch (RuntimeException e) {
+            iterator.dispose();
+            throw e;
+        }
     }
 
 
@@ -192,9 +704,10 @@ public abstract class Publisher<T> {
      * 订阅生产者
      *
      * @param onNext 下一个数据操作回调
+     * @return 用于取消订阅
      */
-    public final void subscribe(Consumer<T> onNext) {
-        subscribe(onNext, null, null);
+    public final Disposable subscribe(Consumer<T> onNext) {
+        return subscribe(onNext, null, null);
     }
 
 
@@ -203,9 +716,10 @@ public abstract class Publisher<T> {
      *
      * @param onNext  下一个数据操作回调
      * @param onError 错误操作回调
+     * @return 用于取消订阅
      */
-    public final void subscribe(Consumer<T> onNext, Consumer<? super Throwable> onError) {
-        subscribe(onNext, onError, null);
+    public final Disposable subscribe(Consumer<T> onNext, Consumer<? super Throwable> onError) {
+        return subscribe(onNext, onError, null);
     }
 
     /**
@@ -214,9 +728,12 @@ public abstract class Publisher<T> {
      * @param onNext     下一个数据操作回调
      * @param onError    错误操作回调
      * @param onComplete 完成操作回调
+     * @return 用于取消订阅
      */
-    public final void subscribe(Consumer<T> onNext, Consumer<? super Throwable> onError, Action onComplete) {
-        subscribe(new LambdaSubscriber<>(onNext, onComplete, onError));
+    public final Disposable subscribe(Consumer<T> onNext, Consumer<? super Throwable> onError, Action onComplete) {
+        LambdaSubscriber<T> subscriber = new LambdaSubscriber<>(onNext, onComplete, onError);
+        subscribe(subscriber);
+        return subscriber;
     }
 
     /**
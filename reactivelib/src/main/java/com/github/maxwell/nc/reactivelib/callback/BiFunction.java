@@ -0,0 +1,15 @@
+package com.github.maxwell.nc.reactivelib.callback;
+
+/**
+ * 两个参数的功能接口
+ */
+public interface BiFunction<T1, T2, R> {
+
+    /**
+     * 把元素t1和t2合并成R类型的元素返回
+     *
+     * @return R类型的元素
+     */
+    R apply(T1 t1, T2 t2) throws Exception;
+
+}
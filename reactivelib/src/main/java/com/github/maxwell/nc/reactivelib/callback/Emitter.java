@@ -0,0 +1,39 @@
+package com.github.maxwell.nc.reactivelib.callback;
+
+/**
+ * 数据发射器<br>
+ * 用于把推送形式的数据源（回调、监听器等）接入数据流，onNext、onError、onComplete必须串行调用
+ */
+public interface Emitter<T> {
+
+    /**
+     * 发送数据
+     */
+    void onNext(T t);
+
+    /**
+     * 发送错误，之后的数据会被忽略
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * 发送完成，之后的数据会被忽略
+     */
+    void onComplete();
+
+    /**
+     * 返回下游尚未满足的请求量，可以用于控制数据源的发送速度
+     */
+    long requested();
+
+    /**
+     * 返回下游是否已经取消
+     */
+    boolean isCancelled();
+
+    /**
+     * 设置取消或结束时执行的操作，例如注销监听器
+     */
+    void setCancellation(Action action);
+
+}
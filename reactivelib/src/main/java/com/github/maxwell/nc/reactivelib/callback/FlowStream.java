@@ -8,6 +8,6 @@ public interface FlowStream<T> {
     /**
      * 返回下一个数据
      */
-    T next();
+    T next() throws Exception;
 
 }
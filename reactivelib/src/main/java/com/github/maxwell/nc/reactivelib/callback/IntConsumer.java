@@ -0,0 +1,13 @@
+package com.github.maxwell.nc.reactivelib.callback;
+
+/**
+ * 功能接口
+ */
+public interface IntConsumer {
+
+    /**
+     * 消耗int类型元素t的操作逻辑，不会装箱
+     */
+    void accept(int t);
+
+}
@@ -0,0 +1,15 @@
+package com.github.maxwell.nc.reactivelib.callback;
+
+/**
+ * 功能接口
+ */
+public interface IntFunction {
+
+    /**
+     * 把int类型的元素t转换成新的int类型元素返回，不会装箱
+     *
+     * @return 转换后的元素
+     */
+    int apply(int t) throws Exception;
+
+}
@@ -0,0 +1,15 @@
+package com.github.maxwell.nc.reactivelib.callback;
+
+/**
+ * 功能接口
+ */
+public interface IntPredicate {
+
+    /**
+     * 断言int类型的元素t是否符合某个逻辑，不会装箱
+     *
+     * @return 是否符合规则
+     */
+    boolean test(int t) throws Exception;
+
+}
@@ -0,0 +1,15 @@
+package com.github.maxwell.nc.reactivelib.callback;
+
+/**
+ * 功能接口
+ */
+public interface LongFunction {
+
+    /**
+     * 把long类型的元素t转换成新的long类型元素返回，不会装箱
+     *
+     * @return 转换后的元素
+     */
+    long apply(long t) throws Exception;
+
+}
@@ -0,0 +1,15 @@
+package com.github.maxwell.nc.reactivelib.callback;
+
+/**
+ * 订阅时执行的功能接口
+ */
+public interface OnSubscribe<T> {
+
+    /**
+     * 订阅时执行的逻辑，通过发射器发送数据
+     *
+     * @param emitter 数据发射器
+     */
+    void call(Emitter<T> emitter) throws Exception;
+
+}
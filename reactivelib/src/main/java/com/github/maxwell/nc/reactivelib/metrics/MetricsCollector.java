@@ -0,0 +1,16 @@
+package com.github.maxwell.nc.reactivelib.metrics;
+
+/**
+ * 统计收集器接口<br>
+ * 可以实现此接口把统计数据接入已有的监控系统，默认实现为{@link MetricsRegistry}
+ */
+public interface MetricsCollector {
+
+    /**
+     * 获取阶段统计，在订阅时调用，可能被多个线程同时调用
+     *
+     * @param name 阶段名称
+     */
+    StageMetrics stage(String name);
+
+}
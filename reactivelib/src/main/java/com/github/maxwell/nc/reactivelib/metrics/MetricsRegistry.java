@@ -0,0 +1,170 @@
+package com.github.maxwell.nc.reactivelib.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 默认的统计收集器<br>
+ * 按阶段名称汇总处理数量、吞吐量（数据/秒）、处理延时直方图，以及线程切换阶段的队列深度和队列等待时间直方图<br>
+ * 例如：<br>
+ * MetricsRegistry registry = new MetricsRegistry();<br>
+ * ReactiveMetrics.setCollector(registry);<br>
+ * ...<br>
+ * System.out.println(registry);
+ */
+public class MetricsRegistry implements MetricsCollector {
+
+    private final ConcurrentHashMap<String, Stage> stages = new ConcurrentHashMap<>();
+
+    @Override
+    public StageMetrics stage(String name) {
+        Stage stage = stages.get(name);
+        if (stage == null) {
+            Stage created = new Stage(name);
+            stage = stages.putIfAbsent(name, created);
+            if (stage == null) {
+                stage = created;
+            }
+        }
+        return stage;
+    }
+
+    /**
+     * 返回指定名称的阶段统计
+     *
+     * @return 还没有记录时返回null
+     */
+    public Stage getStage(String name) {
+        return stages.get(name);
+    }
+
+    /**
+     * 返回所有阶段统计
+     */
+    public List<Stage> getStages() {
+        return new ArrayList<>(stages.values());
+    }
+
+    /**
+     * 清空所有阶段的记录并重新开始计算吞吐量
+     */
+    public void reset() {
+        for (Stage stage : stages.values()) {
+            stage.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage stage : stages.values()) {
+            sb.append(stage).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 单个阶段的统计数据
+     */
+    public static final class Stage implements StageMetrics {
+
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final AtomicLong maxQueueDepth = new AtomicLong();
+        private volatile int queueDepth;
+        private volatile long startNanos = System.nanoTime();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onNext(long latencyNanos) {
+            latency.record(latencyNanos);
+        }
+
+        @Override
+        public void onQueue(int depth, long waitNanos) {
+            queueDepth = depth;
+            long m = maxQueueDepth.get();
+            while (depth > m && !maxQueueDepth.compareAndSet(m, depth)) {
+                m = maxQueueDepth.get();
+            }
+            queueWait.record(waitNanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 返回处理的数据数量
+         */
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        /**
+         * 返回从创建或者{@link #reset()}开始的平均吞吐量（数据/秒）
+         */
+        public double getThroughput() {
+            long elapsed = System.nanoTime() - startNanos;
+            return elapsed <= 0 ? 0 : getCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+
+        /**
+         * 返回处理延时直方图，单位为纳秒
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * 返回排空任务在调度器中等待时间的直方图，单位为纳秒
+         */
+        public LatencyHistogram getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         * 返回最近一次排空任务开始时的队列深度
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getMaxQueueDepth() {
+            return maxQueueDepth.get();
+        }
+
+        public void reset() {
+            latency.reset();
+            queueWait.reset();
+            maxQueueDepth.set(0);
+            queueDepth = 0;
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(name)
+                    .append(" count=").append(getCount())
+                    .append(" throughput=").append((long) getThroughput()).append("/s")
+                    .append(" latency(p50/p99/max ns)=").append(latency.getValueAtPercentile(50))
+                    .append('/').append(latency.getValueAtPercentile(99))
+                    .append('/').append(latency.getMax());
+            if (queueWait.getCount() > 0) {
+                sb.append(" queueDepth(last/max)=").append(queueDepth).append('/').append(getMaxQueueDepth())
+                        .append(" queueWait(p50/p99 ns)=").append(queueWait.getValueAtPercentile(50))
+                        .append('/').append(queueWait.getValueAtPercentile(99));
+            }
+            return sb.toString();
+        }
+
+    }
+
+}
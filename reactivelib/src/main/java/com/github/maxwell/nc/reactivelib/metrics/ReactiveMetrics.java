@@ -0,0 +1,52 @@
+package com.github.maxwell.nc.reactivelib.metrics;
+
+/**
+ * 操作符性能统计入口<br>
+ * 默认关闭，通过JVM参数-Dreactivelite.metrics=true开启，并通过{@link #setCollector(MetricsCollector)}设置统计收集器，
+ * 例如{@link MetricsRegistry}<br>
+ * {@link #ENABLED}在类加载时确定，关闭时操作符中的统计分支会被JIT编译器消除，不产生额外开销<br>
+ * 开启时每个阶段在订阅时通过{@link #stage(String, Object)}获取一次{@link StageMetrics}，
+ * 之后记录数据不会分配对象
+ */
+public final class ReactiveMetrics {
+
+    /**
+     * 是否开启统计，类加载后不能修改
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("reactivelite.metrics");
+
+    private static volatile MetricsCollector collector;
+
+    private ReactiveMetrics() {
+    }
+
+    /**
+     * 设置统计收集器，只影响之后订阅的数据流
+     *
+     * @param collector 统计收集器，为null时停止统计
+     */
+    public static void setCollector(MetricsCollector collector) {
+        ReactiveMetrics.collector = collector;
+    }
+
+    public static MetricsCollector getCollector() {
+        return collector;
+    }
+
+    /**
+     * 获取阶段统计，阶段名称为操作符名称加回调的类名，例如map:com.example.MainActivity$1<br>
+     * 同一个回调的多次订阅统计到同一个阶段
+     *
+     * @param operator 操作符名称
+     * @param callback 操作符的回调，可以为null
+     * @return 没有开启统计或者没有设置收集器时返回null
+     */
+    public static StageMetrics stage(String operator, Object callback) {
+        MetricsCollector c = collector;
+        if (!ENABLED || c == null) {
+            return null;
+        }
+        return c.stage(callback == null ? operator : operator + ":" + callback.getClass().getName());
+    }
+
+}
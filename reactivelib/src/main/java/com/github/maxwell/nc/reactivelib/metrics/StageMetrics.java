@@ -0,0 +1,24 @@
+package com.github.maxwell.nc.reactivelib.metrics;
+
+/**
+ * 单个阶段的统计接口<br>
+ * 在数据流的热点路径中调用，实现不应该分配对象或者加锁，可能被多个线程同时调用
+ */
+public interface StageMetrics {
+
+    /**
+     * 记录阶段处理一个数据
+     *
+     * @param latencyNanos 阶段本身的处理时间，不包括下游处理的时间
+     */
+    void onNext(long latencyNanos);
+
+    /**
+     * 记录排空任务开始执行时的队列状态，用于observeOn等线程切换阶段
+     *
+     * @param depth     队列中等待发送的数据数量
+     * @param waitNanos 排空任务在调度器中等待执行的时间
+     */
+    void onQueue(int depth, long waitNanos);
+
+}
@@ -0,0 +1,42 @@
+package com.github.maxwell.nc.reactivelib.observable.blocking;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * 阻塞等待第一个数据的订阅者<br>
+ * 只向上游请求1个数据，收到后取消上游并结束等待<br>
+ * 由{@link Publisher#blockingFirst()}使用
+ */
+public final class BlockingFirstSubscriber<T> extends BlockingSingleSubscriber<T> {
+
+    @Override
+    protected void onStart(Subscription s) {
+        s.request(1);
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (hasValue) {
+            return;
+        }
+        value = t;
+        hasValue = true;
+        dispose();
+        done();
+    }
+
+    @Override
+    public void onComplete() {
+        done();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (!hasValue) {
+            error = throwable;
+        }
+        done();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.github.maxwell.nc.reactivelib.observable.blocking;
+
+/**
+ * 阻塞操作的异常处理
+ */
+final class BlockingHelper {
+
+    private BlockingHelper() {
+    }
+
+    /**
+     * 在调用线程重新抛出上游的异常，非运行时异常包装为{@link RuntimeException}
+     *
+     * @return 用于throw语句
+     */
+    static RuntimeException propagate(Throwable throwable) {
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        return new RuntimeException(throwable);
+    }
+
+    /**
+     * 等待时被中断，恢复中断标记后包装为{@link RuntimeException}
+     *
+     * @return 用于throw语句
+     */
+    static RuntimeException interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new RuntimeException(e);
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.github.maxwell.nc.reactivelib.observable.blocking;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 阻塞遍历生产者的数据<br>
+ * 每次调用{@link #iterator()}都订阅一次上游，数据存入容量为{@link #prefetch}的无锁队列，
+ * 遍历线程从队列取出数据，每取出{@code prefetch - prefetch / 4}个数据向上游补充同样的请求量，内存占用有上限<br>
+ * 队列为空时遍历线程通过{@link LockSupport#park(Object)}挂起，上游发送数据或结束时唤醒，等待期间不占用CPU<br>
+ * 上游出错时先遍历完已经收到的数据，再在遍历线程抛出，非运行时异常包装为{@link RuntimeException}；
+ * 提前结束遍历时应该调用{@link BlockingIterator#dispose()}取消上游<br>
+ * 可以通过{@link Publisher#blockingIterable()}和{@link Publisher#blockingIterable(int)}转换
+ */
+public class BlockingIterable<T> implements Iterable<T> {
+
+    private final Publisher<T> source;
+    private final int prefetch;
+
+    public BlockingIterable(Publisher<T> source, int prefetch) {
+        this.source = source;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public BlockingIterator<T> iterator() {
+        BlockingIterator<T> iterator = new BlockingIterator<>(prefetch);
+        source.subscribe(iterator);
+        return iterator;
+    }
+
+    /**
+     * 阻塞迭代器，只能在一个线程中遍历
+     */
+    public static final class BlockingIterator<T> implements Subscriber<T>, Iterator<T>, Disposable {
+
+        /**
+         * 队列中代表null数据的占位对象
+         */
+        private static final Object NULL = new Object();
+
+        private static final Subscription CANCELLED = new Subscription() {
+            @Override
+            public void request(long count) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+
+        private final SpscArrayQueue<Object> queue;
+        private final int prefetch;
+
+        /**
+         * 补充请求的阈值
+         */
+        private final int limit;
+
+        /**
+         * 上游订阅信息，释放后为{@link #CANCELLED}
+         */
+        private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+
+        /**
+         * 挂起等待数据的遍历线程，没有等待时为null
+         */
+        private volatile Thread waiter;
+
+        private volatile boolean done;
+        private Throwable error;
+
+        /**
+         * 只在遍历线程访问
+         */
+        private int consumed;
+
+        BlockingIterator(int prefetch) {
+            this.prefetch = prefetch;
+            limit = prefetch - (prefetch >> 2);
+            queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (!upstream.compareAndSet(null, s)) {
+                //订阅前已经释放
+                s.cancel();
+                return;
+            }
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(t == null ? NULL : t)) {
+                upstream.get().cancel();
+                error = new IllegalStateException("blockingIterable queue is full, upstream ignored request count!");
+                done = true;
+            }
+            signal();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            signal();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done = true;
+            signal();
+        }
+
+        /**
+         * 唤醒挂起的遍历线程
+         */
+        private void signal() {
+            Thread w = waiter;
+            if (w != null) {
+                LockSupport.unpark(w);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            for (; ; ) {
+                if (isDisposed()) {
+                    return false;
+                }
+                boolean d = done;
+                if (!queue.isEmpty()) {
+                    return true;
+                }
+                if (d) {
+                    //已经收到的数据遍历完后才抛出异常
+                    Throwable e = error;
+                    if (e != null) {
+                        throw BlockingHelper.propagate(e);
+                    }
+                    return false;
+                }
+
+                //先登记再检查一次，避免在登记前发送的唤醒丢失
+                waiter = Thread.currentThread();
+                if (!done && queue.isEmpty() && !isDisposed()) {
+                    LockSupport.park(this);
+                }
+                waiter = null;
+                if (Thread.interrupted()) {
+                    dispose();
+                    throw BlockingHelper.interrupted(new InterruptedException());
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("no more elements!");
+            }
+            Object v = queue.poll();
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.get().request(limit);
+            }
+            return v == NULL ? null : (T) v;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove is not supported!");
+        }
+
+        /**
+         * 释放订阅，取消上游并唤醒遍历线程
+         */
+        @Override
+        public void dispose() {
+            Subscription s = upstream.getAndSet(CANCELLED);
+            if (s != null && s != CANCELLED) {
+                s.cancel();
+            }
+            signal();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return upstream.get() == CANCELLED;
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.github.maxwell.nc.reactivelib.observable.blocking;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * 阻塞等待最后一个数据的订阅者<br>
+ * 请求所有数据，只保留最新的一个，上游完成时结束等待<br>
+ * 由{@link Publisher#blockingLast()}使用
+ */
+public final class BlockingLastSubscriber<T> extends BlockingSingleSubscriber<T> {
+
+    @Override
+    protected void onStart(Subscription s) {
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T t) {
+        value = t;
+        hasValue = true;
+    }
+
+    @Override
+    public void onComplete() {
+        done();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        value = null;
+        hasValue = false;
+        error = throwable;
+        done();
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.github.maxwell.nc.reactivelib.observable.blocking;
+
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 阻塞等待单个结果的订阅者<br>
+ * 通过{@link #blockingGet()}在调用线程等待上游结束，子类决定保留哪个数据
+ */
+public abstract class BlockingSingleSubscriber<T> implements Subscriber<T>, Disposable {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    /**
+     * 以下变量在{@link #done()}之前写入，等待结束后读取
+     */
+    protected T value;
+    protected boolean hasValue;
+    protected Throwable error;
+
+    private volatile Subscription upstream;
+    private volatile boolean cancelled;
+
+    @Override
+    public final void onSubscribe(Subscription s) {
+        upstream = s;
+        if (cancelled) {
+            s.cancel();
+            return;
+        }
+        onStart(s);
+    }
+
+    /**
+     * 收到订阅信息后请求数据
+     */
+    protected abstract void onStart(Subscription s);
+
+    /**
+     * 结束等待
+     */
+    protected final void done() {
+        latch.countDown();
+    }
+
+    /**
+     * 等待上游结束并返回结果
+     *
+     * @throws NoSuchElementException 上游没有发送数据
+     */
+    public final T blockingGet() {
+        if (latch.getCount() != 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                dispose();
+                throw BlockingHelper.interrupted(e);
+            }
+        }
+        if (error != null) {
+            throw BlockingHelper.propagate(error);
+        }
+        if (!hasValue) {
+            throw new NoSuchElementException("publisher is empty!");
+        }
+        return value;
+    }
+
+    @Override
+    public void dispose() {
+        cancelled = true;
+        Subscription s = upstream;
+        if (s != null) {
+            s.cancel();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return cancelled;
+    }
+
+}
@@ -2,12 +2,16 @@ package com.github.maxwell.nc.reactivelib.observable.create;
 
 import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
-import com.github.maxwell.nc.reactivelib.callback.FlowStream;
 import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.FusionSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
  * 数组类型的生产者<br>
+ * 支持同步融合，下游可以直接拉取数组中的数据<br>
  * 可以通过{@link Publisher#just(Object[])}方法创建<br>
  */
 public class ArrayPublisher<T> extends Publisher<T> {
@@ -18,12 +22,26 @@ public class ArrayPublisher<T> extends Publisher<T> {
         this.array = array;
     }
 
+    /**
+     * 只有一个数据时返回true，此时操作符可以直接通过{@link #scalarValue()}取出数据而不必订阅
+     */
+    public boolean isScalar() {
+        return array.length == 1;
+    }
+
+    /**
+     * 唯一的数据，只在{@link #isScalar()}时有效
+     */
+    public T scalarValue() {
+        return array[0];
+    }
+
     @Override
     protected void subscribeActual(Subscriber<T> subscriber) {
         subscriber.onSubscribe(new ArraySubscription<>(subscriber, array));
     }
 
-    private static final class ArraySubscription<T> extends FlowSubscription implements FlowStream<T> {
+    private static final class ArraySubscription<T> extends FlowSubscription implements FusionSubscription<T> {
 
         private final Subscriber<T> actual;
         private final T[] array;
@@ -33,6 +51,11 @@ public class ArrayPublisher<T> extends Publisher<T> {
          */
         private int index = 0;
 
+        /**
+         * 尚未发送的请求量
+         */
+        private final AtomicLong requested = new AtomicLong();
+
         private ArraySubscription(Subscriber<T> subscriber, T[] array) {
             this.actual = subscriber;
             this.array = array;
@@ -45,11 +68,49 @@ public class ArrayPublisher<T> extends Publisher<T> {
             return t;
         }
 
+        @Override
+        public int requestFusion(int mode) {
+            return mode & SYNC;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return index == array.length;
+        }
+
         @Override
         public void request(long count) {
+            if (!RequestHelper.validate(count)) {
+                return;
+            }
+            //已经在发送数据时只累加请求量，由正在发送的循环继续发送
+            if (RequestHelper.add(requested, count) == 0) {
+                emit(count);
+            }
+        }
+
+        private void emit(long count) {
+            long emitted = 0;
             try {
-                while (!cancelled && index != count && index != array.length) {
-                    actual.onNext(next());
+                for (; ; ) {
+                    while (emitted != count && index != array.length) {
+                        if (cancelled) {
+                            return;
+                        }
+                        actual.onNext(next());
+                        emitted++;
+                    }
+                    if (index == array.length) {
+                        break;
+                    }
+                    count = requested.get();
+                    if (count == emitted) {
+                        count = RequestHelper.produced(requested, emitted);
+                        if (count == 0) {
+                            return;
+                        }
+                        emitted = 0;
+                    }
                 }
             } catch (Exception e) {
                 cancel();
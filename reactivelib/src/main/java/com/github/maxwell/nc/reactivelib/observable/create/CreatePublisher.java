@@ -0,0 +1,396 @@
+package com.github.maxwell.nc.reactivelib.observable.create;
+
+import com.github.maxwell.nc.reactivelib.BackpressureStrategy;
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Action;
+import com.github.maxwell.nc.reactivelib.callback.Emitter;
+import com.github.maxwell.nc.reactivelib.callback.OnSubscribe;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 通过发射器发送数据的生产者<br>
+ * 订阅时执行{@link #source}，数据源通过{@link Emitter}推送数据，并可以通过{@link Emitter#requested()}读取下游尚未满足的请求量<br>
+ * 推送速度超过请求量时按照{@link #strategy}处理，见{@link BackpressureStrategy}<br>
+ * 此生产者可以通过{@link Publisher#create(OnSubscribe, BackpressureStrategy)}创建
+ */
+public class CreatePublisher<T> extends Publisher<T> {
+
+    private final OnSubscribe<T> source;
+    private final BackpressureStrategy strategy;
+
+    public CreatePublisher(OnSubscribe<T> source, BackpressureStrategy strategy) {
+        this.source = source;
+        this.strategy = strategy;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        BaseEmitter<T> emitter;
+        switch (strategy) {
+            case DROP:
+                emitter = new NoBufferEmitter<>(subscriber, false);
+                break;
+            case ERROR:
+                emitter = new NoBufferEmitter<>(subscriber, true);
+                break;
+            case LATEST:
+                emitter = new LatestEmitter<>(subscriber);
+                break;
+            default:
+                emitter = new BufferEmitter<>(subscriber);
+                break;
+        }
+        subscriber.onSubscribe(emitter);
+        try {
+            source.call(emitter);
+        } catch (Exception e) {
+            emitter.onError(e);
+        }
+    }
+
+    private static abstract class BaseEmitter<T> extends FlowSubscription implements Emitter<T> {
+
+        final Subscriber<T> actual;
+        final AtomicLong requested = new AtomicLong();
+
+        /**
+         * 取消或结束后的取消操作，代表已经释放
+         */
+        private static final Action RELEASED = new Action() {
+            @Override
+            public void run() {
+            }
+        };
+
+        /**
+         * 取消操作，释放时通过getAndSet取出，保证只执行一次
+         */
+        private final AtomicReference<Action> cancellation = new AtomicReference<>();
+
+        BaseEmitter(Subscriber<T> subscriber) {
+            actual = subscriber;
+        }
+
+        @Override
+        public long requested() {
+            return requested.get();
+        }
+
+        @Override
+        public void setCancellation(Action action) {
+            for (; ; ) {
+                Action current = cancellation.get();
+                if (current == RELEASED) {
+                    //已经取消或结束时直接执行
+                    action.run();
+                    return;
+                }
+                if (cancellation.compareAndSet(current, action)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                onRequested();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            release();
+            onCancelled();
+        }
+
+        /**
+         * 执行取消操作，只执行一次
+         */
+        void release() {
+            Action action = cancellation.getAndSet(RELEASED);
+            if (action != null && action != RELEASED) {
+                action.run();
+            }
+        }
+
+        /**
+         * 向下游发送数据
+         *
+         * @return 是否可以继续发送
+         */
+        boolean emit(T t) {
+            try {
+                actual.onNext(t);
+                return true;
+            } catch (Exception e) {
+                cancel();
+                actual.onError(e);
+                return false;
+            }
+        }
+
+        /**
+         * 向下游发送结束事件
+         *
+         * @param error 为null时发送onComplete
+         */
+        void terminate(Throwable error) {
+            cancelled = true;
+            release();
+            if (error != null) {
+                actual.onError(error);
+            } else {
+                actual.onComplete();
+            }
+        }
+
+        void onRequested() {
+        }
+
+        void onCancelled() {
+        }
+    }
+
+    /**
+     * 不缓存数据的发射器，没有请求量时抛弃数据或者发送错误
+     */
+    private static final class NoBufferEmitter<T> extends BaseEmitter<T> {
+
+        private final boolean errorOnOverflow;
+        private boolean done;
+
+        NoBufferEmitter(Subscriber<T> subscriber, boolean errorOnOverflow) {
+            super(subscriber);
+            this.errorOnOverflow = errorOnOverflow;
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done || cancelled) {
+                return;
+            }
+            if (requested.get() != 0) {
+                if (emit(t)) {
+                    RequestHelper.produced(requested, 1);
+                }
+            } else if (errorOnOverflow) {
+                onError(new IllegalStateException("could not emit value due to lack of requests!"));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done || cancelled) {
+                return;
+            }
+            done = true;
+            terminate(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done || cancelled) {
+                return;
+            }
+            done = true;
+            terminate(null);
+        }
+    }
+
+    /**
+     * 带排空循环的发射器，子类决定暂存数据的方式
+     */
+    private static abstract class DrainEmitter<T> extends BaseEmitter<T> {
+
+        /**
+         * 代表null数据的占位对象
+         */
+        static final Object NULL = new Object();
+
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean done;
+        private Throwable error;
+
+        DrainEmitter(Subscriber<T> subscriber) {
+            super(subscriber);
+        }
+
+        /**
+         * 暂存数据
+         */
+        abstract void offer(Object o);
+
+        /**
+         * 取出暂存的数据，没有数据时返回null
+         */
+        abstract Object poll();
+
+        abstract boolean isEmpty();
+
+        abstract void clear();
+
+        @Override
+        public void onNext(T t) {
+            if (done || cancelled) {
+                return;
+            }
+            offer(t == null ? NULL : t);
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done || cancelled) {
+                return;
+            }
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done || cancelled) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        void onRequested() {
+            drain();
+        }
+
+        @Override
+        void onCancelled() {
+            drain();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                long r = requested.get();
+                long e = 0L;
+                while (e != r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    boolean d = done;
+                    Object o = poll();
+                    if (o == null) {
+                        if (d) {
+                            terminate(error);
+                            return;
+                        }
+                        break;
+                    }
+                    if (!emit(o == NULL ? null : (T) o)) {
+                        clear();
+                        return;
+                    }
+                    e++;
+                }
+                if (e == r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    if (done && isEmpty()) {
+                        terminate(error);
+                        return;
+                    }
+                }
+                if (e != 0L) {
+                    RequestHelper.produced(requested, e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 缓存所有数据的发射器
+     */
+    private static final class BufferEmitter<T> extends DrainEmitter<T> {
+
+        private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+
+        BufferEmitter(Subscriber<T> subscriber) {
+            super(subscriber);
+        }
+
+        @Override
+        void offer(Object o) {
+            queue.offer(o);
+        }
+
+        @Override
+        Object poll() {
+            return queue.poll();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        void clear() {
+            queue.clear();
+        }
+    }
+
+    /**
+     * 只保留最新数据的发射器
+     */
+    private static final class LatestEmitter<T> extends DrainEmitter<T> {
+
+        private final AtomicReference<Object> latest = new AtomicReference<>();
+
+        LatestEmitter(Subscriber<T> subscriber) {
+            super(subscriber);
+        }
+
+        @Override
+        void offer(Object o) {
+            latest.set(o);
+        }
+
+        @Override
+        Object poll() {
+            return latest.getAndSet(null);
+        }
+
+        @Override
+        boolean isEmpty() {
+            return latest.get() == null;
+        }
+
+        @Override
+        void clear() {
+            latest.set(null);
+        }
+    }
+
+}
@@ -2,14 +2,17 @@ package com.github.maxwell.nc.reactivelib.observable.create;
 
 import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
-import com.github.maxwell.nc.reactivelib.callback.FlowStream;
 import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.FusionSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
 
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
  * 可迭代的数据生产者<br>
+ * 支持同步融合，下游可以直接通过迭代器拉取数据<br>
  * 可以通过{@link Publisher#from(Iterable)}创建<br>
  */
 public class IterablePublisher<T> extends Publisher<T> {
@@ -25,13 +28,18 @@ public class IterablePublisher<T> extends Publisher<T> {
         subscriber.onSubscribe(new IterableSubscription<>(subscriber, iterable));
     }
 
-    private static final class IterableSubscription<T> extends FlowSubscription implements FlowStream<T> {
+    private static final class IterableSubscription<T> extends FlowSubscription implements FusionSubscription<T> {
 
         private final Subscriber<T> actual;
         private final Iterator<T> iterator;
 
         private long index = 0;
 
+        /**
+         * 尚未发送的请求量
+         */
+        private final AtomicLong requested = new AtomicLong();
+
         private IterableSubscription(Subscriber<T> subscriber, Iterable<T> t) {
             this.actual = subscriber;
             iterator = t.iterator();
@@ -45,11 +53,51 @@ public class IterablePublisher<T> extends Publisher<T> {
             return t;
         }
 
+        @Override
+        public int requestFusion(int mode) {
+            return mode & SYNC;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator.hasNext();
+        }
+
         @Override
         public void request(long count) {
+            if (!RequestHelper.validate(count)) {
+                return;
+            }
+            //已经在发送数据时只累加请求量，由正在发送的循环继续发送
+            if (RequestHelper.add(requested, count) == 0) {
+                emit(count);
+            }
+        }
+
+        private void emit(long count) {
+            long emitted = 0;
             try {
-                while (!cancelled && index != count && iterator.hasNext()) {
-                    actual.onNext(next());
+                boolean hasNext = iterator.hasNext();
+                for (; ; ) {
+                    while (emitted != count && hasNext) {
+                        if (cancelled) {
+                            return;
+                        }
+                        actual.onNext(next());
+                        emitted++;
+                        hasNext = iterator.hasNext();
+                    }
+                    if (!hasNext) {
+                        break;
+                    }
+                    count = requested.get();
+                    if (count == emitted) {
+                        count = RequestHelper.produced(requested, emitted);
+                        if (count == 0) {
+                            return;
+                        }
+                        emitted = 0;
+                    }
                 }
             } catch (Exception e) {
                 cancel();
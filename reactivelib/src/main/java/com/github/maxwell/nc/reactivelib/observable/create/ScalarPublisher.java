@@ -0,0 +1,102 @@
+package com.github.maxwell.nc.reactivelib.observable.create;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.FusionSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+
+/**
+ * 只有一个数据的生产者<br>
+ * 订阅时只创建一个{@link ScalarSubscription}，第一次有效请求时发送数据并完成，支持同步融合<br>
+ * 操作符可以直接通过{@link #value()}取出数据而不必订阅，
+ * 例如{@link Publisher#map}和{@link Publisher#select}在订阅时直接计算结果，flatMap直接发送结果<br>
+ * 可以通过{@link Publisher#just(Object[])}传入一个数据时创建<br>
+ */
+public class ScalarPublisher<T> extends Publisher<T> {
+
+    private final T value;
+
+    public ScalarPublisher(T value) {
+        this.value = value;
+    }
+
+    /**
+     * 唯一的数据
+     */
+    public T value() {
+        return value;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        subscriber.onSubscribe(new ScalarSubscription<>(subscriber, value));
+    }
+
+    /**
+     * 发送单个数据的订阅信息<br>
+     * 同一个数据的不同来源（例如融合后的计算结果）也通过此类发送
+     */
+    public static final class ScalarSubscription<T> extends FlowSubscription implements FusionSubscription<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<ScalarSubscription> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(ScalarSubscription.class, "state");
+
+        private final Subscriber<T> actual;
+        private final T value;
+
+        /**
+         * 0为尚未发送，1为已经发送或已经被拉取
+         */
+        private volatile int state;
+
+        public ScalarSubscription(Subscriber<T> subscriber, T value) {
+            this.actual = subscriber;
+            this.value = value;
+        }
+
+        @Override
+        public void request(long count) {
+            if (!RequestHelper.validate(count) || !STATE.compareAndSet(this, 0, 1)) {
+                return;
+            }
+            if (cancelled) {
+                return;
+            }
+            try {
+                actual.onNext(value);
+            } catch (Exception e) {
+                cancel();
+                actual.onError(e);
+                return;
+            }
+            if (!cancelled) {
+                actual.onComplete();
+            }
+        }
+
+        @Override
+        public int requestFusion(int mode) {
+            return mode & SYNC;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return state != 0;
+        }
+
+        @Override
+        public T next() {
+            if (state != 0) {
+                return null;
+            }
+            state = 1;
+            return value;
+        }
+
+    }
+}
@@ -4,50 +4,86 @@ import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
 import com.github.maxwell.nc.reactivelib.callback.FlowStream;
 import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.SharedTimer;
 import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
  * 定时器数据生产者<br>
- * 按照给定{@link #interval}毫秒数间隔顺序发送从0开始递增的序列<br>
+ * 延时{@link #initialDelay}后，按照给定{@link #period}间隔顺序发送从0开始递增的序列<br>
  * 例如：0、1、2、3、4、5...<br>
- * 如果不限制请求数据，则会不断产生新的数据<br>
- * 需要注意，由于产生数据操作是阻塞操作，需要设置调度器{@link #scheduler}防止主线程阻塞<br>
- * 默认情况下没有设置调度器，将会在所执行的线程生产数据<br>
+ * 如果不限制请求数据，则会不断产生新的数据，到期时没有请求量则跳过此次发送，序列不会中断<br>
+ * 定时由调度器的工作者驱动，等待期间不占用线程，上一次发送还没有执行时跳过此次到期<br>
+ * 设置调度器{@link #scheduler}时在调度器中发送数据，默认情况下没有设置调度器，将会在共享的定时线程{@link SharedTimer#scheduler()}发送数据，
+ * 此时onNext中不应该执行耗时操作<br>
  * 此生产者可以通过以下方法创建：<br>
  * {@link Publisher#timer(long)}<br>
  * {@link Publisher#timer(long, Scheduler)}<br>
+ * {@link Publisher#interval(long, long, TimeUnit)}<br>
+ * {@link Publisher#interval(long, long, TimeUnit, Scheduler)}<br>
  */
 public class TimerPublisher extends Publisher<Long> {
 
+    private final long initialDelay;
+
     /**
-     * 定时器产生数据的间隔（毫秒数）
+     * 定时器产生数据的间隔
      */
-    private final long interval;
+    private final long period;
+    private final TimeUnit unit;
     private final Scheduler scheduler;
 
     public TimerPublisher(long interval, Scheduler scheduler) {
-        this.interval = interval;
+        this(0, interval, TimeUnit.MILLISECONDS, scheduler);
+    }
+
+    public TimerPublisher(long initialDelay, long period, TimeUnit unit, Scheduler scheduler) {
+        this.initialDelay = initialDelay;
+        this.period = period;
+        this.unit = unit;
         this.scheduler = scheduler;
     }
 
     @Override
     protected void subscribeActual(Subscriber<Long> subscriber) {
-        subscriber.onSubscribe(new TimerSubscription(subscriber, interval, scheduler));
+        Scheduler.Worker worker = (scheduler != null ? scheduler : SharedTimer.scheduler()).createWorker();
+        TimerSubscription subscription = new TimerSubscription(subscriber, worker);
+        subscriber.onSubscribe(subscription);
+        //onSubscribe中请求后再开始计时，避免第一次到期时还没有请求量
+        subscription.start(initialDelay, period, unit);
     }
 
-    private static final class TimerSubscription extends FlowSubscription implements FlowStream<Long> {
+    private static final class TimerSubscription extends FlowSubscription implements FlowStream<Long>, Runnable {
 
         private final Subscriber<Long> actual;
-        private final long interval;
-        private final Scheduler scheduler;
+
+        /**
+         * 周期任务在同一个工作者中串行执行
+         */
+        private final Scheduler.Worker worker;
 
         private long index = 0;
 
-        private TimerSubscription(Subscriber<Long> subscriber, long interval, Scheduler scheduler) {
+        /**
+         * 尚未发送的请求量
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        private TimerSubscription(Subscriber<Long> subscriber, Scheduler.Worker worker) {
             this.actual = subscriber;
-            this.interval = interval;
-            this.scheduler = scheduler;
+            this.worker = worker;
+        }
+
+        void start(long initialDelay, long period, TimeUnit unit) {
+            if (cancelled) {
+                worker.dispose();
+                return;
+            }
+            worker.schedulePeriodically(this, initialDelay, period, unit);
         }
 
         @Override
@@ -57,31 +93,36 @@ public class TimerPublisher extends Publisher<Long> {
 
         @Override
         public void request(final long count) {
-            if (scheduler != null) {
-                scheduler.schedule(new Runnable() {
-                    @Override
-                    public void run() {
-                        requestActual(count);
-                    }
-                });
-            } else {
-                requestActual(count);
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                worker.dispose();
             }
         }
 
-        private void requestActual(long count) {
+        /**
+         * 到期时在工作者中执行，每次最多发送一个数据
+         */
+        @Override
+        public void run() {
+            if (cancelled || requested.get() == 0) {
+                return;
+            }
             try {
-                while (!cancelled && index != count) {
-                    actual.onNext(next());
-                    Thread.sleep(interval);//当前线程进行阻塞
-                }
+                actual.onNext(next());
             } catch (Exception e) {
                 cancel();
                 actual.onError(e);
                 return;
             }
-
+            RequestHelper.produced(requested, 1);
             if (cancelled) {
+                //在onNext中取消时回调onComplete
                 actual.onComplete();
             }
         }
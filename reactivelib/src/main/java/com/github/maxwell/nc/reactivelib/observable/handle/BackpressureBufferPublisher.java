@@ -0,0 +1,206 @@
+package com.github.maxwell.nc.reactivelib.observable.handle;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Action;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 没有请求量时缓存数据的生产者<br>
+ * 向上游请求所有数据，下游没有请求量时最多缓存{@link #capacity}个数据，下游请求时按顺序发送<br>
+ * 缓存已满时回调{@link #onOverflow}，然后取消上游并向下游发送{@link IllegalStateException}，不再发送缓存的数据<br>
+ * 可以通过{@link Publisher#onBackpressureBuffer(int)}和{@link Publisher#onBackpressureBuffer(int, Action)}转换
+ */
+public class BackpressureBufferPublisher<T> extends Publisher<T> {
+
+    private final Publisher<T> source;
+    private final int capacity;
+    private final Action onOverflow;
+
+    public BackpressureBufferPublisher(Publisher<T> source, int capacity, Action onOverflow) {
+        this.source = source;
+        this.capacity = capacity;
+        this.onOverflow = onOverflow;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        source.subscribe(new BufferSubscriber<>(subscriber, capacity, onOverflow));
+    }
+
+    private static final class BufferSubscriber<T> extends FlowSubscription implements Subscriber<T> {
+
+        /**
+         * 代表null数据的占位对象
+         */
+        private static final Object NULL = new Object();
+
+        private final Subscriber<T> actual;
+        private final int capacity;
+        private final Action onOverflow;
+        private final SpscArrayQueue<Object> queue;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private Subscription upstream;
+        private volatile boolean done;
+        private Throwable error;
+
+        /**
+         * 上游已经放入缓存的数量，只在上游访问
+         */
+        private long offered;
+
+        /**
+         * 已经从缓存取出的数量，由排空循环写入
+         */
+        private final AtomicLong polled = new AtomicLong();
+
+        /**
+         * 只在排空循环中访问
+         */
+        private long emitted;
+
+        BufferSubscriber(Subscriber<T> subscriber, int capacity, Action onOverflow) {
+            actual = subscriber;
+            this.capacity = capacity;
+            this.onOverflow = onOverflow;
+            queue = new SpscArrayQueue<>(capacity);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            //数组队列的容量会向上取整，按给定容量判断是否已满
+            if (offered - polled.get() == capacity || !queue.offer(t == null ? NULL : t)) {
+                upstream.cancel();
+                if (onOverflow != null) {
+                    try {
+                        onOverflow.run();
+                    } catch (Exception e) {
+                        onError(e);
+                        return;
+                    }
+                }
+                onError(new IllegalStateException("buffer is full!"));
+                return;
+            }
+            offered++;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            upstream.cancel();
+            drain();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            long e = emitted;
+            for (; ; ) {
+                if (cancelled) {
+                    queue.clear();
+                    return;
+                }
+                if (done && error != null) {
+                    //溢出或出错时不再发送缓存的数据
+                    queue.clear();
+                    actual.onError(error);
+                    return;
+                }
+
+                long r = requested.get();
+                while (e != r) {
+                    boolean d = done;
+                    Object v = queue.poll();
+                    if (v == null) {
+                        if (d && error == null) {
+                            actual.onComplete();
+                            return;
+                        }
+                        break;
+                    }
+                    polled.lazySet(polled.get() + 1);
+                    try {
+                        actual.onNext(v == NULL ? null : (T) v);
+                    } catch (Exception ex) {
+                        cancel();
+                        actual.onError(ex);
+                        return;
+                    }
+                    e++;
+                    if (cancelled) {
+                        queue.clear();
+                        return;
+                    }
+                }
+
+                if (done && error == null && queue.isEmpty()) {
+                    actual.onComplete();
+                    return;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+    }
+
+}
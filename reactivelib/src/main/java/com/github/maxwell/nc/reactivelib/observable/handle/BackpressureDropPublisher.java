@@ -0,0 +1,103 @@
+package com.github.maxwell.nc.reactivelib.observable.handle;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 没有请求量时抛弃数据的生产者<br>
+ * 向上游请求所有数据，下游没有请求量时收到的数据被抛弃，并回调{@link #onDrop}<br>
+ * 可以通过{@link Publisher#onBackpressureDrop()}和{@link Publisher#onBackpressureDrop(Consumer)}转换
+ */
+public class BackpressureDropPublisher<T> extends Publisher<T> {
+
+    private final Publisher<T> source;
+    private final Consumer<T> onDrop;
+
+    public BackpressureDropPublisher(Publisher<T> source, Consumer<T> onDrop) {
+        this.source = source;
+        this.onDrop = onDrop;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        source.subscribe(new DropSubscriber<>(subscriber, onDrop));
+    }
+
+    private static final class DropSubscriber<T> extends FlowSubscription implements Subscriber<T> {
+
+        private final Subscriber<T> actual;
+        private final Consumer<T> onDrop;
+        private final AtomicLong requested = new AtomicLong();
+        private Subscription upstream;
+        private boolean done;
+
+        DropSubscriber(Subscriber<T> subscriber, Consumer<T> onDrop) {
+            actual = subscriber;
+            this.onDrop = onDrop;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done || cancelled) {
+                return;
+            }
+            try {
+                if (requested.get() != 0) {
+                    actual.onNext(t);
+                    RequestHelper.produced(requested, 1);
+                } else if (onDrop != null) {
+                    onDrop.accept(t);
+                }
+            } catch (Exception e) {
+                cancel();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
+    }
+
+}
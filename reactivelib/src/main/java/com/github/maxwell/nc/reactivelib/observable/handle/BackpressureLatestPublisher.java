@@ -0,0 +1,147 @@
+package com.github.maxwell.nc.reactivelib.observable.handle;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 没有请求量时只保留最新数据的生产者<br>
+ * 向上游请求所有数据，下游没有请求量时新数据覆盖尚未发送的旧数据，下游请求时发送保留的最新数据<br>
+ * 可以通过{@link Publisher#onBackpressureLatest()}转换
+ */
+public class BackpressureLatestPublisher<T> extends Publisher<T> {
+
+    private final Publisher<T> source;
+
+    public BackpressureLatestPublisher(Publisher<T> source) {
+        this.source = source;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        source.subscribe(new LatestSubscriber<>(subscriber));
+    }
+
+    private static final class LatestSubscriber<T> extends FlowSubscription implements Subscriber<T> {
+
+        /**
+         * 代表null数据的占位对象
+         */
+        private static final Object NULL = new Object();
+
+        private final Subscriber<T> actual;
+        private final AtomicReference<Object> latest = new AtomicReference<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private Subscription upstream;
+        private volatile boolean done;
+        private Throwable error;
+
+        /**
+         * 只在排空循环中访问
+         */
+        private long emitted;
+
+        LatestSubscriber(Subscriber<T> subscriber) {
+            actual = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T t) {
+            latest.set(t == null ? NULL : t);
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            upstream.cancel();
+            drain();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            long e = emitted;
+            for (; ; ) {
+                if (cancelled) {
+                    latest.set(null);
+                    return;
+                }
+                boolean d = done;
+                boolean empty = latest.get() == null;
+                if (d && empty) {
+                    if (error != null) {
+                        actual.onError(error);
+                    } else {
+                        actual.onComplete();
+                    }
+                    return;
+                }
+                if (!empty && e != requested.get()) {
+                    Object v = latest.getAndSet(null);
+                    try {
+                        actual.onNext(v == NULL ? null : (T) v);
+                    } catch (Exception ex) {
+                        cancel();
+                        actual.onError(ex);
+                        return;
+                    }
+                    e++;
+                    continue;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+    }
+
+}
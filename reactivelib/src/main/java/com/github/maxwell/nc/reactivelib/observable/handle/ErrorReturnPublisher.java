@@ -31,12 +31,7 @@ public class ErrorReturnPublisher<T> extends Publisher<T> {
 
         private final Subscriber<T> actual;
         private final Function<Throwable, T> function;
-        private FlowSubscription subscription;
-
-        /**
-         * 是否运行取消
-         */
-        private boolean isAllowCancel = false;
+        private Subscription upstream;
 
         ErrorReturnSubscriber(Subscriber<T> subscriber, Function<Throwable, T> function) {
             this.actual = subscriber;
@@ -45,31 +40,27 @@ public class ErrorReturnPublisher<T> extends Publisher<T> {
 
         @Override
         public void onSubscribe(Subscription s) {
-            if (s instanceof FlowSubscription) {
-                subscription = (FlowSubscription) s;
-            }
+            upstream = s;
             //这里订阅的Subscription是此类
             actual.onSubscribe(this);
         }
 
         @Override
         public void onNext(T t) {
+            if (cancelled) {
+                return;
+            }
             try {
-                if (subscription != null && subscription.isCancelled()) {
-                    return;
-                }
                 actual.onNext(t);
             } catch (Exception e) {
-                if (subscription != null) {
-                    subscription.cancel();
-                }
-                onError(e);
+                cancel();
+                fallback(e);
             }
         }
 
         @Override
         public void onComplete() {
-            if (subscription != null && subscription.isCancelled()) {
+            if (cancelled) {
                 return;
             }
             actual.onComplete();
@@ -77,10 +68,19 @@ public class ErrorReturnPublisher<T> extends Publisher<T> {
 
         @Override
         public void onError(Throwable throwable) {
+            if (cancelled) {
+                return;
+            }
+            fallback(throwable);
+        }
+
+        /**
+         * 发送特定数据后结束，变换或发送时出错则回调onError
+         */
+        private void fallback(Throwable throwable) {
             try {
                 actual.onNext(function.apply(throwable));
             } catch (Exception ex) {
-                isAllowCancel = true;//执行完发送特定数据后取消其他操作
                 cancel();
                 actual.onError(ex);
                 return;
@@ -90,13 +90,13 @@ public class ErrorReturnPublisher<T> extends Publisher<T> {
 
         @Override
         public void request(long count) {
-            subscription.request(count);
+            upstream.request(count);
         }
 
         @Override
         public void cancel() {
-            if (isAllowCancel) {
-                subscription.cancel();
+            if (markCancelled()) {
+                upstream.cancel();
             }
         }
 
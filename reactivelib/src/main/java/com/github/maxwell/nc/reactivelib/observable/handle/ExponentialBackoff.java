@@ -0,0 +1,66 @@
+package com.github.maxwell.nc.reactivelib.observable.handle;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指数退避的重试策略，配合{@link RetryWhenPublisher}使用<br>
+ * 第n次重试前等待{@link #initialDelay}*2^(n-1)，最长不超过{@link #maxDelay}，
+ * 重试{@link #maxRetries}次后仍然出错时下游收到最后一次的错误<br>
+ * 每次订阅单独计算重试次数<br>
+ * 等待在{@link #scheduler}中计时，重新订阅也在此调度器中执行，没有设置时使用共享的定时线程
+ */
+public class ExponentialBackoff implements Function<Publisher<Throwable>, Publisher<?>> {
+
+    private final int maxRetries;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+
+    /**
+     * @param maxRetries   最大重试次数
+     * @param initialDelay 第一次重试前的等待时间
+     * @param maxDelay     最长等待时间
+     * @param unit         时间单位
+     * @param scheduler    计时和重新订阅的调度器，可以为null
+     */
+    public ExponentialBackoff(int maxRetries, long initialDelay, long maxDelay, TimeUnit unit, Scheduler scheduler) {
+        this.maxRetries = maxRetries;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.unit = unit;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Publisher<?> apply(Publisher<Throwable> errors) {
+        //每次订阅创建新的计数
+        final int[] attempt = {0};
+        //不限制请求量，重试中同步发生的错误不需要等待上一次延时结束
+        return errors.flatMap(new Function<Throwable, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Throwable throwable) {
+                if (attempt[0] == maxRetries) {
+                    return Publisher.error(throwable);
+                }
+                long delay = delayOf(attempt[0]++);
+                return Publisher.just(attempt[0]).delay(delay, unit, scheduler);
+            }
+        }, Integer.MAX_VALUE, 1);
+    }
+
+    /**
+     * 第attempt+1次重试前的等待时间
+     */
+    long delayOf(int attempt) {
+        if (attempt >= 62 || initialDelay > (maxDelay >> attempt)) {
+            return maxDelay;
+        }
+        return initialDelay << attempt;
+    }
+
+}
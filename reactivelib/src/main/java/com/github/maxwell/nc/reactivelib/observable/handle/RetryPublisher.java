@@ -2,13 +2,16 @@ package com.github.maxwell.nc.reactivelib.observable.handle;
 
 import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
-import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
 import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+import com.github.maxwell.nc.reactivelib.subscription.SubscriptionArbiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 遇到错误重试的生产者<br>
- * 若遇到异常，则会重新调用订阅操作，从头开始请求数据（包括重新走onSubscribe回调）<br>
- * 特别注意：此生产者在多线程并发情况下可能无法执行重试操作<br>
+ * 若遇到异常，则会重新订阅上游，从头开始请求数据，下游只收到一次onSubscribe，尚未满足的请求量转发给新的上游<br>
+ * 重新订阅通过{@link #wip}循环执行：同步发生的错误只增加计数，由外层循环继续订阅，
+ * 因此同步数据源重试任意多次也不会增加调用栈深度<br>
  * 通过指定{@link #retryTimes}为重试次数，若重试次数用尽则不会再重试，保留最后一次的状态<br>
  * 此生产者可以通过{@link Publisher#retry(int)}操作符来实现转换
  */
@@ -24,17 +27,33 @@ public class RetryPublisher<T> extends Publisher<T> {
 
     @Override
     protected void subscribeActual(Subscriber<T> subscriber) {
-        source.subscribe(new RetrySubscriber<>(source, subscriber, retryTimes));
+        RetrySubscriber<T> parent = new RetrySubscriber<>(source, subscriber, retryTimes);
+        subscriber.onSubscribe(parent);
+        parent.subscribeNext();
     }
 
-    private static final class RetrySubscriber<T> implements Subscriber<T> {
+    private static final class RetrySubscriber<T> extends SubscriptionArbiter implements Subscriber<T> {
 
         private final Publisher<T> source;
         private final Subscriber<T> actual;
         private int retryTimes;
-        private FlowSubscription subscription;
 
-        public RetrySubscriber(Publisher<T> source, Subscriber<T> subscriber, int times) {
+        /**
+         * 订阅计数，只有从0开始增加的线程执行订阅循环
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+
+        /**
+         * 当前订阅的上游，每次重试都会更新
+         */
+        private Subscription upstream;
+
+        /**
+         * 当前上游已经发送的数量，重试前从请求量中扣除
+         */
+        private long produced;
+
+        RetrySubscriber(Publisher<T> source, Subscriber<T> subscriber, int times) {
             this.source = source;
             actual = subscriber;
             retryTimes = times;
@@ -42,30 +61,27 @@ public class RetryPublisher<T> extends Publisher<T> {
 
         @Override
         public void onSubscribe(Subscription s) {
-            if (s instanceof FlowSubscription) {
-                subscription = (FlowSubscription) s;
-            }
-            actual.onSubscribe(s);
+            upstream = s;
+            setSubscription(s);
         }
 
         @Override
         public void onNext(T t) {
             try {
-                if (subscription != null && subscription.isCancelled()) {
+                if (cancelled) {
                     return;
                 }
+                produced++;
                 actual.onNext(t);
             } catch (Exception e) {
-                if (subscription != null) {
-                    subscription.cancel();
-                }
+                upstream.cancel();
                 onError(e);
             }
         }
 
         @Override
         public void onComplete() {
-            if (subscription != null && subscription.isCancelled()) {
+            if (cancelled) {
                 return;
             }
             actual.onComplete();
@@ -73,13 +89,43 @@ public class RetryPublisher<T> extends Publisher<T> {
 
         @Override
         public void onError(Throwable throwable) {
+            if (cancelled) {
+                return;
+            }
             if (retryTimes != 0) {
                 retryTimes--;
-                source.subscribe(this);//重试
+                subscribeNext();//重试
             } else {
                 actual.onError(throwable);
             }
         }
+
+        /**
+         * 订阅上游，在订阅过程中同步发生的重试由外层循环执行
+         */
+        void subscribeNext() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                if (cancelled) {
+                    return;
+                }
+                long p = produced;
+                if (p != 0) {
+                    produced = 0;
+                    produced(p);
+                }
+                source.subscribe(this);
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,241 @@
+package com.github.maxwell.nc.reactivelib.observable.handle;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.processor.PublishProcessor;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+import com.github.maxwell.nc.reactivelib.subscription.SubscriptionArbiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按条件重试的生产者<br>
+ * 每次订阅时把错误序列交给{@link #handler}，由返回的生产者决定如何重试：
+ * 发送数据时重新订阅上游，完成时下游完成，出错时下游收到此错误<br>
+ * 返回的生产者可以延时发送数据来实现退避重试，例如{@link ExponentialBackoff}<br>
+ * 重新订阅与{@link RetryPublisher}相同，通过循环执行，不会增加调用栈深度<br>
+ * 此生产者可以通过{@link Publisher#retryWhen(Function)}和
+ * {@link Publisher#retryBackoff(int, long, long, TimeUnit, Scheduler)}转换
+ */
+public class RetryWhenPublisher<T> extends Publisher<T> {
+
+    private final Publisher<T> source;
+    private final Function<Publisher<Throwable>, Publisher<?>> handler;
+
+    public RetryWhenPublisher(Publisher<T> source, Function<Publisher<Throwable>, Publisher<?>> handler) {
+        this.source = source;
+        this.handler = handler;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(final Subscriber<T> subscriber) {
+        PublishProcessor<Throwable> errors = new PublishProcessor<>();
+        Publisher<Object> when;
+        try {
+            when = (Publisher<Object>) handler.apply(errors);
+            if (when == null) {
+                throw new NullPointerException("retryWhen handler returned a null Publisher!");
+            }
+        } catch (final Exception e) {
+            subscriber.onSubscribe(new FlowSubscription() {
+                @Override
+                public void request(long count) {
+                }
+            });
+            subscriber.onError(e);
+            return;
+        }
+
+        RetryWhenSubscriber<T> parent = new RetryWhenSubscriber<>(source, subscriber, errors);
+        subscriber.onSubscribe(parent);
+        when.subscribe(parent.receiver);
+        parent.subscribeNext();
+    }
+
+    private static final class RetryWhenSubscriber<T> extends SubscriptionArbiter implements Subscriber<T> {
+
+        private final Publisher<T> source;
+        private final Subscriber<T> actual;
+
+        /**
+         * 发送给{@link #handler}的错误序列
+         */
+        private final PublishProcessor<Throwable> errors;
+
+        final WhenReceiver receiver;
+
+        /**
+         * 订阅计数，只有从0开始增加的线程执行订阅循环
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+
+        /**
+         * 当前订阅的上游，每次重试都会更新
+         */
+        private Subscription upstream;
+
+        /**
+         * 当前上游已经发送的数量，重试前从请求量中扣除
+         */
+        private long produced;
+
+        RetryWhenSubscriber(Publisher<T> source, Subscriber<T> subscriber, PublishProcessor<Throwable> errors) {
+            this.source = source;
+            actual = subscriber;
+            this.errors = errors;
+            receiver = new WhenReceiver(this);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            setSubscription(s);
+        }
+
+        @Override
+        public void onNext(T t) {
+            try {
+                if (cancelled) {
+                    return;
+                }
+                produced++;
+                actual.onNext(t);
+            } catch (Exception e) {
+                upstream.cancel();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (cancelled) {
+                return;
+            }
+            receiver.cancel();
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (cancelled) {
+                return;
+            }
+            long p = produced;
+            if (p != 0) {
+                produced = 0;
+                produced(p);
+            }
+            //每个错误只允许触发一次重试
+            receiver.request(1);
+            errors.onNext(throwable);
+        }
+
+        @Override
+        public void cancel() {
+            super.cancel();
+            receiver.cancel();
+        }
+
+        /**
+         * 订阅上游，在订阅过程中同步发生的重试由外层循环执行
+         */
+        void subscribeNext() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                if (cancelled) {
+                    return;
+                }
+                source.subscribe(this);
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void whenComplete() {
+            super.cancel();
+            actual.onComplete();
+        }
+
+        void whenError(Throwable throwable) {
+            super.cancel();
+            actual.onError(throwable);
+        }
+
+    }
+
+    /**
+     * 接收{@link #handler}返回的生产者的信号
+     */
+    private static final class WhenReceiver implements Subscriber<Object> {
+
+        private final RetryWhenSubscriber<?> parent;
+        private volatile Subscription upstream;
+        private volatile boolean cancelled;
+
+        WhenReceiver(RetryWhenSubscriber<?> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            if (cancelled) {
+                s.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(Object o) {
+            if (cancelled) {
+                return;
+            }
+            parent.subscribeNext();
+        }
+
+        @Override
+        public void onComplete() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            parent.whenComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            parent.whenError(throwable);
+        }
+
+        void request(long count) {
+            Subscription s = upstream;
+            if (s != null) {
+                s.request(count);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.github.maxwell.nc.reactivelib.observable.multicast;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+/**
+ * 可连接的生产者<br>
+ * 订阅时只登记订阅者，调用{@link #connect()}时才订阅上游，上游的同一份数据发送给所有订阅者，
+ * 多个订阅者共用一次上游订阅<br>
+ * 可以通过以下方法创建：<br>
+ * {@link Publisher#publish()}<br>
+ * {@link Publisher#replay(int)}<br>
+ * {@link Publisher#replay(long, java.util.concurrent.TimeUnit)}<br>
+ */
+public abstract class ConnectablePublisher<T> extends Publisher<T> {
+
+    ConnectablePublisher() {
+    }
+
+    /**
+     * 连接上游，已经连接时不会重复订阅
+     *
+     * @return 当前连接，释放时取消上游订阅
+     */
+    public abstract Disposable connect();
+
+    /**
+     * 转换：第一个订阅者订阅时连接上游，所有订阅者都取消或结束后断开连接
+     *
+     * @see RefCountPublisher
+     */
+    public Publisher<T> refCount() {
+        return new RefCountPublisher<>(this);
+    }
+
+    /**
+     * 当前连接已经结束或者释放时丢弃，之后的订阅者使用新的连接
+     */
+    abstract void reset();
+
+}
@@ -0,0 +1,373 @@
+package com.github.maxwell.nc.reactivelib.observable.multicast;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 多播生产者<br>
+ * 调用{@link #connect()}后订阅上游一次，把数据同时发送给连接期间的所有订阅者，订阅者只收到订阅之后的数据<br>
+ * 向上游预取{@link #prefetch}个数据，按所有订阅者中最小的请求量发送，没有订阅者时数据暂存在队列中<br>
+ * 订阅者保存在写时复制的数组中，通过CAS增删，发送数据时不加锁<br>
+ * 连接结束或释放后，新的订阅者等待下一次连接<br>
+ * 可以通过{@link Publisher#publish()}转换
+ */
+public class PublishPublisher<T> extends ConnectablePublisher<T> {
+
+    private final Publisher<T> source;
+    private final int prefetch;
+
+    /**
+     * 当前连接，尚未连接时也会先创建用于登记订阅者
+     */
+    private final AtomicReference<PublishConnection<T>> current = new AtomicReference<>();
+
+    public PublishPublisher(Publisher<T> source, int prefetch) {
+        this.source = source;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        InnerSubscription<T> inner = new InnerSubscription<>(subscriber);
+        subscriber.onSubscribe(inner);
+        for (; ; ) {
+            PublishConnection<T> conn = current.get();
+            if (conn == null || conn.isTerminated()) {
+                PublishConnection<T> fresh = new PublishConnection<>(prefetch);
+                if (!current.compareAndSet(conn, fresh)) {
+                    continue;
+                }
+                conn = fresh;
+            }
+            if (conn.add(inner)) {
+                inner.parent = conn;
+                if (inner.isCancelled()) {
+                    conn.remove(inner);
+                }
+                conn.drain();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Disposable connect() {
+        for (; ; ) {
+            PublishConnection<T> conn = current.get();
+            if (conn == null || conn.isTerminated()) {
+                PublishConnection<T> fresh = new PublishConnection<>(prefetch);
+                if (!current.compareAndSet(conn, fresh)) {
+                    continue;
+                }
+                conn = fresh;
+            }
+            if (conn.connected.compareAndSet(false, true)) {
+                source.subscribe(conn);
+            }
+            return conn;
+        }
+    }
+
+    @Override
+    void reset() {
+        PublishConnection<T> conn = current.get();
+        if (conn != null && conn.isTerminated()) {
+            current.compareAndSet(conn, null);
+        }
+    }
+
+    private static final class PublishConnection<T> implements Subscriber<T>, Disposable {
+
+        @SuppressWarnings("rawtypes")
+        private static final InnerSubscription[] EMPTY = new InnerSubscription[0];
+
+        /**
+         * 连接结束或释放后的订阅者数组，不再接受新的订阅者
+         */
+        @SuppressWarnings("rawtypes")
+        private static final InnerSubscription[] TERMINATED = new InnerSubscription[0];
+
+        /**
+         * 代表null数据的占位对象
+         */
+        private static final Object NULL = new Object();
+
+        @SuppressWarnings("unchecked")
+        private final AtomicReference<InnerSubscription<T>[]> subscribers = new AtomicReference<InnerSubscription<T>[]>(EMPTY);
+
+        final AtomicBoolean connected = new AtomicBoolean();
+
+        private final int prefetch;
+        private final int limit;
+        private final SpscArrayQueue<Object> queue;
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile Subscription upstream;
+        private volatile boolean disposed;
+        private volatile boolean done;
+        private Throwable error;
+
+        /**
+         * 只在排空循环中访问
+         */
+        private int consumed;
+
+        PublishConnection(int prefetch) {
+            this.prefetch = prefetch;
+            limit = prefetch - (prefetch >> 2);
+            queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        boolean isTerminated() {
+            return subscribers.get() == TERMINATED;
+        }
+
+        boolean add(InnerSubscription<T> inner) {
+            for (; ; ) {
+                InnerSubscription<T>[] a = subscribers.get();
+                if (a == TERMINATED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                InnerSubscription<T>[] b = new InnerSubscription[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = inner;
+                if (subscribers.compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+
+        void remove(InnerSubscription<T> inner) {
+            for (; ; ) {
+                InnerSubscription<T>[] a = subscribers.get();
+                int n = a.length;
+                int index = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == inner) {
+                        index = i;
+                        break;
+                    }
+                }
+                if (index < 0) {
+                    return;
+                }
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                InnerSubscription<T>[] b = n == 1 ? EMPTY : new InnerSubscription[n - 1];
+                if (n != 1) {
+                    System.arraycopy(a, 0, b, 0, index);
+                    System.arraycopy(a, index + 1, b, index, n - index - 1);
+                }
+                if (subscribers.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            if (disposed) {
+                s.cancel();
+                return;
+            }
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (!queue.offer(t == null ? NULL : t)) {
+                onError(new IllegalStateException("queue is full!"));
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) {
+                return;
+            }
+            disposed = true;
+            @SuppressWarnings("unchecked")
+            InnerSubscription<T>[] terminated = TERMINATED;
+            subscribers.set(terminated);
+            Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+            drain();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        /**
+         * 按所有订阅者中最小的请求量发送数据
+         */
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                if (disposed) {
+                    queue.clear();
+                    return;
+                }
+                boolean d = done;
+                boolean empty = queue.isEmpty();
+                if (d && empty) {
+                    Throwable ex = error;
+                    for (InnerSubscription<T> inner : subscribers.getAndSet(TERMINATED)) {
+                        if (inner.isCancelled()) {
+                            continue;
+                        }
+                        if (ex != null) {
+                            inner.actual.onError(ex);
+                        } else {
+                            inner.actual.onComplete();
+                        }
+                    }
+                    return;
+                }
+
+                InnerSubscription<T>[] a = subscribers.get();
+                if (!empty && a.length != 0) {
+                    long min = Long.MAX_VALUE;
+                    int active = 0;
+                    for (InnerSubscription<T> inner : a) {
+                        if (inner.isCancelled()) {
+                            continue;
+                        }
+                        long r = inner.requested.get();
+                        if (r != Long.MAX_VALUE) {
+                            min = Math.min(min, r - inner.emitted);
+                        }
+                        active++;
+                    }
+
+                    long e = 0;
+                    if (active != 0) {
+                        while (e != min) {
+                            if (disposed) {
+                                queue.clear();
+                                return;
+                            }
+                            Object v = queue.poll();
+                            if (v == null) {
+                                break;
+                            }
+                            T t = v == NULL ? null : (T) v;
+                            for (InnerSubscription<T> inner : a) {
+                                if (inner.isCancelled()) {
+                                    continue;
+                                }
+                                try {
+                                    inner.actual.onNext(t);
+                                } catch (Exception ex) {
+                                    inner.cancel();
+                                    inner.actual.onError(ex);
+                                    continue;
+                                }
+                                inner.emitted++;
+                            }
+                            e++;
+                            if (++consumed == limit) {
+                                consumed = 0;
+                                upstream.request(limit);
+                            }
+                            if (subscribers.get() != a) {
+                                //订阅者变化后重新计算请求量
+                                break;
+                            }
+                        }
+                    }
+                    if (e != 0) {
+                        continue;
+                    }
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+    }
+
+    private static final class InnerSubscription<T> extends FlowSubscription {
+
+        private final Subscriber<T> actual;
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * 加入连接后才不为空
+         */
+        volatile PublishConnection<T> parent;
+
+        /**
+         * 只在连接的排空循环中访问
+         */
+        long emitted;
+
+        InnerSubscription(Subscriber<T> subscriber) {
+            actual = subscriber;
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                PublishConnection<T> p = parent;
+                if (p != null) {
+                    p.drain();
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            PublishConnection<T> p = parent;
+            if (p != null) {
+                p.remove(this);
+                p.drain();
+            }
+        }
+    }
+
+}
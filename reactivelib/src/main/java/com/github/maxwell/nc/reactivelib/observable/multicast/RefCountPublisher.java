@@ -0,0 +1,123 @@
+package com.github.maxwell.nc.reactivelib.observable.multicast;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 自动连接的生产者<br>
+ * 订阅者数量从0变为1时连接上游，订阅者全部取消或结束后断开连接，之后的订阅者会重新连接<br>
+ * 可以通过{@link ConnectablePublisher#refCount()}和{@link Publisher#share()}转换
+ */
+public class RefCountPublisher<T> extends Publisher<T> {
+
+    private final ConnectablePublisher<T> source;
+
+    /**
+     * 以下变量通过this加锁访问
+     */
+    private int count;
+    private Disposable connection;
+
+    public RefCountPublisher(ConnectablePublisher<T> source) {
+        this.source = source;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        boolean connect;
+        synchronized (this) {
+            connect = ++count == 1;
+        }
+        source.subscribe(new RefCountSubscriber<>(subscriber, this));
+        if (connect) {
+            Disposable d = source.connect();
+            boolean released;
+            synchronized (this) {
+                released = count == 0;
+                if (!released) {
+                    connection = d;
+                }
+            }
+            if (released) {
+                //订阅者在连接返回前已经取消或结束，断开这次连接
+                d.dispose();
+                source.reset();
+            }
+        }
+    }
+
+    /**
+     * 订阅者取消或结束
+     */
+    private void release() {
+        synchronized (this) {
+            if (--count != 0) {
+                return;
+            }
+            Disposable d = connection;
+            connection = null;
+            if (d != null) {
+                d.dispose();
+            }
+            source.reset();
+        }
+    }
+
+    private static final class RefCountSubscriber<T> implements Subscriber<T>, Subscription {
+
+        private final Subscriber<T> actual;
+        private final RefCountPublisher<T> parent;
+        private final AtomicBoolean once = new AtomicBoolean();
+        private Subscription upstream;
+
+        RefCountSubscriber(Subscriber<T> subscriber, RefCountPublisher<T> parent) {
+            actual = subscriber;
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T t) {
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onComplete() {
+            release();
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            release();
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+            release();
+        }
+
+        private void release() {
+            if (once.compareAndSet(false, true)) {
+                parent.release();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,407 @@
+package com.github.maxwell.nc.reactivelib.observable.multicast;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 重放生产者<br>
+ * 调用{@link #connect()}后订阅上游一次，数据保存在有界缓存中，后来的订阅者先收到缓存中的数据再接收新数据，
+ * 连接结束后的订阅者也会收到缓存的数据和结束事件<br>
+ * 缓存最多保存{@link #maxSize}个数据，或者只保存{@link #maxAge}纳秒内的数据，超出的旧数据被丢弃<br>
+ * 缓存是只由上游追加的单向链表，每个订阅者按各自的请求量从自己的位置读取，订阅者保存在写时复制的数组中，通过CAS增删<br>
+ * 向上游请求所有数据，连接结束或释放后再次连接时使用新的缓存<br>
+ * 可以通过{@link Publisher#replay(int)}和{@link Publisher#replay(long, TimeUnit)}转换
+ */
+public class ReplayPublisher<T> extends ConnectablePublisher<T> {
+
+    private final Publisher<T> source;
+    private final int maxSize;
+    private final long maxAge;
+
+    private final AtomicReference<ReplayConnection<T>> current = new AtomicReference<>();
+
+    /**
+     * 按数量限制缓存
+     *
+     * @param size 缓存的最大数量
+     */
+    public ReplayPublisher(Publisher<T> source, int size) {
+        this(source, size, Long.MAX_VALUE);
+    }
+
+    /**
+     * 按时间限制缓存
+     *
+     * @param time 数据在缓存中保留的时间
+     * @param unit 时间单位
+     */
+    public ReplayPublisher(Publisher<T> source, long time, TimeUnit unit) {
+        this(source, Integer.MAX_VALUE, unit.toNanos(time));
+    }
+
+    private ReplayPublisher(Publisher<T> source, int maxSize, long maxAge) {
+        this.source = source;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        ReplaySubscription<T> inner = new ReplaySubscription<>(subscriber);
+        subscriber.onSubscribe(inner);
+        for (; ; ) {
+            ReplayConnection<T> conn = current.get();
+            if (conn == null || conn.isDisposed()) {
+                ReplayConnection<T> fresh = new ReplayConnection<>(maxSize, maxAge);
+                if (!current.compareAndSet(conn, fresh)) {
+                    continue;
+                }
+                conn = fresh;
+            }
+            //连接已经结束时也加入，用于重放缓存的数据
+            conn.add(inner);
+            inner.parent = conn;
+            if (inner.isCancelled()) {
+                conn.remove(inner);
+                return;
+            }
+            conn.replay(inner);
+            return;
+        }
+    }
+
+    @Override
+    public Disposable connect() {
+        for (; ; ) {
+            ReplayConnection<T> conn = current.get();
+            if (conn == null || conn.isDisposed() || conn.done) {
+                ReplayConnection<T> fresh = new ReplayConnection<>(maxSize, maxAge);
+                if (!current.compareAndSet(conn, fresh)) {
+                    continue;
+                }
+                conn = fresh;
+            }
+            if (conn.connected.compareAndSet(false, true)) {
+                source.subscribe(conn);
+            }
+            return conn;
+        }
+    }
+
+    @Override
+    void reset() {
+        ReplayConnection<T> conn = current.get();
+        if (conn != null && (conn.isDisposed() || conn.done)) {
+            current.compareAndSet(conn, null);
+        }
+    }
+
+    /**
+     * 缓存节点，value为节点的数据，time为加入缓存的时间
+     */
+    private static final class Node {
+
+        final Object value;
+        final long time;
+        volatile Node next;
+
+        Node(Object value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+
+    private static final class ReplayConnection<T> implements Subscriber<T>, Disposable {
+
+        @SuppressWarnings("rawtypes")
+        private static final ReplaySubscription[] EMPTY = new ReplaySubscription[0];
+
+        @SuppressWarnings("unchecked")
+        private final AtomicReference<ReplaySubscription<T>[]> subscribers = new AtomicReference<ReplaySubscription<T>[]>(EMPTY);
+
+        final AtomicBoolean connected = new AtomicBoolean();
+
+        private final int maxSize;
+        private final long maxAge;
+
+        /**
+         * 最旧的数据的前一个节点，新的订阅者从这里开始读取，只由上游移动
+         */
+        private volatile Node head;
+
+        /**
+         * 以下变量只由上游访问
+         */
+        private Node tail;
+        private int size;
+
+        private volatile Subscription upstream;
+        private volatile boolean disposed;
+        volatile boolean done;
+        private Throwable error;
+
+        ReplayConnection(int maxSize, long maxAge) {
+            this.maxSize = maxSize;
+            this.maxAge = maxAge;
+            Node n = new Node(null, 0L);
+            head = n;
+            tail = n;
+        }
+
+        void add(ReplaySubscription<T> inner) {
+            for (; ; ) {
+                ReplaySubscription<T>[] a = subscribers.get();
+                int n = a.length;
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                ReplaySubscription<T>[] b = new ReplaySubscription[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = inner;
+                if (subscribers.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+
+        void remove(ReplaySubscription<T> inner) {
+            for (; ; ) {
+                ReplaySubscription<T>[] a = subscribers.get();
+                int n = a.length;
+                int index = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == inner) {
+                        index = i;
+                        break;
+                    }
+                }
+                if (index < 0) {
+                    return;
+                }
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                ReplaySubscription<T>[] b = n == 1 ? EMPTY : new ReplaySubscription[n - 1];
+                if (n != 1) {
+                    System.arraycopy(a, 0, b, 0, index);
+                    System.arraycopy(a, index + 1, b, index, n - index - 1);
+                }
+                if (subscribers.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            if (disposed) {
+                s.cancel();
+                return;
+            }
+            //缓存有界，订阅者按各自的请求量读取，向上游请求所有数据
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done || disposed) {
+                return;
+            }
+            long now = maxAge != Long.MAX_VALUE ? System.nanoTime() : 0L;
+            Node n = new Node(t, now);
+            tail.next = n;
+            tail = n;
+            if (++size > maxSize) {
+                head = head.next;
+                size--;
+            }
+            if (maxAge != Long.MAX_VALUE) {
+                Node h = head;
+                Node next = h.next;
+                while (next != null && now - next.time > maxAge) {
+                    h = next;
+                    next = h.next;
+                    size--;
+                }
+                head = h;
+            }
+            for (ReplaySubscription<T> inner : subscribers.get()) {
+                replay(inner);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            for (ReplaySubscription<T> inner : subscribers.get()) {
+                replay(inner);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            error = throwable;
+            done = true;
+            for (ReplaySubscription<T> inner : subscribers.get()) {
+                replay(inner);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) {
+                return;
+            }
+            disposed = true;
+            Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        /**
+         * 新订阅者的起始位置，按时间限制时跳过已经过期的数据
+         */
+        private Node startNode() {
+            Node h = head;
+            if (maxAge != Long.MAX_VALUE) {
+                long now = System.nanoTime();
+                Node next = h.next;
+                while (next != null && now - next.time > maxAge) {
+                    h = next;
+                    next = h.next;
+                }
+            }
+            return h;
+        }
+
+        /**
+         * 按订阅者的请求量从它的位置继续发送缓存的数据
+         */
+        @SuppressWarnings("unchecked")
+        void replay(ReplaySubscription<T> inner) {
+            if (inner.wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            Subscriber<T> actual = inner.actual;
+            for (; ; ) {
+                Node node = inner.index;
+                if (node == null) {
+                    node = startNode();
+                }
+                long r = inner.requested.get();
+                long e = inner.emitted;
+                while (e != r) {
+                    if (inner.isCancelled()) {
+                        inner.index = null;
+                        return;
+                    }
+                    Node next = node.next;
+                    if (next == null) {
+                        break;
+                    }
+                    try {
+                        actual.onNext((T) next.value);
+                    } catch (Exception ex) {
+                        inner.cancel();
+                        actual.onError(ex);
+                        return;
+                    }
+                    e++;
+                    node = next;
+                }
+                if (inner.isCancelled()) {
+                    inner.index = null;
+                    return;
+                }
+                if (done && node.next == null) {
+                    inner.index = null;
+                    remove(inner);
+                    Throwable ex = error;
+                    if (ex != null) {
+                        actual.onError(ex);
+                    } else {
+                        actual.onComplete();
+                    }
+                    return;
+                }
+                inner.index = node;
+                inner.emitted = e;
+
+                int w = inner.wip.get();
+                if (missed == w) {
+                    missed = inner.wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+    }
+
+    private static final class ReplaySubscription<T> extends FlowSubscription {
+
+        private final Subscriber<T> actual;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        /**
+         * 加入连接后才不为空
+         */
+        volatile ReplayConnection<T> parent;
+
+        /**
+         * 已经发送的最后一个节点，只在重放循环中访问
+         */
+        Node index;
+        long emitted;
+
+        ReplaySubscription(Subscriber<T> subscriber) {
+            actual = subscriber;
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                ReplayConnection<T> p = parent;
+                if (p != null) {
+                    p.replay(this);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            ReplayConnection<T> p = parent;
+            if (p != null) {
+                p.remove(this);
+            }
+        }
+    }
+
+}
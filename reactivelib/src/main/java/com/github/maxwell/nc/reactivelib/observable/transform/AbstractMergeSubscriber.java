@@ -0,0 +1,170 @@
+package com.github.maxwell.nc.reactivelib.observable.transform;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link FlatMapPublisher}和{@link ConcatMapPublisher}共用的上游订阅者<br>
+ * 负责变换内部生产者、按{@link #maxConcurrency}向上游请求、记录错误以及取消和出错时的清理，
+ * 子类决定如何保存{@link InnerQueueSubscriber}以及排空循环的发送顺序
+ */
+abstract class AbstractMergeSubscriber<T, R> extends FlowSubscription implements Subscriber<T> {
+
+    final Subscriber<R> actual;
+    private final Function<T, Publisher<R>> function;
+    private final int maxConcurrency;
+    final int prefetch;
+
+    /**
+     * 操作符名称，用于异常信息
+     */
+    final String name;
+
+    final AtomicInteger wip = new AtomicInteger();
+    final AtomicLong requested = new AtomicLong();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    Subscription upstream;
+    volatile boolean done;
+
+    /**
+     * 只在排空循环中访问
+     */
+    long emitted;
+
+    AbstractMergeSubscriber(Subscriber<R> subscriber, Function<T, Publisher<R>> function,
+                            int maxConcurrency, int prefetch, String name) {
+        actual = subscriber;
+        this.function = function;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+        this.name = name;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        upstream = s;
+        actual.onSubscribe(this);
+        s.request(maxConcurrency == Integer.MAX_VALUE ? Long.MAX_VALUE : maxConcurrency);
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (done || cancelled) {
+            return;
+        }
+        Publisher<R> p;
+        try {
+            p = function.apply(t);
+            if (p == null) {
+                throw new NullPointerException(name + " function returned a null Publisher!");
+            }
+        } catch (Exception e) {
+            upstream.cancel();
+            onError(e);
+            return;
+        }
+        onInner(p);
+    }
+
+    /**
+     * 处理变换出的内部生产者
+     */
+    abstract void onInner(Publisher<R> p);
+
+    /**
+     * 内部生产者完成或被跳过后向上游补充请求
+     */
+    final void replenish(long n) {
+        if (maxConcurrency != Integer.MAX_VALUE) {
+            upstream.request(n);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (error.compareAndSet(null, throwable)) {
+            done = true;
+            drain();
+        }
+    }
+
+    final void innerError(Throwable throwable) {
+        if (error.compareAndSet(null, throwable)) {
+            upstream.cancel();
+            done = true;
+            drain();
+        }
+    }
+
+    @Override
+    public void request(long count) {
+        if (RequestHelper.validate(count)) {
+            RequestHelper.add(requested, count);
+            drain();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        if (!markCancelled()) {
+            return;
+        }
+        upstream.cancel();
+        cancelInners();
+        drain();
+    }
+
+    final void drain() {
+        if (wip.getAndIncrement() == 0) {
+            drainLoop();
+        }
+    }
+
+    /**
+     * 排空循环，只在{@link #wip}从0开始增加的线程执行
+     */
+    abstract void drainLoop();
+
+    abstract void cancelInners();
+
+    /**
+     * 丢弃所有等待发送的数据，只在排空循环中调用
+     */
+    abstract void clear();
+
+    /**
+     * 检查取消和错误
+     *
+     * @return 已经结束时返回true
+     */
+    final boolean checkTerminated() {
+        if (cancelled) {
+            clear();
+            return true;
+        }
+        Throwable ex = error.get();
+        if (ex != null) {
+            upstream.cancel();
+            cancelInners();
+            clear();
+            actual.onError(ex);
+            return true;
+        }
+        return false;
+    }
+
+}
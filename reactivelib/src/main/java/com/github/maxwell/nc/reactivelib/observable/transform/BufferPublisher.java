@@ -2,83 +2,129 @@ package com.github.maxwell.nc.reactivelib.observable.transform;
 
 import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.metrics.ReactiveMetrics;
+import com.github.maxwell.nc.reactivelib.metrics.StageMetrics;
 import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.FusionSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
 import com.github.maxwell.nc.reactivelib.subscription.Subscription;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 缓存数据的生产者<br>
  * 每次调用onNext事件时，先缓存到List中，若缓存已满则输出结果，若调用onComplete事件还存在缓存没输出则一并输出<br>
+ * 下游请求n个List时，会向上游请求n*{@link #bufferSize}个数据<br>
+ * 上游支持同步融合时直接拉取数据组装List，不经过onNext回调<br>
  * 通过制定{@link #bufferSize}来指定每次缓存的数据数量<br>
  * 此方法使用ArrayList作为缓存列表，注意若数据量大，而{@link #bufferSize}设置值过小，则会创建大量的ArrayList<br>
- * 此生产者可以通过{@link Publisher#buffer(int)}转换
+ * 指定{@link #reuse}时，下游onNext返回后List会被清空并重复使用，只创建一个ArrayList，
+ * 此时下游不能在onNext之后继续持有List（例如不能在之后使用observeOn）<br>
+ * 开启{@link ReactiveMetrics}时统计缓存的数据数量，处理时间只包括存入缓存和切换List，不包括下游处理的时间<br>
+ * 此生产者可以通过{@link Publisher#buffer(int)}和{@link Publisher#buffer(int, boolean)}转换
  */
 public class BufferPublisher<T> extends Publisher<List<T>> {
 
     private final Publisher<T> source;
     private final int bufferSize;
+    private final boolean reuse;
 
     public BufferPublisher(Publisher<T> source, int size) {
+        this(source, size, false);
+    }
+
+    public BufferPublisher(Publisher<T> source, int size, boolean reuse) {
         this.source = source;
         bufferSize = size;
+        this.reuse = reuse;
     }
 
     @Override
     protected void subscribeActual(Subscriber<List<T>> subscriber) {
-        source.subscribe(new BufferSubscriber<>(subscriber, bufferSize));
+        source.subscribe(new BufferSubscriber<>(subscriber, bufferSize, reuse, ReactiveMetrics.stage("buffer", null)));
     }
 
-    private static final class BufferSubscriber<T> implements Subscriber<T> {
+    private static final class BufferSubscriber<T> extends FlowSubscription implements Subscriber<T> {
 
         private final Subscriber<List<T>> actual;
         private final int bufferSize;
-        private FlowSubscription subscription;
+        private final boolean reuse;
+        private Subscription upstream;
+
+        /**
+         * 同步融合成功时不为空
+         */
+        private FusionSubscription<T> fusion;
+
+        /**
+         * 同步融合时尚未发送的List请求量
+         */
+        private final AtomicLong requested = new AtomicLong();
 
         private List<T> tempList;
 
-        BufferSubscriber(Subscriber<List<T>> subscriber, int size) {
+        /**
+         * 没有开启统计时为null
+         */
+        private final StageMetrics metrics;
+
+        BufferSubscriber(Subscriber<List<T>> subscriber, int size, boolean reuse, StageMetrics metrics) {
             actual = subscriber;
             bufferSize = size;
+            this.reuse = reuse;
+            this.metrics = metrics;
             tempList = new ArrayList<>(bufferSize);
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public void onSubscribe(Subscription s) {
-            if (s instanceof FlowSubscription) {
-                subscription = (FlowSubscription) s;
+            upstream = s;
+            if (s instanceof FusionSubscription) {
+                FusionSubscription<T> f = (FusionSubscription<T>) s;
+                if (f.requestFusion(FusionSubscription.SYNC) == FusionSubscription.SYNC) {
+                    fusion = f;
+                }
             }
-            actual.onSubscribe(s);
+            //这里订阅的Subscription是此类，用于换算请求量
+            actual.onSubscribe(this);
         }
 
         @Override
         public void onNext(T t) {
             try {
-                if (subscription != null && subscription.isCancelled()) {
+                if (cancelled) {
                     return;
                 }
-                int size = tempList.size();
-                if (size < bufferSize) {
-                    tempList.add(t);
-                } else if (size == bufferSize) {
-                    actual.onNext(tempList);
-                    tempList = null;
+                long start = ReactiveMetrics.ENABLED && metrics != null ? System.nanoTime() : 0L;
+                List<T> list = tempList;
+                list.add(t);
+                boolean full = list.size() == bufferSize;
+                if (full && !reuse) {
                     //用新的缓存
                     tempList = new ArrayList<>(bufferSize);
-                    tempList.add(t);
                 }
-            } catch (Exception e) {
-                if (subscription != null) {
-                    subscription.cancel();
+                //只统计缓存本身的时间，不包括下游处理List的时间
+                if (ReactiveMetrics.ENABLED && metrics != null) {
+                    metrics.onNext(System.nanoTime() - start);
                 }
+                if (full) {
+                    actual.onNext(list);
+                    if (reuse) {
+                        list.clear();
+                    }
+                }
+            } catch (Exception e) {
+                cancel();
                 onError(e);
             }
         }
 
         @Override
         public void onComplete() {
-            if (subscription != null && subscription.isCancelled()) {
+            if (cancelled) {
                 return;
             }
             if (tempList.size() > 0) {
@@ -91,6 +137,81 @@ public class BufferPublisher<T> extends Publisher<List<T>> {
         public void onError(Throwable throwable) {
             actual.onError(throwable);
         }
+
+        @Override
+        public void request(long count) {
+            if (!RequestHelper.validate(count)) {
+                return;
+            }
+            if (fusion == null) {
+                upstream.request(RequestHelper.multiplyCap(count, bufferSize));
+            } else if (RequestHelper.add(requested, count) == 0) {
+                pull(count);
+            }
+        }
+
+        /**
+         * 同步融合时直接拉取数据组装List
+         */
+        private void pull(long count) {
+            FusionSubscription<T> f = fusion;
+            List<T> list = tempList;
+            long emitted = 0;
+            try {
+                for (; ; ) {
+                    while (emitted != count) {
+                        if (cancelled) {
+                            return;
+                        }
+                        if (!reuse) {
+                            list = new ArrayList<>(bufferSize);
+                        }
+                        while (list.size() != bufferSize && !f.isEmpty()) {
+                            T v = f.next();
+                            if (ReactiveMetrics.ENABLED && metrics != null) {
+                                long start = System.nanoTime();
+                                list.add(v);
+                                metrics.onNext(System.nanoTime() - start);
+                            } else {
+                                list.add(v);
+                            }
+                        }
+                        boolean empty = list.size() != bufferSize || f.isEmpty();
+                        if (!list.isEmpty()) {
+                            actual.onNext(list);
+                            if (reuse) {
+                                list.clear();
+                            }
+                        }
+                        if (empty) {
+                            if (!cancelled) {
+                                actual.onComplete();
+                            }
+                            return;
+                        }
+                        emitted++;
+                    }
+                    count = requested.get();
+                    if (count == emitted) {
+                        count = RequestHelper.produced(requested, emitted);
+                        if (count == 0) {
+                            return;
+                        }
+                        emitted = 0;
+                    }
+                }
+            } catch (Exception e) {
+                cancel();
+                actual.onError(e);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
     }
 
 }
@@ -0,0 +1,154 @@
+package com.github.maxwell.nc.reactivelib.observable.transform;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.observable.create.EmptyPublisher;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 变换为生产者并按顺序连接的生产者<br>
+ * 每个数据通过{@link #function}变换为内部生产者，同时最多订阅{@link #maxConcurrency}个内部生产者，
+ * 有内部生产者完成时才向上游补充请求<br>
+ * 每个内部生产者预取{@link #prefetch}个数据放入各自的队列，排空循环只发送最早订阅的内部生产者的数据，
+ * 它完成后再发送下一个，因此结果保持上游的顺序，后面的内部生产者的数据在队列中等待<br>
+ * {@link #maxConcurrency}为1时每次只订阅一个内部生产者<br>
+ * 任意一个生产者出错时取消所有订阅并回调onError<br>
+ * 可以通过以下方法转换：<br>
+ * {@link Publisher#concatMap(Function)}<br>
+ * {@link Publisher#concatMapEager(Function)}<br>
+ * {@link Publisher#concatMapEager(Function, int, int)}<br>
+ */
+public class ConcatMapPublisher<T, R> extends Publisher<R> {
+
+    private final Publisher<T> source;
+    private final Function<T, Publisher<R>> function;
+    private final int maxConcurrency;
+    private final int prefetch;
+
+    public ConcatMapPublisher(Publisher<T> source, Function<T, Publisher<R>> function, int maxConcurrency, int prefetch) {
+        this.source = source;
+        this.function = function;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<R> subscriber) {
+        source.subscribe(new ConcatSubscriber<>(subscriber, function, maxConcurrency, prefetch));
+    }
+
+    private static final class ConcatSubscriber<T, R> extends AbstractMergeSubscriber<T, R> {
+
+        /**
+         * 按订阅顺序排列的内部订阅者
+         */
+        private final ConcurrentLinkedQueue<InnerQueueSubscriber<R>> inners = new ConcurrentLinkedQueue<>();
+
+        ConcatSubscriber(Subscriber<R> subscriber, Function<T, Publisher<R>> function, int maxConcurrency, int prefetch) {
+            super(subscriber, function, maxConcurrency, prefetch, "concatMap");
+        }
+
+        @Override
+        void onInner(Publisher<R> p) {
+            if (p instanceof EmptyPublisher) {
+                replenish(1);
+                return;
+            }
+            InnerQueueSubscriber<R> inner = new InnerQueueSubscriber<>(this, prefetch);
+            inners.offer(inner);
+            if (cancelled) {
+                inners.remove(inner);
+                return;
+            }
+            p.subscribe(inner);
+        }
+
+        @Override
+        void cancelInners() {
+            for (InnerQueueSubscriber<R> inner : inners) {
+                inner.cancel();
+            }
+        }
+
+        @Override
+        void clear() {
+            InnerQueueSubscriber<R> inner;
+            while ((inner = inners.poll()) != null) {
+                inner.queue.clear();
+            }
+        }
+
+        @Override
+        void drainLoop() {
+            int missed = 1;
+            long e = emitted;
+            for (; ; ) {
+                if (checkTerminated()) {
+                    return;
+                }
+                long r = requested.get();
+                long replenish = 0;
+
+                for (; ; ) {
+                    InnerQueueSubscriber<R> inner = inners.peek();
+                    if (inner == null) {
+                        break;
+                    }
+                    while (e != r) {
+                        Object v = inner.queue.poll();
+                        if (v == null) {
+                            break;
+                        }
+                        try {
+                            actual.onNext(InnerQueueSubscriber.<R>unwrap(v));
+                        } catch (Exception ex) {
+                            cancel();
+                            actual.onError(ex);
+                            return;
+                        }
+                        e++;
+                        inner.requestOne();
+                        if (checkTerminated()) {
+                            return;
+                        }
+                    }
+                    //当前内部生产者完成后才继续发送下一个
+                    boolean d = inner.done;
+                    if (d && inner.queue.isEmpty()) {
+                        inners.poll();
+                        replenish++;
+                        continue;
+                    }
+                    break;
+                }
+
+                if (replenish != 0 && !done) {
+                    replenish(replenish);
+                }
+
+                boolean d = done;
+                if (d && inners.isEmpty()) {
+                    if (!checkTerminated()) {
+                        actual.onComplete();
+                    }
+                    return;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+    }
+
+}
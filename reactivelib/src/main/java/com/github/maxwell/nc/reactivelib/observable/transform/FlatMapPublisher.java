@@ -0,0 +1,274 @@
+package com.github.maxwell.nc.reactivelib.observable.transform;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.observable.create.ArrayPublisher;
+import com.github.maxwell.nc.reactivelib.observable.create.EmptyPublisher;
+import com.github.maxwell.nc.reactivelib.observable.create.ScalarPublisher;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 变换为生产者并合并的生产者<br>
+ * 每个数据通过{@link #function}变换为内部生产者，同时最多订阅{@link #maxConcurrency}个内部生产者，
+ * 有内部生产者完成时才向上游补充请求<br>
+ * 每个内部生产者预取{@link #prefetch}个数据放入各自的无锁队列，由一个排空循环按下游请求量合并发送，
+ * 不保证不同内部生产者之间的顺序<br>
+ * 变换结果只有一个数据（{@link ScalarPublisher}或{@link ArrayPublisher#isScalar()}）时不订阅，直接发送或放入队列；
+ * 结果为{@link EmptyPublisher}时直接补充请求<br>
+ * 任意一个生产者出错时取消所有订阅并回调onError<br>
+ * 可以通过{@link Publisher#flatMap(Function)}和{@link Publisher#flatMap(Function, int, int)}转换
+ */
+public class FlatMapPublisher<T, R> extends Publisher<R> {
+
+    private final Publisher<T> source;
+    private final Function<T, Publisher<R>> function;
+    private final int maxConcurrency;
+    private final int prefetch;
+
+    public FlatMapPublisher(Publisher<T> source, Function<T, Publisher<R>> function, int maxConcurrency, int prefetch) {
+        this.source = source;
+        this.function = function;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<R> subscriber) {
+        source.subscribe(new MergeSubscriber<>(subscriber, function, maxConcurrency, prefetch));
+    }
+
+    private static final class MergeSubscriber<T, R> extends AbstractMergeSubscriber<T, R> {
+
+        @SuppressWarnings("rawtypes")
+        private static final InnerQueueSubscriber[] EMPTY = new InnerQueueSubscriber[0];
+
+        /**
+         * 结束或取消后的内部订阅者数组，不再接受新的内部订阅者
+         */
+        @SuppressWarnings("rawtypes")
+        private static final InnerQueueSubscriber[] TERMINATED = new InnerQueueSubscriber[0];
+
+        /**
+         * 单个数据结果的队列，生产者只有上游
+         */
+        private final ConcurrentLinkedQueue<Object> scalarQueue = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 内部订阅者数组，增删时复制并通过CAS替换，排空循环直接遍历不需要复制
+         */
+        @SuppressWarnings("unchecked")
+        private final AtomicReference<InnerQueueSubscriber<R>[]> inners =
+                new AtomicReference<InnerQueueSubscriber<R>[]>(EMPTY);
+
+        /**
+         * 只在排空循环中访问
+         */
+        private int lastIndex;
+
+        MergeSubscriber(Subscriber<R> subscriber, Function<T, Publisher<R>> function, int maxConcurrency, int prefetch) {
+            super(subscriber, function, maxConcurrency, prefetch, "flatMap");
+        }
+
+        @Override
+        void onInner(Publisher<R> p) {
+            if (p instanceof ScalarPublisher) {
+                emitScalar(((ScalarPublisher<R>) p).value());
+            } else if (p instanceof ArrayPublisher && ((ArrayPublisher<R>) p).isScalar()) {
+                emitScalar(((ArrayPublisher<R>) p).scalarValue());
+            } else if (p instanceof EmptyPublisher) {
+                replenish(1);
+            } else {
+                InnerQueueSubscriber<R> inner = new InnerQueueSubscriber<>(this, prefetch);
+                if (!add(inner)) {
+                    return;
+                }
+                if (cancelled) {
+                    //cancelInners可能已经遍历过数组，在这里取消
+                    inner.cancel();
+                }
+                p.subscribe(inner);
+            }
+        }
+
+        private boolean add(InnerQueueSubscriber<R> inner) {
+            for (; ; ) {
+                InnerQueueSubscriber<R>[] a = inners.get();
+                if (a == TERMINATED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                InnerQueueSubscriber<R>[] b = new InnerQueueSubscriber[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = inner;
+                if (inners.compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+
+        private void remove(InnerQueueSubscriber<R> inner) {
+            for (; ; ) {
+                InnerQueueSubscriber<R>[] a = inners.get();
+                int n = a.length;
+                int index = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == inner) {
+                        index = i;
+                        break;
+                    }
+                }
+                if (index < 0) {
+                    return;
+                }
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                InnerQueueSubscriber<R>[] b = n == 1 ? EMPTY : new InnerQueueSubscriber[n - 1];
+                if (n != 1) {
+                    System.arraycopy(a, 0, b, 0, index);
+                    System.arraycopy(a, index + 1, b, index, n - index - 1);
+                }
+                if (inners.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 发送单个数据，没有其他数据等待并且有请求量时直接发送
+         */
+        private void emitScalar(R v) {
+            if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+                if (requested.get() != emitted && scalarQueue.isEmpty()) {
+                    try {
+                        actual.onNext(v);
+                    } catch (Exception e) {
+                        cancel();
+                        actual.onError(e);
+                        return;
+                    }
+                    emitted++;
+                    replenish(1);
+                } else {
+                    scalarQueue.offer(v == null ? InnerQueueSubscriber.NULL : v);
+                }
+                if (wip.decrementAndGet() == 0) {
+                    return;
+                }
+                drainLoop();
+            } else {
+                scalarQueue.offer(v == null ? InnerQueueSubscriber.NULL : v);
+                drain();
+            }
+        }
+
+        @Override
+        void cancelInners() {
+            for (InnerQueueSubscriber<R> inner : inners.get()) {
+                inner.cancel();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void clear() {
+            scalarQueue.clear();
+            for (InnerQueueSubscriber<R> inner : inners.getAndSet(TERMINATED)) {
+                inner.queue.clear();
+            }
+        }
+
+        @Override
+        void drainLoop() {
+            int missed = 1;
+            long e = emitted;
+            for (; ; ) {
+                if (checkTerminated()) {
+                    return;
+                }
+                long r = requested.get();
+                long replenish = 0;
+
+                while (e != r) {
+                    Object v = scalarQueue.poll();
+                    if (v == null) {
+                        break;
+                    }
+                    try {
+                        actual.onNext(InnerQueueSubscriber.<R>unwrap(v));
+                    } catch (Exception ex) {
+                        cancel();
+                        actual.onError(ex);
+                        return;
+                    }
+                    e++;
+                    replenish++;
+                    if (checkTerminated()) {
+                        return;
+                    }
+                }
+
+                InnerQueueSubscriber<R>[] a = inners.get();
+                int n = a.length;
+                int index = lastIndex < n ? lastIndex : 0;
+                for (int i = 0; i < n; i++) {
+                    InnerQueueSubscriber<R> inner = a[index];
+                    while (e != r) {
+                        Object v = inner.queue.poll();
+                        if (v == null) {
+                            break;
+                        }
+                        try {
+                            actual.onNext(InnerQueueSubscriber.<R>unwrap(v));
+                        } catch (Exception ex) {
+                            cancel();
+                            actual.onError(ex);
+                            return;
+                        }
+                        e++;
+                        inner.requestOne();
+                        if (checkTerminated()) {
+                            return;
+                        }
+                    }
+                    boolean d = inner.done;
+                    if (d && inner.queue.isEmpty()) {
+                        remove(inner);
+                        replenish++;
+                    }
+                    if (++index == n) {
+                        index = 0;
+                    }
+                }
+                lastIndex = index;
+
+                if (replenish != 0 && !done) {
+                    replenish(replenish);
+                }
+
+                boolean d = done;
+                if (d && inners.get().length == 0 && scalarQueue.isEmpty()) {
+                    if (!checkTerminated()) {
+                        actual.onComplete();
+                    }
+                    return;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+    }
+
+}
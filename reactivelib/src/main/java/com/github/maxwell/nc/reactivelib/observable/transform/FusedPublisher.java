@@ -0,0 +1,321 @@
+package com.github.maxwell.nc.reactivelib.observable.transform;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.Predicate;
+import com.github.maxwell.nc.reactivelib.observable.create.EmptyPublisher;
+import com.github.maxwell.nc.reactivelib.observable.create.ErrorPublisher;
+import com.github.maxwell.nc.reactivelib.observable.create.ScalarPublisher;
+import com.github.maxwell.nc.reactivelib.observable.create.ScalarPublisher.ScalarSubscription;
+import com.github.maxwell.nc.reactivelib.metrics.ReactiveMetrics;
+import com.github.maxwell.nc.reactivelib.metrics.StageMetrics;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.FusionSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * 融合多个变换和筛选阶段的生产者<br>
+ * 相邻的{@link MapPublisher}和{@link SelectPublisher}在组装时合并为此生产者，订阅时只创建一个订阅者，
+ * 每个数据只检查一次取消状态，按顺序执行所有{@link Function}和{@link Predicate}<br>
+ * 筛选不通过时不再执行后续阶段，并向上游补充请求1个数据<br>
+ * 上游支持同步融合时下游可以直接拉取通过所有阶段的数据<br>
+ * 上游为{@link ScalarPublisher}时也会融合，订阅时直接对唯一的数据执行所有阶段，
+ * 不订阅上游也不创建订阅者，只通过一个{@link ScalarSubscription}发送结果<br>
+ * 开启{@link ReactiveMetrics}时作为一个阶段统计，记录每个数据执行所有阶段的时间<br>
+ * 由{@link Publisher#map(Function)}和{@link Publisher#select(Predicate)}自动转换，不需要直接创建
+ */
+public class FusedPublisher<T, R> extends Publisher<R> {
+
+    /**
+     * 代表数据被筛选抛弃的占位对象
+     */
+    private static final Object DROPPED = new Object();
+
+    private final Publisher<T> source;
+
+    /**
+     * 按执行顺序排列的阶段，元素为{@link Function}或{@link Predicate}
+     */
+    private final Object[] stages;
+
+    /**
+     * 对应阶段是否为筛选阶段
+     */
+    private final boolean[] filters;
+
+    private FusedPublisher(Publisher<T> source, Object[] stages, boolean[] filters) {
+        this.source = source;
+        this.stages = stages;
+        this.filters = filters;
+    }
+
+    /**
+     * 组装变换阶段，上游可以融合时合并为一个生产者
+     *
+     * @param source   上游生产者
+     * @param function 变换操作回调
+     */
+    public static <T, V> Publisher<V> map(Publisher<T> source, Function<T, V> function) {
+        if (!isFuseable(source)) {
+            return new MapPublisher<>(source, function);
+        }
+        return fuse(source, function, false);
+    }
+
+    /**
+     * 组装筛选阶段，上游可以融合时合并为一个生产者
+     *
+     * @param source    上游生产者
+     * @param predicate 筛选逻辑
+     */
+    public static <T> Publisher<T> select(Publisher<T> source, Predicate<T> predicate) {
+        if (!isFuseable(source)) {
+            return new SelectPublisher<>(source, predicate);
+        }
+        return fuse(source, predicate, true);
+    }
+
+    private static boolean isFuseable(Publisher<?> source) {
+        return source instanceof MapPublisher
+                || source instanceof SelectPublisher
+                || source instanceof FusedPublisher
+                || source instanceof ScalarPublisher;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Publisher<V> fuse(Publisher<?> source, Object stage, boolean filter) {
+        Publisher<Object> upstream;
+        Object[] oldStages;
+        boolean[] oldFilters;
+        if (source instanceof MapPublisher) {
+            MapPublisher<Object, ?> map = (MapPublisher<Object, ?>) source;
+            upstream = map.source;
+            oldStages = new Object[]{map.function};
+            oldFilters = new boolean[]{false};
+        } else if (source instanceof SelectPublisher) {
+            SelectPublisher<Object> select = (SelectPublisher<Object>) source;
+            upstream = select.source;
+            oldStages = new Object[]{select.predicate};
+            oldFilters = new boolean[]{true};
+        } else if (source instanceof ScalarPublisher) {
+            upstream = (Publisher<Object>) source;
+            oldStages = new Object[0];
+            oldFilters = new boolean[0];
+        } else {
+            FusedPublisher<Object, ?> fused = (FusedPublisher<Object, ?>) source;
+            upstream = fused.source;
+            oldStages = fused.stages;
+            oldFilters = fused.filters;
+        }
+
+        int n = oldStages.length;
+        Object[] stages = new Object[n + 1];
+        boolean[] filters = new boolean[n + 1];
+        System.arraycopy(oldStages, 0, stages, 0, n);
+        System.arraycopy(oldFilters, 0, filters, 0, n);
+        stages[n] = stage;
+        filters[n] = filter;
+        return new FusedPublisher<>(upstream, stages, filters);
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<R> subscriber) {
+        StageMetrics metrics = ReactiveMetrics.ENABLED ? ReactiveMetrics.stage(metricsName(), null) : null;
+        if (source instanceof ScalarPublisher) {
+            subscribeScalar(subscriber, ((ScalarPublisher<T>) source).value(), metrics);
+            return;
+        }
+        source.subscribe(new FusedSubscriber<T, R>(subscriber, stages, filters, metrics));
+    }
+
+    /**
+     * 上游只有一个数据时直接计算结果，出错或被筛选抛弃时分别按{@link ErrorPublisher}和{@link EmptyPublisher}发送
+     */
+    @SuppressWarnings("unchecked")
+    private void subscribeScalar(Subscriber<R> subscriber, T value, StageMetrics metrics) {
+        Object v;
+        try {
+            v = apply(stages, filters, value, metrics);
+        } catch (Exception e) {
+            new ErrorPublisher<R>(e).subscribe(subscriber);
+            return;
+        }
+        if (v == DROPPED) {
+            new EmptyPublisher<R>().subscribe(subscriber);
+            return;
+        }
+        subscriber.onSubscribe(new ScalarSubscription<>(subscriber, (R) v));
+    }
+
+    /**
+     * 按顺序执行所有阶段
+     *
+     * @param metrics 没有开启统计时为null
+     * @return 被筛选抛弃时返回{@link #DROPPED}
+     */
+    private static Object apply(Object[] stages, boolean[] filters, Object v, StageMetrics metrics) throws Exception {
+        if (ReactiveMetrics.ENABLED && metrics != null) {
+            long start = System.nanoTime();
+            Object r = applyStages(stages, filters, v);
+            metrics.onNext(System.nanoTime() - start);
+            return r;
+        }
+        return applyStages(stages, filters, v);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object applyStages(Object[] stages, boolean[] filters, Object v) throws Exception {
+        for (int i = 0; i < stages.length; i++) {
+            if (filters[i]) {
+                if (!((Predicate<Object>) stages[i]).test(v)) {
+                    return DROPPED;
+                }
+            } else {
+                v = ((Function<Object, Object>) stages[i]).apply(v);
+            }
+        }
+        return v;
+    }
+
+    /**
+     * 统计名称，按顺序列出融合的阶段，例如fused[map:A,select:B]
+     */
+    private String metricsName() {
+        StringBuilder sb = new StringBuilder("fused[");
+        for (int i = 0; i < stages.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(filters[i] ? "select:" : "map:").append(stages[i].getClass().getName());
+        }
+        return sb.append(']').toString();
+    }
+
+    private static final class FusedSubscriber<T, R> extends FlowSubscription implements Subscriber<T>, FusionSubscription<R> {
+
+        private final Subscriber<R> actual;
+        private final Object[] stages;
+        private final boolean[] filters;
+        private Subscription upstream;
+
+        /**
+         * 上游可融合时不为空
+         */
+        private FusionSubscription<T> fusion;
+
+        /**
+         * 同步融合时预先拉取的通过所有阶段的数据
+         */
+        private Object pending;
+        private boolean hasPending;
+
+        /**
+         * 没有开启统计时为null
+         */
+        private final StageMetrics metrics;
+
+        FusedSubscriber(Subscriber<R> subscriber, Object[] stages, boolean[] filters, StageMetrics metrics) {
+            actual = subscriber;
+            this.stages = stages;
+            this.filters = filters;
+            this.metrics = metrics;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            if (s instanceof FusionSubscription) {
+                fusion = (FusionSubscription<T>) s;
+            }
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(T t) {
+            try {
+                if (cancelled) {
+                    return;
+                }
+                Object v = apply(t);
+                if (v == DROPPED) {
+                    upstream.request(1);//补充被抛弃的请求量
+                    return;
+                }
+                actual.onNext((R) v);
+            } catch (Exception e) {
+                cancel();
+                onError(e);
+            }
+        }
+
+        private Object apply(Object v) throws Exception {
+            return FusedPublisher.apply(stages, filters, v, metrics);
+        }
+
+        @Override
+        public void onComplete() {
+            if (cancelled) {
+                return;
+            }
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public int requestFusion(int mode) {
+            //线程边界下不融合，保证回调在原线程执行
+            if (fusion == null || (mode & BOUNDARY) != 0) {
+                return NONE;
+            }
+            return fusion.requestFusion(mode);
+        }
+
+        @Override
+        public boolean isEmpty() throws Exception {
+            if (hasPending) {
+                return false;
+            }
+            while (!fusion.isEmpty()) {
+                Object v = apply(fusion.next());
+                if (v != DROPPED) {
+                    pending = v;
+                    hasPending = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R next() throws Exception {
+            if (isEmpty()) {
+                return null;
+            }
+            Object v = pending;
+            pending = null;
+            hasPending = false;
+            return (R) v;
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.github.maxwell.nc.reactivelib.observable.transform;
+
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.queue.SimpleQueue;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * 订阅内部生产者的订阅者<br>
+ * 预取{@link #prefetch}个数据放入自己的无锁队列，由{@link AbstractMergeSubscriber}的排空循环取出发送，
+ * 每取出{@link #limit}个数据向内部生产者补充同样的请求量
+ */
+final class InnerQueueSubscriber<R> implements Subscriber<R> {
+
+    /**
+     * 队列中代表null数据的占位对象
+     */
+    static final Object NULL = new Object();
+
+    private final AbstractMergeSubscriber<?, R> parent;
+    private final int prefetch;
+
+    /**
+     * 补充请求的阈值
+     */
+    private final int limit;
+
+    final SimpleQueue<Object> queue;
+    private Subscription upstream;
+    volatile boolean done;
+    private volatile boolean cancelled;
+
+    /**
+     * 只在排空循环中访问
+     */
+    private int consumed;
+
+    InnerQueueSubscriber(AbstractMergeSubscriber<?, R> parent, int prefetch) {
+        this.parent = parent;
+        this.prefetch = prefetch;
+        limit = prefetch - (prefetch >> 2);
+        queue = new SpscArrayQueue<>(prefetch);
+    }
+
+    /**
+     * 还原队列中的数据
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R unwrap(Object v) {
+        return v == NULL ? null : (R) v;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        upstream = s;
+        if (cancelled) {
+            s.cancel();
+            return;
+        }
+        s.request(prefetch);
+    }
+
+    @Override
+    public void onNext(R r) {
+        if (!queue.offer(r == null ? NULL : r)) {
+            cancel();
+            parent.innerError(new IllegalStateException(parent.name + " queue is full, inner ignored request count!"));
+            return;
+        }
+        parent.drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        parent.drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        done = true;
+        parent.innerError(throwable);
+    }
+
+    /**
+     * 排空循环取出一个数据后调用
+     */
+    void requestOne() {
+        if (++consumed == limit) {
+            consumed = 0;
+            upstream.request(limit);
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+        Subscription s = upstream;
+        if (s != null) {
+            s.cancel();
+        }
+    }
+
+}
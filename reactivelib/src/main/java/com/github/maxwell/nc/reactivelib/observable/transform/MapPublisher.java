@@ -3,18 +3,23 @@ package com.github.maxwell.nc.reactivelib.observable.transform;
 import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
 import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.metrics.ReactiveMetrics;
+import com.github.maxwell.nc.reactivelib.metrics.StageMetrics;
 import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.FusionSubscription;
 import com.github.maxwell.nc.reactivelib.subscription.Subscription;
 
 /**
  * 变换数据的生产者<br>
  * 通过指定{@link #function}来设置变换数据的回调，把T类型原数据转换成R类型的新数据<br>
+ * 与相邻的变换或筛选阶段会融合为{@link FusedPublisher}，上游支持同步融合时下游可以直接拉取变换后的数据<br>
+ * 开启{@link ReactiveMetrics}时记录每个数据的变换时间<br>
  * 可以通过{@link Publisher#map(Function)}来转换
  */
 public class MapPublisher<T, R> extends Publisher<R> {
 
-    private final Publisher<T> source;
-    private final Function<T, R> function;
+    final Publisher<T> source;
+    final Function<T, R> function;
 
     public MapPublisher(Publisher<T> source, Function<T, R> function) {
         this.source = source;
@@ -23,45 +28,66 @@ public class MapPublisher<T, R> extends Publisher<R> {
 
     @Override
     protected void subscribeActual(Subscriber<R> subscriber) {
-        source.subscribe(new MapSubscriber<>(subscriber, function));
+        source.subscribe(new MapSubscriber<>(subscriber, function, ReactiveMetrics.stage("map", function)));
     }
 
-    private static final class MapSubscriber<T, R> implements Subscriber<T> {
+    private static final class MapSubscriber<T, R> extends FlowSubscription implements Subscriber<T>, FusionSubscription<R> {
         private final Subscriber<R> actual;
         private final Function<T, R> function;
-        private FlowSubscription subscription;
+        private Subscription upstream;
 
-        MapSubscriber(Subscriber<R> subscriber, Function<T, R> function) {
+        /**
+         * 上游可融合时不为空
+         */
+        private FusionSubscription<T> fusion;
+
+        /**
+         * 没有开启统计时为null
+         */
+        private final StageMetrics metrics;
+
+        MapSubscriber(Subscriber<R> subscriber, Function<T, R> function, StageMetrics metrics) {
             this.actual = subscriber;
             this.function = function;
+            this.metrics = metrics;
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public void onSubscribe(Subscription s) {
-            if (s instanceof FlowSubscription) {
-                subscription = (FlowSubscription) s;
+            upstream = s;
+            if (s instanceof FusionSubscription) {
+                fusion = (FusionSubscription<T>) s;
             }
-            actual.onSubscribe(s);
+            actual.onSubscribe(this);
         }
 
         @Override
         public void onNext(T t) {
             try {
-                if (subscription != null && subscription.isCancelled()) {
+                if (cancelled) {
                     return;
                 }
-                actual.onNext(function.apply(t));
+                actual.onNext(apply(t));
             } catch (Exception e) {
-                if (subscription != null) {
-                    subscription.cancel();
-                }
+                cancel();
                 onError(e);
             }
         }
 
+        private R apply(T t) throws Exception {
+            if (ReactiveMetrics.ENABLED && metrics != null) {
+                long start = System.nanoTime();
+                R r = function.apply(t);
+                metrics.onNext(System.nanoTime() - start);
+                return r;
+            }
+            return function.apply(t);
+        }
+
         @Override
         public void onComplete() {
-            if (subscription != null && subscription.isCancelled()) {
+            if (cancelled) {
                 return;
             }
             actual.onComplete();
@@ -71,6 +97,37 @@ public class MapPublisher<T, R> extends Publisher<R> {
         public void onError(Throwable throwable) {
             actual.onError(throwable);
         }
+
+        @Override
+        public int requestFusion(int mode) {
+            //线程边界下不融合，保证function在原线程执行
+            if (fusion == null || (mode & BOUNDARY) != 0) {
+                return NONE;
+            }
+            return fusion.requestFusion(mode);
+        }
+
+        @Override
+        public boolean isEmpty() throws Exception {
+            return fusion.isEmpty();
+        }
+
+        @Override
+        public R next() throws Exception {
+            return apply(fusion.next());
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
     }
 
 }
@@ -3,18 +3,24 @@ package com.github.maxwell.nc.reactivelib.observable.transform;
 import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
 import com.github.maxwell.nc.reactivelib.callback.Predicate;
+import com.github.maxwell.nc.reactivelib.metrics.ReactiveMetrics;
+import com.github.maxwell.nc.reactivelib.metrics.StageMetrics;
 import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.FusionSubscription;
 import com.github.maxwell.nc.reactivelib.subscription.Subscription;
 
 /**
  * 筛选数据的生产者<br>
  * 通过设定的{@link #predicate}来筛选数据，若{@link Predicate#test(Object)}方法返回true则调用onNext事件，否则抛弃元素<br>
+ * 抛弃元素时会向上游补充请求1个数据，保证下游的请求量不会因为筛选而减少<br>
+ * 与相邻的变换或筛选阶段会融合为{@link FusedPublisher}，上游支持同步融合时下游可以直接拉取筛选后的数据<br>
+ * 开启{@link ReactiveMetrics}时记录每个数据的筛选时间<br>
  * 可以通过{@link Publisher#select(Predicate)}操作符来转换
  */
 public class SelectPublisher<T> extends Publisher<T> {
 
-    private final Publisher<T> source;
-    private final Predicate<T> predicate;
+    final Publisher<T> source;
+    final Predicate<T> predicate;
 
     public SelectPublisher(Publisher<T> source, Predicate<T> predicate) {
         this.source = source;
@@ -23,48 +29,77 @@ public class SelectPublisher<T> extends Publisher<T> {
 
     @Override
     protected void subscribeActual(Subscriber<T> subscriber) {
-        source.subscribe(new SelectSubscriber<>(subscriber, predicate));
+        source.subscribe(new SelectSubscriber<>(subscriber, predicate, ReactiveMetrics.stage("select", predicate)));
     }
 
-    private static final class SelectSubscriber<T> implements Subscriber<T> {
+    private static final class SelectSubscriber<T> extends FlowSubscription implements Subscriber<T>, FusionSubscription<T> {
 
         private final Subscriber<T> actual;
         private final Predicate<T> predicate;
-        private FlowSubscription subscription;
+        private Subscription upstream;
 
-        SelectSubscriber(Subscriber<T> subscriber, Predicate<T> predicate) {
+        /**
+         * 上游可融合时不为空
+         */
+        private FusionSubscription<T> fusion;
+
+        /**
+         * 同步融合时预先拉取的符合条件的数据
+         */
+        private T pending;
+        private boolean hasPending;
+
+        /**
+         * 没有开启统计时为null
+         */
+        private final StageMetrics metrics;
+
+        SelectSubscriber(Subscriber<T> subscriber, Predicate<T> predicate, StageMetrics metrics) {
             actual = subscriber;
             this.predicate = predicate;
+            this.metrics = metrics;
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public void onSubscribe(Subscription s) {
-            if (s instanceof FlowSubscription) {
-                subscription = (FlowSubscription) s;
+            upstream = s;
+            if (s instanceof FusionSubscription) {
+                fusion = (FusionSubscription<T>) s;
             }
-            actual.onSubscribe(s);
+            actual.onSubscribe(this);
         }
 
         @Override
         public void onNext(T t) {
             try {
-                if (subscription != null && subscription.isCancelled()) {
+                if (cancelled) {
                     return;
                 }
-                if (predicate.test(t)) {
+                if (test(t)) {
                     actual.onNext(t);
+                } else {
+                    upstream.request(1);//补充被抛弃的请求量
                 }
             } catch (Exception e) {
-                if (subscription != null) {
-                    subscription.cancel();
-                }
+                cancel();
                 onError(e);
             }
         }
 
+        private boolean test(T t) throws Exception {
+            if (ReactiveMetrics.ENABLED && metrics != null) {
+                long start = System.nanoTime();
+                boolean pass = predicate.test(t);
+                metrics.onNext(System.nanoTime() - start);
+                return pass;
+            }
+            return predicate.test(t);
+        }
+
         @Override
         public void onComplete() {
-            if (subscription != null && subscription.isCancelled()) {
+            if (cancelled) {
                 return;
             }
             actual.onComplete();
@@ -74,6 +109,54 @@ public class SelectPublisher<T> extends Publisher<T> {
         public void onError(Throwable throwable) {
             actual.onError(throwable);
         }
+
+        @Override
+        public int requestFusion(int mode) {
+            //线程边界下不融合，保证predicate在原线程执行
+            if (fusion == null || (mode & BOUNDARY) != 0) {
+                return NONE;
+            }
+            return fusion.requestFusion(mode);
+        }
+
+        @Override
+        public boolean isEmpty() throws Exception {
+            if (hasPending) {
+                return false;
+            }
+            while (!fusion.isEmpty()) {
+                T t = fusion.next();
+                if (test(t)) {
+                    pending = t;
+                    hasPending = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() throws Exception {
+            if (isEmpty()) {
+                return null;
+            }
+            T t = pending;
+            pending = null;
+            hasPending = false;
+            return t;
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
     }
 
 }
@@ -0,0 +1,327 @@
+package com.github.maxwell.nc.reactivelib.observable.transform;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.queue.SimpleQueue;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按数量或时间缓存数据的生产者<br>
+ * 缓存满{@link #bufferSize}个数据，或者距离上次定时输出经过{@link #timespan}时，以先到者为准输出缓存，
+ * 定时输出时缓存为空则不输出<br>
+ * 定时输出在{@link #scheduler}的工作者中执行，已经输出但下游尚未请求的List会暂存，直到下游请求时按顺序发送<br>
+ * 下游请求n个List时，会向上游请求n*{@link #bufferSize}个数据；定时输出不受下游请求量限制，
+ * 暂存的List超过{@link #READY_SIZE}个时取消上游并回调onError<br>
+ * 指定{@link #reuse}时，下游onNext返回后List会被清空并回收到容量为{@link #POOL_SIZE}的缓存池中重复使用，
+ * 此时下游不能在onNext之后继续持有List（例如不能在之后使用observeOn）<br>
+ * 此生产者可以通过{@link Publisher#buffer(int, long, TimeUnit, Scheduler)}转换
+ */
+public class TimedBufferPublisher<T> extends Publisher<List<T>> {
+
+    /**
+     * 回收List的缓存池容量
+     */
+    static final int POOL_SIZE = 4;
+
+    /**
+     * 暂存等待发送的List的队列容量
+     */
+    static final int READY_SIZE = 16;
+
+    private final Publisher<T> source;
+    private final int bufferSize;
+    private final long timespan;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+    private final boolean reuse;
+
+    public TimedBufferPublisher(Publisher<T> source, int size, long timespan, TimeUnit unit,
+                                Scheduler scheduler, boolean reuse) {
+        this.source = source;
+        bufferSize = size;
+        this.timespan = timespan;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.reuse = reuse;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<List<T>> subscriber) {
+        source.subscribe(new TimedBufferSubscriber<>(subscriber, bufferSize, timespan, unit, scheduler, reuse));
+    }
+
+    private static final class TimedBufferSubscriber<T> extends FlowSubscription implements Subscriber<T>, Runnable {
+
+        private final Subscriber<List<T>> actual;
+        private final int bufferSize;
+        private final long timespan;
+        private final TimeUnit unit;
+
+        /**
+         * 已经输出等待发送的List，只在加锁时存入
+         */
+        private final SimpleQueue<List<T>> ready = new SpscArrayQueue<>(READY_SIZE);
+
+        /**
+         * 回收的List，只在发送后存入，在加锁切换缓存时取出
+         */
+        private final SimpleQueue<List<T>> pool;
+
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private Subscription upstream;
+
+        /**
+         * 定时输出在此工作者中执行
+         */
+        private final Scheduler.Worker worker;
+
+        /**
+         * 当前缓存，通过this加锁访问，结束后为null
+         */
+        private List<T> buffer;
+
+        private volatile boolean done;
+        private Throwable error;
+
+        /**
+         * 只在排空循环中访问
+         */
+        private long emitted;
+
+        TimedBufferSubscriber(Subscriber<List<T>> subscriber, int size, long timespan, TimeUnit unit,
+                              Scheduler scheduler, boolean reuse) {
+            actual = subscriber;
+            bufferSize = size;
+            this.timespan = timespan;
+            this.unit = unit;
+            worker = scheduler.createWorker();
+            pool = reuse ? new SpscArrayQueue<List<T>>(POOL_SIZE) : null;
+            buffer = new ArrayList<>(bufferSize);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            //这里订阅的Subscription是此类，下游请求时再按数量换算向上游请求
+            actual.onSubscribe(this);
+            worker.schedulePeriodically(this, timespan, timespan, unit);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (cancelled) {
+                return;
+            }
+            boolean full;
+            boolean overflow = false;
+            synchronized (this) {
+                List<T> b = buffer;
+                if (b == null) {
+                    return;
+                }
+                b.add(t);
+                full = b.size() == bufferSize;
+                if (full) {
+                    overflow = !output(b);
+                }
+            }
+            if (overflow) {
+                overflow();
+            } else if (full) {
+                drain();
+            }
+        }
+
+        /**
+         * 定时输出缓存
+         */
+        @Override
+        public void run() {
+            boolean overflow;
+            synchronized (this) {
+                List<T> b = buffer;
+                if (b == null || b.isEmpty()) {
+                    return;
+                }
+                overflow = !output(b);
+            }
+            if (overflow) {
+                overflow();
+            } else {
+                drain();
+            }
+        }
+
+        /**
+         * 输出当前缓存并切换新的缓存，只在加锁时调用
+         *
+         * @return 暂存队列已满时不再接收数据并返回false
+         */
+        private boolean output(List<T> b) {
+            if (!ready.offer(b)) {
+                buffer = null;
+                return false;
+            }
+            buffer = newList();
+            return true;
+        }
+
+        /**
+         * 暂存队列已满，取消上游并回调onError
+         */
+        private void overflow() {
+            upstream.cancel();
+            cancelTimer();
+            error = new IllegalStateException("buffer queue is full, downstream requested too few lists!");
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            cancelTimer();
+            boolean overflow = false;
+            synchronized (this) {
+                List<T> b = buffer;
+                if (b == null) {
+                    return;
+                }
+                if (!b.isEmpty()) {
+                    overflow = !output(b);
+                }
+                buffer = null;
+            }
+            if (overflow) {
+                overflow();
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            cancelTimer();
+            synchronized (this) {
+                if (buffer == null) {
+                    return;
+                }
+                buffer = null;
+            }
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                upstream.request(RequestHelper.multiplyCap(count, bufferSize));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            upstream.cancel();
+            cancelTimer();
+            drain();
+        }
+
+        private void cancelTimer() {
+            worker.dispose();
+        }
+
+        /**
+         * 创建新的缓存，只在加锁时调用
+         */
+        private List<T> newList() {
+            if (pool != null) {
+                List<T> list = pool.poll();
+                if (list != null) {
+                    return list;
+                }
+            }
+            return new ArrayList<>(bufferSize);
+        }
+
+        /**
+         * 按下游请求量顺序发送已经输出的List
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            long e = emitted;
+            for (; ; ) {
+                if (cancelled) {
+                    ready.clear();
+                    return;
+                }
+                if (done && error != null) {
+                    ready.clear();
+                    actual.onError(error);
+                    return;
+                }
+
+                long r = requested.get();
+                while (e != r) {
+                    List<T> list = ready.poll();
+                    if (list == null) {
+                        break;
+                    }
+                    try {
+                        actual.onNext(list);
+                    } catch (Exception ex) {
+                        cancel();
+                        actual.onError(ex);
+                        return;
+                    }
+                    e++;
+                    if (pool != null) {
+                        list.clear();
+                        pool.offer(list);
+                    }
+                    if (cancelled) {
+                        ready.clear();
+                        return;
+                    }
+                }
+
+                if (done && ready.isEmpty()) {
+                    actual.onComplete();
+                    return;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+    }
+
+}
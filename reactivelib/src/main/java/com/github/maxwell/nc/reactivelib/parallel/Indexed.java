@@ -0,0 +1,19 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+/**
+ * 携带序号的数据<br>
+ * 需要保持顺序时轨道中传递此对象，变换直接修改{@link #value}，筛选不通过时标记{@link #dropped}而不是抛弃，
+ * 保证合并时序号连续
+ */
+final class Indexed {
+
+    final long index;
+    Object value;
+    boolean dropped;
+
+    Indexed(long index, Object value) {
+        this.index = index;
+        this.value = value;
+    }
+
+}
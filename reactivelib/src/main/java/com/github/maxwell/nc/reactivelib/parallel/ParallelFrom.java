@@ -0,0 +1,238 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.queue.SimpleQueue;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分配数据到多条轨道的并行生产者<br>
+ * 向上游预取{@link #prefetch}个数据放入队列，按轮流的顺序分配给有请求量的轨道，没有请求量的轨道会被跳过，
+ * 每消耗{@link #prefetch}的3/4数据后向上游补充请求<br>
+ * 所有轨道都取消后才取消上游<br>
+ * 可以通过{@link Publisher#parallel(int)}创建
+ */
+final class ParallelFrom<T> extends ParallelPublisher<T> {
+
+    private final Publisher<T> source;
+    private final int parallelism;
+    private final int prefetch;
+
+    ParallelFrom(Publisher<T> source, int parallelism, int prefetch) {
+        this.source = source;
+        this.parallelism = parallelism;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    void subscribeActual(Subscriber<Object>[] subscribers, boolean ordered) {
+        source.subscribe(new DispatchSubscriber<T>(subscribers, prefetch, ordered));
+    }
+
+    private static final class DispatchSubscriber<T> implements Subscriber<T> {
+
+        /**
+         * 队列中代表null数据的占位对象
+         */
+        private static final Object NULL = new Object();
+
+        private final Subscriber<Object>[] subscribers;
+        private final RailSubscription[] rails;
+        private final int prefetch;
+        private final int limit;
+        private final boolean ordered;
+        private final SimpleQueue<Object> queue;
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        /**
+         * 尚未取消的轨道数量
+         */
+        private final AtomicInteger active;
+        private Subscription upstream;
+
+        private volatile boolean done;
+        private Throwable error;
+
+        /**
+         * 以下变量只在排空循环中访问
+         */
+        private int index;
+        private int consumed;
+        private long sequence;
+
+        DispatchSubscriber(Subscriber<Object>[] subscribers, int prefetch, boolean ordered) {
+            this.subscribers = subscribers;
+            this.prefetch = prefetch;
+            this.ordered = ordered;
+            limit = prefetch - (prefetch >> 2);
+            queue = new SpscArrayQueue<>(prefetch);
+            active = new AtomicInteger(subscribers.length);
+            rails = new RailSubscription[subscribers.length];
+            for (int i = 0; i < rails.length; i++) {
+                rails[i] = new RailSubscription(this);
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            for (int i = 0; i < subscribers.length; i++) {
+                subscribers[i].onSubscribe(rails[i]);
+            }
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (!queue.offer(t == null ? NULL : t)) {
+                upstream.cancel();
+                onError(new IllegalStateException("parallel queue is full, upstream ignored request count!"));
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            Subscriber<Object>[] a = subscribers;
+            RailSubscription[] rails = this.rails;
+            int n = a.length;
+            int idx = index;
+            int c = consumed;
+            for (; ; ) {
+                int notReady = 0;
+                for (; ; ) {
+                    if (active.get() == 0) {
+                        queue.clear();
+                        return;
+                    }
+                    boolean d = done;
+                    if (d && error != null) {
+                        queue.clear();
+                        for (int i = 0; i < n; i++) {
+                            if (!rails[i].isCancelled()) {
+                                a[i].onError(error);
+                            }
+                        }
+                        return;
+                    }
+                    boolean empty = queue.isEmpty();
+                    if (d && empty) {
+                        for (int i = 0; i < n; i++) {
+                            if (!rails[i].isCancelled()) {
+                                a[i].onComplete();
+                            }
+                        }
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+
+                    RailSubscription rail = rails[idx];
+                    if (!rail.isCancelled() && rail.requested.get() != rail.emitted) {
+                        Object v = queue.poll();
+                        if (v == NULL) {
+                            v = null;
+                        }
+                        if (ordered) {
+                            v = new Indexed(sequence++, v);
+                        }
+                        a[idx].onNext(v);
+                        rail.emitted++;
+                        if (++c == limit) {
+                            c = 0;
+                            upstream.request(limit);
+                        }
+                        notReady = 0;
+                    } else {
+                        notReady++;
+                    }
+
+                    if (++idx == n) {
+                        idx = 0;
+                    }
+                    if (notReady == n) {
+                        break;
+                    }
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    index = idx;
+                    consumed = c;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+    }
+
+    private static final class RailSubscription extends FlowSubscription {
+
+        private final DispatchSubscriber<?> parent;
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * 只在排空循环中访问
+         */
+        private long emitted;
+
+        RailSubscription(DispatchSubscriber<?> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                parent.drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            if (parent.active.decrementAndGet() == 0) {
+                parent.upstream.cancel();
+                parent.drain();
+            }
+        }
+    }
+
+}
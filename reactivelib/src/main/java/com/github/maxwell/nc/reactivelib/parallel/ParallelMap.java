@@ -0,0 +1,37 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+
+/**
+ * 每条轨道变换数据的并行生产者<br>
+ * 可以通过{@link ParallelPublisher#map(Function)}转换
+ */
+final class ParallelMap<T, R> extends ParallelOperator<T, R> {
+
+    private final Function<T, R> function;
+
+    ParallelMap(ParallelPublisher<T> source, Function<T, R> function) {
+        super(source);
+        this.function = function;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    Publisher<Object> transform(Publisher<Object> rail, boolean ordered) {
+        if (!ordered) {
+            return rail.map((Function<Object, Object>) function);
+        }
+        return rail.map(new Function<Object, Object>() {
+            @Override
+            public Object apply(Object o) throws Exception {
+                Indexed indexed = (Indexed) o;
+                if (!indexed.dropped) {
+                    indexed.value = function.apply((T) indexed.value);
+                }
+                return indexed;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+
+/**
+ * 逐条轨道执行的并行操作<br>
+ * 每条轨道包装成一个普通生产者，交给{@link #transform(Publisher, boolean)}组装普通操作，
+ * 订阅组装结果时收集到的上游订阅者再用于订阅上游并行生产者
+ */
+abstract class ParallelOperator<T, R> extends ParallelPublisher<R> {
+
+    final ParallelPublisher<T> source;
+
+    ParallelOperator(ParallelPublisher<T> source) {
+        this.source = source;
+    }
+
+    @Override
+    public int parallelism() {
+        return source.parallelism();
+    }
+
+    /**
+     * 组装单条轨道的操作
+     *
+     * @param rail    单条轨道
+     * @param ordered 是否需要保持顺序，此时轨道中的数据为{@link Indexed}
+     */
+    abstract Publisher<Object> transform(Publisher<Object> rail, boolean ordered);
+
+    @Override
+    final void subscribeActual(Subscriber<Object>[] subscribers, boolean ordered) {
+        int n = subscribers.length;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Subscriber<Object>[] parents = new Subscriber[n];
+        for (int i = 0; i < n; i++) {
+            transform(new Rail(parents, i), ordered).subscribe(subscribers[i]);
+            if (parents[i] == null) {
+                throw new IllegalStateException("rail " + i + " is not subscribed!");
+            }
+        }
+        source.subscribeActual(parents, ordered);
+    }
+
+    /**
+     * 单条轨道，订阅时只记录订阅者
+     */
+    private static final class Rail extends Publisher<Object> {
+
+        private final Subscriber<Object>[] parents;
+        private final int index;
+
+        Rail(Subscriber<Object>[] parents, int index) {
+            this.parents = parents;
+            this.index = index;
+        }
+
+        @Override
+        protected void subscribeActual(Subscriber<Object> subscriber) {
+            parents[index] = subscriber;
+        }
+    }
+
+}
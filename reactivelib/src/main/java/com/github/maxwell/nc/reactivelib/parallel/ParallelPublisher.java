@@ -0,0 +1,181 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.BiFunction;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.Predicate;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.Schedulers;
+
+/**
+ * 并行生产者<br>
+ * 把一个生产者的数据分配到{@link #parallelism()}条轨道，每条轨道独立执行变换和筛选，
+ * 通过{@link #runOn(Scheduler)}让各条轨道在不同线程执行，最后通过{@link #sequential()}、
+ * {@link #sequentialOrdered()}或{@link #reduce(BiFunction)}合并为普通生产者<br>
+ * 通过{@link Publisher#parallel(int)}创建
+ *
+ * @param <T> 轨道中的数据类型
+ */
+public abstract class ParallelPublisher<T> {
+
+    ParallelPublisher() {
+    }
+
+    /**
+     * 创建：按轨道请求量轮流分配上游数据的并行生产者
+     *
+     * @param source   上游生产者
+     * @param rails    轨道数量（必须大于0）
+     * @param prefetch 预取数量（必须大于0）
+     */
+    public static <T> ParallelPublisher<T> from(Publisher<T> source, int rails, int prefetch) {
+        if (rails <= 0) {
+            throw new IndexOutOfBoundsException("rails is out of bounds!");
+        }
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
+        return new ParallelFrom<>(source, rails, prefetch);
+    }
+
+    /**
+     * 轨道数量
+     */
+    public abstract int parallelism();
+
+    /**
+     * 转换：每条轨道变换数据
+     *
+     * @param function 非空，转换操作回调，可能在多个线程同时执行
+     * @param <V>      转换后的数据类型
+     * @see ParallelMap
+     */
+    public <V> ParallelPublisher<V> map(Function<T, V> function) {
+        if (function == null) {
+            throw new NullPointerException("function is null!");
+        }
+        return new ParallelMap<>(this, function);
+    }
+
+    /**
+     * 转换：每条轨道筛选数据
+     *
+     * @param predicate 非空，筛选逻辑，可能在多个线程同时执行
+     * @see ParallelSelect
+     */
+    public ParallelPublisher<T> select(Predicate<T> predicate) {
+        if (predicate == null) {
+            throw new NullPointerException("predicate is null!");
+        }
+        return new ParallelSelect<>(this, predicate);
+    }
+
+    /**
+     * 调度：每条轨道的后续操作在调度器中执行
+     *
+     * @param scheduler 非空，调度器，通常使用{@link Schedulers#parallel()}
+     * @see ParallelRunOn
+     */
+    public ParallelPublisher<T> runOn(Scheduler scheduler) {
+        return runOn(scheduler, Publisher.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 调度：每条轨道的后续操作在调度器中执行
+     *
+     * @param scheduler 非空，调度器，通常使用{@link Schedulers#parallel()}
+     * @param prefetch  每条轨道的预取数量（必须大于0）
+     * @see ParallelRunOn
+     */
+    public ParallelPublisher<T> runOn(Scheduler scheduler, int prefetch) {
+        if (scheduler == null) {
+            throw new NullPointerException("scheduler is null!");
+        }
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
+        return new ParallelRunOn<>(this, scheduler, prefetch);
+    }
+
+    /**
+     * 合并：先在每条轨道内合并，再合并各条轨道的结果，没有数据时直接完成
+     *
+     * @param reducer 非空，合并操作回调，可能在多个线程同时执行
+     * @see ParallelReduce
+     */
+    public Publisher<T> reduce(BiFunction<T, T, T> reducer) {
+        if (reducer == null) {
+            throw new NullPointerException("reducer is null!");
+        }
+        return new ParallelReduce<>(this, reducer);
+    }
+
+    /**
+     * 合并：按到达顺序合并所有轨道的数据，不保证原始顺序
+     *
+     * @see ParallelSequential
+     */
+    public Publisher<T> sequential() {
+        return sequential(Publisher.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 合并：按到达顺序合并所有轨道的数据，不保证原始顺序
+     *
+     * @param prefetch 每条轨道的预取数量（必须大于0）
+     * @see ParallelSequential
+     */
+    public Publisher<T> sequential(int prefetch) {
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
+        return new ParallelSequential<>(this, prefetch, false);
+    }
+
+    /**
+     * 合并：按上游的原始顺序合并所有轨道的数据<br>
+     * 每个数据会额外携带序号，筛选抛弃的数据也会占用轨道直到合并时跳过
+     *
+     * @see ParallelSequential
+     */
+    public Publisher<T> sequentialOrdered() {
+        return sequentialOrdered(Publisher.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 合并：按上游的原始顺序合并所有轨道的数据<br>
+     * 每个数据会额外携带序号，筛选抛弃的数据也会占用轨道直到合并时跳过
+     *
+     * @param prefetch 每条轨道的预取数量（必须大于0）
+     * @see ParallelSequential
+     */
+    public Publisher<T> sequentialOrdered(int prefetch) {
+        if (prefetch <= 0) {
+            throw new IndexOutOfBoundsException("prefetch is out of bounds!");
+        }
+        return new ParallelSequential<>(this, prefetch, true);
+    }
+
+    /**
+     * 订阅所有轨道，每条轨道的数据按顺序发送给对应的订阅者
+     *
+     * @param subscribers 订阅者，数量必须等于{@link #parallelism()}
+     */
+    @SuppressWarnings("unchecked")
+    public final void subscribe(Subscriber<T>[] subscribers) {
+        if (subscribers.length != parallelism()) {
+            throw new IndexOutOfBoundsException("subscribers length is out of bounds!");
+        }
+        subscribeActual((Subscriber<Object>[]) (Subscriber<?>[]) subscribers, false);
+    }
+
+    /**
+     * 实际订阅操作方法
+     *
+     * @param subscribers 每条轨道的订阅者
+     * @param ordered     是否需要保持顺序，此时轨道中的数据为{@link Indexed}
+     */
+    abstract void subscribeActual(Subscriber<Object>[] subscribers, boolean ordered);
+
+}
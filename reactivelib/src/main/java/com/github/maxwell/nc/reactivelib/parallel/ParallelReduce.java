@@ -0,0 +1,237 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.callback.BiFunction;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 合并并行数据的生产者<br>
+ * 每条轨道请求所有数据并在轨道内合并，最后一条完成的轨道再合并各条轨道的结果，
+ * 下游请求后发送结果并完成，没有数据时直接完成<br>
+ * 任意一条轨道出错时取消所有轨道并回调onError<br>
+ * 可以通过{@link ParallelPublisher#reduce(BiFunction)}转换
+ */
+final class ParallelReduce<T> extends Publisher<T> {
+
+    private final ParallelPublisher<T> source;
+    private final BiFunction<T, T, T> reducer;
+
+    ParallelReduce(ParallelPublisher<T> source, BiFunction<T, T, T> reducer) {
+        this.source = source;
+        this.reducer = reducer;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        ReduceSubscription<T> parent = new ReduceSubscription<>(subscriber, source.parallelism(), reducer);
+        subscriber.onSubscribe(parent);
+        source.subscribeActual(parent.rails, false);
+    }
+
+    private static final class ReduceSubscription<T> extends FlowSubscription {
+
+        /**
+         * 下游已经请求
+         */
+        private static final int REQUESTED = 1;
+
+        /**
+         * 所有轨道已经完成
+         */
+        private static final int DONE = 2;
+
+        private final Subscriber<T> actual;
+        private final RailSubscriber[] rails;
+        private final BiFunction<T, T, T> reducer;
+        private final AtomicInteger state = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        /**
+         * 各条轨道的合并结果，通过this加锁访问
+         */
+        private T value;
+        private boolean hasValue;
+
+        ReduceSubscription(Subscriber<T> subscriber, int n, BiFunction<T, T, T> reducer) {
+            actual = subscriber;
+            this.reducer = reducer;
+            remaining = new AtomicInteger(n);
+            rails = new RailSubscriber[n];
+            for (int i = 0; i < n; i++) {
+                rails[i] = new RailSubscriber(this);
+            }
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count) && mark(REQUESTED, DONE)) {
+                emit();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                cancelAll();
+            }
+        }
+
+        private void cancelAll() {
+            for (RailSubscriber rail : rails) {
+                rail.cancel();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void railDone(boolean railHasValue, Object railValue) {
+            if (railHasValue) {
+                synchronized (this) {
+                    if (!hasValue) {
+                        value = (T) railValue;
+                        hasValue = true;
+                    } else {
+                        try {
+                            value = reducer.apply(value, (T) railValue);
+                        } catch (Exception e) {
+                            onError(e);
+                            return;
+                        }
+                    }
+                }
+            }
+            if (remaining.decrementAndGet() != 0 || error.get() != null || cancelled) {
+                return;
+            }
+            boolean empty;
+            synchronized (this) {
+                empty = !hasValue;
+            }
+            if (empty) {
+                actual.onComplete();
+                return;
+            }
+            //下游已经请求时直接发送结果，否则等待请求
+            if (mark(DONE, REQUESTED)) {
+                emit();
+            }
+        }
+
+        private void onError(Throwable throwable) {
+            if (error.compareAndSet(null, throwable)) {
+                cancelAll();
+                actual.onError(throwable);
+            }
+        }
+
+        /**
+         * 标记状态
+         *
+         * @return 第一次标记并且另一个状态已经存在时返回true
+         */
+        private boolean mark(int flag, int other) {
+            for (; ; ) {
+                int s = state.get();
+                if ((s & flag) != 0) {
+                    return false;
+                }
+                if (state.compareAndSet(s, s | flag)) {
+                    return (s & other) != 0;
+                }
+            }
+        }
+
+        private void emit() {
+            if (cancelled) {
+                return;
+            }
+            T v;
+            synchronized (this) {
+                v = value;
+                value = null;
+            }
+            actual.onNext(v);
+            actual.onComplete();
+        }
+    }
+
+    /**
+     * 单条轨道的合并
+     */
+    private static final class RailSubscriber implements Subscriber<Object> {
+
+        private final ReduceSubscription<?> parent;
+        private Subscription upstream;
+        private Object value;
+        private boolean hasValue;
+        private boolean done;
+
+        RailSubscriber(ReduceSubscription<?> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            if (parent.isCancelled()) {
+                s.cancel();
+                return;
+            }
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(Object o) {
+            if (done) {
+                return;
+            }
+            if (!hasValue) {
+                value = o;
+                hasValue = true;
+                return;
+            }
+            try {
+                value = ((BiFunction<Object, Object, Object>) parent.reducer).apply(value, o);
+            } catch (Exception e) {
+                done = true;
+                upstream.cancel();
+                parent.onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            Object v = value;
+            value = null;
+            parent.railDone(hasValue, v);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.onError(throwable);
+        }
+
+        void cancel() {
+            Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+}
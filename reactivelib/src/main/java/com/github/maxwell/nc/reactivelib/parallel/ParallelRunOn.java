@@ -0,0 +1,27 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+
+/**
+ * 每条轨道切换执行线程的并行生产者<br>
+ * 每条轨道相当于一个独立的{@link Publisher#observeOn(Scheduler, int)}，使用多线程调度器时各条轨道同时执行<br>
+ * 可以通过{@link ParallelPublisher#runOn(Scheduler)}转换
+ */
+final class ParallelRunOn<T> extends ParallelOperator<T, T> {
+
+    private final Scheduler scheduler;
+    private final int prefetch;
+
+    ParallelRunOn(ParallelPublisher<T> source, Scheduler scheduler, int prefetch) {
+        super(source);
+        this.scheduler = scheduler;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    Publisher<Object> transform(Publisher<Object> rail, boolean ordered) {
+        return rail.observeOn(scheduler, prefetch);
+    }
+
+}
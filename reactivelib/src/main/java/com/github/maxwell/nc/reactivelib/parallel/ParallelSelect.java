@@ -0,0 +1,40 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Function;
+import com.github.maxwell.nc.reactivelib.callback.Predicate;
+
+/**
+ * 每条轨道筛选数据的并行生产者<br>
+ * 需要保持顺序时不抛弃数据，只标记为已抛弃<br>
+ * 可以通过{@link ParallelPublisher#select(Predicate)}转换
+ */
+final class ParallelSelect<T> extends ParallelOperator<T, T> {
+
+    private final Predicate<T> predicate;
+
+    ParallelSelect(ParallelPublisher<T> source, Predicate<T> predicate) {
+        super(source);
+        this.predicate = predicate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    Publisher<Object> transform(Publisher<Object> rail, boolean ordered) {
+        if (!ordered) {
+            return rail.select((Predicate<Object>) predicate);
+        }
+        return rail.map(new Function<Object, Object>() {
+            @Override
+            public Object apply(Object o) throws Exception {
+                Indexed indexed = (Indexed) o;
+                if (!indexed.dropped && !predicate.test((T) indexed.value)) {
+                    indexed.dropped = true;
+                    indexed.value = null;
+                }
+                return indexed;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,358 @@
+package com.github.maxwell.nc.reactivelib.parallel;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.queue.SimpleQueue;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 合并多条轨道的生产者<br>
+ * 每条轨道预取{@link #prefetch}个数据放入各自的队列，由一个排空循环按下游请求量发送，
+ * 每条轨道消耗{@link #prefetch}的3/4数据后补充请求<br>
+ * 不保持顺序时轮流从各条轨道取数据；保持顺序时按序号取数据，跳过被筛选抛弃的数据<br>
+ * 任意一条轨道出错时取消所有轨道并回调onError，所有轨道完成后回调onComplete<br>
+ * 可以通过{@link ParallelPublisher#sequential()}和{@link ParallelPublisher#sequentialOrdered()}转换
+ */
+final class ParallelSequential<T> extends Publisher<T> {
+
+    private final ParallelPublisher<T> source;
+    private final int prefetch;
+    private final boolean ordered;
+
+    ParallelSequential(ParallelPublisher<T> source, int prefetch, boolean ordered) {
+        this.source = source;
+        this.prefetch = prefetch;
+        this.ordered = ordered;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        MergeSubscription<T> parent = new MergeSubscription<>(subscriber, source.parallelism(), prefetch, ordered);
+        subscriber.onSubscribe(parent);
+        source.subscribeActual(parent.rails, ordered);
+    }
+
+    private static final class MergeSubscription<T> extends FlowSubscription {
+
+        /**
+         * 队列中代表null数据的占位对象
+         */
+        private static final Object NULL = new Object();
+
+        private final Subscriber<T> actual;
+        private final RailSubscriber[] rails;
+        private final boolean ordered;
+
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        /**
+         * 以下变量只在排空循环中访问
+         */
+        private long emitted;
+        private int index;
+        private long sequence;
+
+        MergeSubscription(Subscriber<T> subscriber, int n, int prefetch, boolean ordered) {
+            actual = subscriber;
+            this.ordered = ordered;
+            rails = new RailSubscriber[n];
+            for (int i = 0; i < n; i++) {
+                rails[i] = new RailSubscriber(this, prefetch);
+            }
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            cancelAll();
+            drain();
+        }
+
+        private void cancelAll() {
+            for (RailSubscriber rail : rails) {
+                rail.cancel();
+            }
+        }
+
+        private void onError(Throwable throwable) {
+            if (error.compareAndSet(null, throwable)) {
+                cancelAll();
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            if (ordered) {
+                drainOrdered();
+            } else {
+                drainUnordered();
+            }
+        }
+
+        /**
+         * 检查取消和错误
+         *
+         * @return 已经结束时返回true
+         */
+        private boolean checkTerminated() {
+            if (cancelled) {
+                clearAll();
+                return true;
+            }
+            Throwable ex = error.get();
+            if (ex != null) {
+                clearAll();
+                actual.onError(ex);
+                return true;
+            }
+            return false;
+        }
+
+        private void clearAll() {
+            for (RailSubscriber rail : rails) {
+                rail.queue.clear();
+                rail.head = null;
+            }
+        }
+
+        /**
+         * 所有轨道已经完成并且没有剩余数据
+         */
+        private boolean isFinished() {
+            for (RailSubscriber rail : rails) {
+                boolean d = rail.done;
+                if (!d || (ordered ? rail.peek() != null : !rail.queue.isEmpty())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drainUnordered() {
+            int missed = 1;
+            RailSubscriber[] rails = this.rails;
+            int n = rails.length;
+            long e = emitted;
+            int idx = index;
+            for (; ; ) {
+                long r = requested.get();
+                int notReady = 0;
+                while (e != r) {
+                    if (checkTerminated()) {
+                        return;
+                    }
+                    RailSubscriber rail = rails[idx];
+                    Object v = rail.queue.poll();
+                    if (++idx == n) {
+                        idx = 0;
+                    }
+                    if (v == null) {
+                        if (++notReady == n) {
+                            break;
+                        }
+                        continue;
+                    }
+                    notReady = 0;
+                    try {
+                        actual.onNext(v == NULL ? null : (T) v);
+                    } catch (Exception ex) {
+                        cancel();
+                        actual.onError(ex);
+                        return;
+                    }
+                    e++;
+                    rail.requestOne();
+                }
+
+                if (checkTerminated()) {
+                    return;
+                }
+                if (isFinished()) {
+                    actual.onComplete();
+                    return;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    index = idx;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drainOrdered() {
+            int missed = 1;
+            RailSubscriber[] rails = this.rails;
+            long e = emitted;
+            long seq = sequence;
+            for (; ; ) {
+                long r = requested.get();
+                for (; ; ) {
+                    if (checkTerminated()) {
+                        return;
+                    }
+                    //各条轨道的序号递增，下一个序号只可能在某条轨道的队首
+                    RailSubscriber rail = null;
+                    for (RailSubscriber candidate : rails) {
+                        Indexed head = candidate.peek();
+                        if (head != null && head.index == seq) {
+                            rail = candidate;
+                            break;
+                        }
+                    }
+                    if (rail == null) {
+                        break;
+                    }
+                    Indexed head = rail.head;
+                    //抛弃的数据不占用请求量
+                    if (!head.dropped) {
+                        if (e == r) {
+                            break;
+                        }
+                        try {
+                            actual.onNext((T) head.value);
+                        } catch (Exception ex) {
+                            cancel();
+                            actual.onError(ex);
+                            return;
+                        }
+                        e++;
+                    }
+                    rail.head = null;
+                    rail.requestOne();
+                    seq++;
+                }
+
+                if (checkTerminated()) {
+                    return;
+                }
+                if (isFinished()) {
+                    actual.onComplete();
+                    return;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    sequence = seq;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+    }
+
+    private static final class RailSubscriber implements Subscriber<Object> {
+
+        private final MergeSubscription<?> parent;
+        private final int prefetch;
+        private final int limit;
+        private final SimpleQueue<Object> queue;
+        private Subscription upstream;
+        private volatile boolean done;
+
+        /**
+         * 以下变量只在排空循环中访问
+         */
+        private int consumed;
+        private Indexed head;
+
+        RailSubscriber(MergeSubscription<?> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            limit = prefetch - (prefetch >> 2);
+            queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            if (parent.isCancelled()) {
+                s.cancel();
+                return;
+            }
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(Object o) {
+            if (!queue.offer(o == null ? MergeSubscription.NULL : o)) {
+                upstream.cancel();
+                parent.onError(new IllegalStateException("sequential queue is full, upstream ignored request count!"));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            parent.onError(throwable);
+        }
+
+        /**
+         * 保持顺序时查看队首数据
+         */
+        Indexed peek() {
+            if (head == null) {
+                head = (Indexed) queue.poll();
+            }
+            return head;
+        }
+
+        void requestOne() {
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.request(limit);
+            }
+        }
+
+        void cancel() {
+            Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+}
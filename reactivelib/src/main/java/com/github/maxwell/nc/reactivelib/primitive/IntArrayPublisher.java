@@ -0,0 +1,88 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * int数组类型的生产者<br>
+ * 可以通过{@link IntPublisher#fromArray(int...)}创建
+ */
+public class IntArrayPublisher extends IntPublisher {
+
+    private final int[] array;
+
+    public IntArrayPublisher(int[] array) {
+        this.array = array;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber subscriber) {
+        subscriber.onSubscribe(new ArraySubscription(subscriber, array));
+    }
+
+    private static final class ArraySubscription extends FlowSubscription {
+
+        private final IntSubscriber actual;
+        private final int[] array;
+        private int index = 0;
+
+        /**
+         * 尚未发送的请求量
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        private ArraySubscription(IntSubscriber subscriber, int[] array) {
+            this.actual = subscriber;
+            this.array = array;
+        }
+
+        @Override
+        public void request(long count) {
+            if (!RequestHelper.validate(count)) {
+                return;
+            }
+            //已经在发送数据时只累加请求量，由正在发送的循环继续发送
+            if (RequestHelper.add(requested, count) == 0) {
+                emit(count);
+            }
+        }
+
+        private void emit(long count) {
+            long emitted = 0;
+            int[] array = this.array;
+            try {
+                for (; ; ) {
+                    while (emitted != count && index != array.length) {
+                        if (cancelled) {
+                            return;
+                        }
+                        actual.onNext(array[index++]);
+                        emitted++;
+                    }
+                    if (index == array.length) {
+                        break;
+                    }
+                    count = requested.get();
+                    if (count == emitted) {
+                        count = RequestHelper.produced(requested, emitted);
+                        if (count == 0) {
+                            return;
+                        }
+                        emitted = 0;
+                    }
+                }
+            } catch (Exception e) {
+                cancel();
+                actual.onError(e);
+                return;
+            }
+
+            if (!cancelled) {
+                actual.onComplete();
+            }
+        }
+
+    }
+}
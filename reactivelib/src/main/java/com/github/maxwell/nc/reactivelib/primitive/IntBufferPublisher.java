@@ -0,0 +1,105 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.Arrays;
+
+/**
+ * 缓存int数据的生产者<br>
+ * 每{@link #bufferSize}个数据合并为一个int数组发送，完成时不足{@link #bufferSize}的数据截取为较短的数组发送<br>
+ * 下游请求n个数组时，会向上游请求n*{@link #bufferSize}个数据<br>
+ * 此生产者可以通过{@link IntPublisher#buffer(int)}转换
+ */
+public class IntBufferPublisher extends Publisher<int[]> {
+
+    private final IntPublisher source;
+    private final int bufferSize;
+
+    public IntBufferPublisher(IntPublisher source, int size) {
+        this.source = source;
+        bufferSize = size;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<int[]> subscriber) {
+        source.subscribe(new BufferSubscriber(subscriber, bufferSize));
+    }
+
+    private static final class BufferSubscriber extends FlowSubscription implements IntSubscriber {
+
+        private final Subscriber<int[]> actual;
+        private final int bufferSize;
+        private Subscription upstream;
+
+        private int[] buffer;
+        private int size;
+
+        BufferSubscriber(Subscriber<int[]> subscriber, int size) {
+            actual = subscriber;
+            bufferSize = size;
+            buffer = new int[bufferSize];
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            //这里订阅的Subscription是此类，用于换算请求量
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(int t) {
+            try {
+                if (cancelled) {
+                    return;
+                }
+                int[] b = buffer;
+                b[size++] = t;
+                if (size == bufferSize) {
+                    //用新的缓存
+                    buffer = new int[bufferSize];
+                    size = 0;
+                    actual.onNext(b);
+                }
+            } catch (Exception e) {
+                cancel();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (cancelled) {
+                return;
+            }
+            if (size > 0) {
+                actual.onNext(Arrays.copyOf(buffer, size));
+            }
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                upstream.request(RequestHelper.multiplyCap(count, bufferSize));
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.callback.IntFunction;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * 变换int数据的生产者<br>
+ * 通过指定{@link #function}来设置变换数据的回调<br>
+ * 可以通过{@link IntPublisher#map(IntFunction)}来转换
+ */
+public class IntMapPublisher extends IntPublisher {
+
+    private final IntPublisher source;
+    private final IntFunction function;
+
+    public IntMapPublisher(IntPublisher source, IntFunction function) {
+        this.source = source;
+        this.function = function;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber subscriber) {
+        source.subscribe(new MapSubscriber(subscriber, function));
+    }
+
+    private static final class MapSubscriber extends FlowSubscription implements IntSubscriber {
+        private final IntSubscriber actual;
+        private final IntFunction function;
+        private Subscription upstream;
+
+        MapSubscriber(IntSubscriber subscriber, IntFunction function) {
+            this.actual = subscriber;
+            this.function = function;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(int t) {
+            try {
+                if (cancelled) {
+                    return;
+                }
+                actual.onNext(function.apply(t));
+            } catch (Exception e) {
+                cancel();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (cancelled) {
+                return;
+            }
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
+    }
+
+}
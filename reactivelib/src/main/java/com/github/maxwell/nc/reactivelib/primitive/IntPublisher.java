@@ -0,0 +1,171 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.callback.Action;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.callback.IntConsumer;
+import com.github.maxwell.nc.reactivelib.callback.IntFunction;
+import com.github.maxwell.nc.reactivelib.callback.IntPredicate;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+/**
+ * int类型的生产者<br>
+ * 数据全程以int类型传递，不会为每个数据装箱成{@link Integer}<br>
+ * 需要使用{@link Publisher}的其他操作符时可以通过{@link #boxed()}转换
+ */
+public abstract class IntPublisher {
+
+    /**
+     * 创建：递增序列的生产者
+     *
+     * @param start 起始值
+     * @param count 数量（不能小于0）
+     * @see IntRangePublisher
+     */
+    public static IntPublisher range(int start, int count) {
+        if (count < 0 || (count > 0 && start > Integer.MAX_VALUE - count + 1)) {
+            throw new IndexOutOfBoundsException("range is out of bounds!");
+        }
+        return new IntRangePublisher(start, count);
+    }
+
+    /**
+     * 创建：int数组的生产者
+     *
+     * @param array 数据
+     * @see IntArrayPublisher
+     */
+    public static IntPublisher fromArray(int... array) {
+        if (array == null) {
+            throw new NullPointerException("array is null!");
+        }
+        return new IntArrayPublisher(array);
+    }
+
+    /**
+     * 转换：变换数据的生产者
+     *
+     * @param function 非空，转换操作回调
+     * @see IntMapPublisher
+     */
+    public IntPublisher map(IntFunction function) {
+        if (function == null) {
+            throw new NullPointerException("map function is null!");
+        }
+        return new IntMapPublisher(this, function);
+    }
+
+    /**
+     * 转换：筛选数据的生产者
+     *
+     * @param predicate 筛选逻辑
+     * @see IntSelectPublisher
+     */
+    public IntPublisher select(IntPredicate predicate) {
+        if (predicate == null) {
+            return this;
+        }
+        return new IntSelectPublisher(this, predicate);
+    }
+
+    /**
+     * 转换：缓存数据的生产者，缓存一定数量的数据然后合并为int数组发送
+     *
+     * @param bufferSize 缓存数量（必须大于0）
+     * @see IntBufferPublisher
+     */
+    public Publisher<int[]> buffer(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IndexOutOfBoundsException("bufferSize is out of bounds!");
+        }
+        return new IntBufferPublisher(this, bufferSize);
+    }
+
+    /**
+     * 合并：求和的生产者，没有数据时发送0
+     *
+     * @see IntReducePublisher
+     */
+    public IntPublisher sum() {
+        return new IntReducePublisher(this, IntReducePublisher.SUM);
+    }
+
+    /**
+     * 合并：求最小值的生产者，没有数据时直接完成
+     *
+     * @see IntReducePublisher
+     */
+    public IntPublisher min() {
+        return new IntReducePublisher(this, IntReducePublisher.MIN);
+    }
+
+    /**
+     * 合并：求最大值的生产者，没有数据时直接完成
+     *
+     * @see IntReducePublisher
+     */
+    public IntPublisher max() {
+        return new IntReducePublisher(this, IntReducePublisher.MAX);
+    }
+
+    /**
+     * 转换：装箱为{@link Publisher}，每个数据都会装箱
+     *
+     * @see IntBoxedPublisher
+     */
+    public Publisher<Integer> boxed() {
+        return new IntBoxedPublisher(this);
+    }
+
+    /**
+     * 订阅生产者
+     *
+     * @param onNext 下一个数据操作回调
+     * @return 用于取消订阅
+     */
+    public final Disposable subscribe(IntConsumer onNext) {
+        return subscribe(onNext, null, null);
+    }
+
+    /**
+     * 订阅生产者
+     *
+     * @param onNext  下一个数据操作回调
+     * @param onError 错误操作回调
+     * @return 用于取消订阅
+     */
+    public final Disposable subscribe(IntConsumer onNext, Consumer<? super Throwable> onError) {
+        return subscribe(onNext, onError, null);
+    }
+
+    /**
+     * 订阅生产者
+     *
+     * @param onNext     下一个数据操作回调
+     * @param onError    错误操作回调
+     * @param onComplete 完成操作回调
+     * @return 用于取消订阅
+     */
+    public final Disposable subscribe(IntConsumer onNext, Consumer<? super Throwable> onError, Action onComplete) {
+        LambdaIntSubscriber subscriber = new LambdaIntSubscriber(onNext, onComplete, onError);
+        subscribe(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * 订阅生产者
+     *
+     * @param subscriber 订阅者
+     */
+    public final void subscribe(IntSubscriber subscriber) {
+        subscribeActual(subscriber);
+    }
+
+    /**
+     * 实际订阅操作方法
+     *
+     * @param subscriber 订阅者
+     */
+    protected abstract void subscribeActual(IntSubscriber subscriber);
+
+}
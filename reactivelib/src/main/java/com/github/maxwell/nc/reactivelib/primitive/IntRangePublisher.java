@@ -0,0 +1,95 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 递增序列的int生产者<br>
+ * 从{@link #start}开始发送{@link #count}个递增的数据<br>
+ * 可以通过{@link IntPublisher#range(int, int)}创建
+ */
+public class IntRangePublisher extends IntPublisher {
+
+    private final int start;
+    private final int count;
+
+    public IntRangePublisher(int start, int count) {
+        this.start = start;
+        this.count = count;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber subscriber) {
+        subscriber.onSubscribe(new RangeSubscription(subscriber, start, start + count));
+    }
+
+    private static final class RangeSubscription extends FlowSubscription {
+
+        private final IntSubscriber actual;
+
+        /**
+         * 结束值（不包含）
+         */
+        private final int end;
+        private int index;
+
+        /**
+         * 尚未发送的请求量
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        private RangeSubscription(IntSubscriber subscriber, int start, int end) {
+            this.actual = subscriber;
+            this.end = end;
+            index = start;
+        }
+
+        @Override
+        public void request(long count) {
+            if (!RequestHelper.validate(count)) {
+                return;
+            }
+            //已经在发送数据时只累加请求量，由正在发送的循环继续发送
+            if (RequestHelper.add(requested, count) == 0) {
+                emit(count);
+            }
+        }
+
+        private void emit(long count) {
+            long emitted = 0;
+            try {
+                for (; ; ) {
+                    while (emitted != count && index != end) {
+                        if (cancelled) {
+                            return;
+                        }
+                        actual.onNext(index++);
+                        emitted++;
+                    }
+                    if (index == end) {
+                        break;
+                    }
+                    count = requested.get();
+                    if (count == emitted) {
+                        count = RequestHelper.produced(requested, emitted);
+                        if (count == 0) {
+                            return;
+                        }
+                        emitted = 0;
+                    }
+                }
+            } catch (Exception e) {
+                cancel();
+                actual.onError(e);
+                return;
+            }
+
+            if (!cancelled) {
+                actual.onComplete();
+            }
+        }
+
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 合并int数据的生产者<br>
+ * 请求上游所有数据，完成时发送求和、最小值或最大值的结果，不会装箱<br>
+ * 求和没有数据时发送0，最小值和最大值没有数据时直接完成<br>
+ * 可以通过以下方法转换：<br>
+ * {@link IntPublisher#sum()}<br>
+ * {@link IntPublisher#min()}<br>
+ * {@link IntPublisher#max()}<br>
+ */
+public class IntReducePublisher extends IntPublisher {
+
+    static final int SUM = 0;
+    static final int MIN = 1;
+    static final int MAX = 2;
+
+    private final IntPublisher source;
+    private final int mode;
+
+    IntReducePublisher(IntPublisher source, int mode) {
+        this.source = source;
+        this.mode = mode;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber subscriber) {
+        source.subscribe(new ReduceSubscriber(subscriber, mode));
+    }
+
+    private static final class ReduceSubscriber extends FlowSubscription implements IntSubscriber {
+
+        /**
+         * 下游已经请求
+         */
+        private static final int REQUESTED = 1;
+
+        /**
+         * 上游已经完成
+         */
+        private static final int DONE = 2;
+
+        private final IntSubscriber actual;
+        private final int mode;
+        private final AtomicInteger state = new AtomicInteger();
+        private Subscription upstream;
+
+        private int value;
+        private boolean hasValue;
+
+        ReduceSubscriber(IntSubscriber subscriber, int mode) {
+            actual = subscriber;
+            this.mode = mode;
+            hasValue = mode == SUM;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(int t) {
+            if (!hasValue) {
+                value = t;
+                hasValue = true;
+            } else if (mode == SUM) {
+                value += t;
+            } else if (mode == MIN) {
+                value = Math.min(value, t);
+            } else {
+                value = Math.max(value, t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (cancelled) {
+                return;
+            }
+            if (!hasValue) {
+                actual.onComplete();
+                return;
+            }
+            //下游已经请求时直接发送结果，否则等待请求
+            if (mark(DONE, REQUESTED)) {
+                emit();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count) && mark(REQUESTED, DONE)) {
+                emit();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
+
+        /**
+         * 标记状态
+         *
+         * @return 第一次标记并且另一个状态已经存在时返回true
+         */
+        private boolean mark(int flag, int other) {
+            for (; ; ) {
+                int s = state.get();
+                if ((s & flag) != 0) {
+                    return false;
+                }
+                if (state.compareAndSet(s, s | flag)) {
+                    return (s & other) != 0;
+                }
+            }
+        }
+
+        private void emit() {
+            if (cancelled) {
+                return;
+            }
+            actual.onNext(value);
+            actual.onComplete();
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.callback.Action;
+import com.github.maxwell.nc.reactivelib.callback.Consumer;
+import com.github.maxwell.nc.reactivelib.callback.LongConsumer;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * long类型的Lambda表达式订阅者<br>
+ */
+public class LambdaLongSubscriber implements LongSubscriber, Disposable {
+
+    private static final Subscription CANCELLED = new Subscription() {
+        @Override
+        public void request(long count) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final LongConsumer onNext;
+    private final Action onComplete;
+    private final Consumer<? super Throwable> onError;
+
+    /**
+     * 上游订阅信息，释放或结束后为{@link #CANCELLED}
+     */
+    private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+
+    public LambdaLongSubscriber(LongConsumer onNext, Action onComplete, Consumer<? super Throwable> onError) {
+        this.onNext = onNext;
+        this.onComplete = onComplete;
+        this.onError = onError;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (!upstream.compareAndSet(null, s)) {
+            //订阅前已经释放
+            s.cancel();
+            return;
+        }
+        //请求所有可用数据
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(long t) {
+        if (onNext != null) {
+            if (upstream.get() == CANCELLED) {
+                return;
+            }
+            try {
+                onNext.accept(t);
+            } catch (Exception e) {
+                dispose();
+                onError(e);
+            }
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (upstream.getAndSet(CANCELLED) == CANCELLED) {
+            return;
+        }
+        if (onComplete != null) {
+            try {
+                onComplete.run();
+            } catch (Exception e) {
+                uncaught(e);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstream.lazySet(CANCELLED);
+        if (onError != null) {
+            try {
+                onError.accept(throwable);
+            } catch (Exception ex) {
+                uncaught(throwable);
+            }
+        }
+    }
+
+    /**
+     * 释放订阅，取消上游
+     */
+    @Override
+    public void dispose() {
+        Subscription s = upstream.getAndSet(CANCELLED);
+        if (s != null && s != CANCELLED) {
+            s.cancel();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return upstream.get() == CANCELLED;
+    }
+
+    /**
+     * 抛出未处理异常（订阅回调逻辑本身代码的问题）
+     */
+    private static void uncaught(Throwable throwable) {
+        Thread currentThread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = currentThread.getUncaughtExceptionHandler();
+        handler.uncaughtException(currentThread, throwable);
+    }
+}
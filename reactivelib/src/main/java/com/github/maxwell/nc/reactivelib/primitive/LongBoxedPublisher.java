@@ -0,0 +1,54 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * 装箱long数据的生产者<br>
+ * 把{@link LongPublisher}转换为{@link Publisher}，每个数据都会装箱，只应该在需要使用其他操作符时转换<br>
+ * 可以通过{@link LongPublisher#boxed()}转换
+ */
+public class LongBoxedPublisher extends Publisher<Long> {
+
+    private final LongPublisher source;
+
+    public LongBoxedPublisher(LongPublisher source) {
+        this.source = source;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<Long> subscriber) {
+        source.subscribe(new BoxedSubscriber(subscriber));
+    }
+
+    private static final class BoxedSubscriber implements LongSubscriber {
+
+        private final Subscriber<Long> actual;
+
+        BoxedSubscriber(Subscriber<Long> subscriber) {
+            actual = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            actual.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(long t) {
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.callback.LongFunction;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * 变换long数据的生产者<br>
+ * 通过指定{@link #function}来设置变换数据的回调<br>
+ * 可以通过{@link LongPublisher#map(LongFunction)}来转换
+ */
+public class LongMapPublisher extends LongPublisher {
+
+    private final LongPublisher source;
+    private final LongFunction function;
+
+    public LongMapPublisher(LongPublisher source, LongFunction function) {
+        this.source = source;
+        this.function = function;
+    }
+
+    @Override
+    protected void subscribeActual(LongSubscriber subscriber) {
+        source.subscribe(new MapSubscriber(subscriber, function));
+    }
+
+    private static final class MapSubscriber extends FlowSubscription implements LongSubscriber {
+        private final LongSubscriber actual;
+        private final LongFunction function;
+        private Subscription upstream;
+
+        MapSubscriber(LongSubscriber subscriber, LongFunction function) {
+            this.actual = subscriber;
+            this.function = function;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(long t) {
+            try {
+                if (cancelled) {
+                    return;
+                }
+                actual.onNext(function.apply(t));
+            } catch (Exception e) {
+                cancel();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (cancelled) {
+                return;
+            }
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.callback.LongPredicate;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * 筛选long数据的生产者<br>
+ * 通过设定的{@link #predicate}来筛选数据，抛弃元素时会向上游补充请求1个数据<br>
+ * 可以通过{@link LongPublisher#select(LongPredicate)}操作符来转换
+ */
+public class LongSelectPublisher extends LongPublisher {
+
+    private final LongPublisher source;
+    private final LongPredicate predicate;
+
+    public LongSelectPublisher(LongPublisher source, LongPredicate predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+
+    @Override
+    protected void subscribeActual(LongSubscriber subscriber) {
+        source.subscribe(new SelectSubscriber(subscriber, predicate));
+    }
+
+    private static final class SelectSubscriber extends FlowSubscription implements LongSubscriber {
+
+        private final LongSubscriber actual;
+        private final LongPredicate predicate;
+        private Subscription upstream;
+
+        SelectSubscriber(LongSubscriber subscriber, LongPredicate predicate) {
+            actual = subscriber;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(long t) {
+            try {
+                if (cancelled) {
+                    return;
+                }
+                if (predicate.test(t)) {
+                    actual.onNext(t);
+                } else {
+                    upstream.request(1);//补充被抛弃的请求量
+                }
+            } catch (Exception e) {
+                cancel();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (cancelled) {
+                return;
+            }
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
+    }
+
+}
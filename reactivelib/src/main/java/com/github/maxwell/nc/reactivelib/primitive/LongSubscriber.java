@@ -0,0 +1,38 @@
+package com.github.maxwell.nc.reactivelib.primitive;
+
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+/**
+ * long类型的订阅者<br>
+ * 与{@link Subscriber}的回调顺序相同，onNext直接接收long类型数据，不会装箱<br>
+ */
+public interface LongSubscriber {
+
+    /**
+     * 订阅操作回调
+     *
+     * @param s 订阅信息，可以请求订阅数据或者取消订阅数据
+     */
+    void onSubscribe(Subscription s);
+
+    /**
+     * 下一个数据处理回调
+     *
+     * @param t 数据元素
+     */
+    void onNext(long t);
+
+    /**
+     * 完成操作回调
+     */
+    void onComplete();
+
+    /**
+     * 遇到异常处理回调
+     *
+     * @param throwable 异常
+     */
+    void onError(Throwable throwable);
+
+}
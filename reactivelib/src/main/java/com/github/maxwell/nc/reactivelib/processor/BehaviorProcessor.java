@@ -0,0 +1,330 @@
+package com.github.maxwell.nc.reactivelib.processor;
+
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 保存最新数据的处理者<br>
+ * 订阅时先收到最新的一个数据（或者初始数据），之后收到新的数据，结束后订阅的只收到结束事件<br>
+ * 订阅者保存在写时复制的数组中，只在订阅和取消时通过CAS替换；
+ * 订阅者收到第一个数据之前与发送线程通过加锁交接，之后发送数据不再加锁<br>
+ * 订阅者没有请求量时会被取消并收到{@link IllegalStateException}
+ */
+public class BehaviorProcessor<T> extends Processor<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final BehaviorSubscription[] EMPTY = new BehaviorSubscription[0];
+
+    @SuppressWarnings("rawtypes")
+    private static final BehaviorSubscription[] TERMINATED = new BehaviorSubscription[0];
+
+    @SuppressWarnings("unchecked")
+    private final AtomicReference<BehaviorSubscription<T>[]> subscribers = new AtomicReference<BehaviorSubscription<T>[]>(EMPTY);
+
+    /**
+     * 最新的信号，没有数据时为null，结束后为结束信号
+     */
+    private volatile Signal latest;
+
+    /**
+     * 没有初始数据
+     */
+    public BehaviorProcessor() {
+    }
+
+    /**
+     * @param defaultValue 初始数据，没有收到数据时发送给订阅者
+     */
+    public BehaviorProcessor(T defaultValue) {
+        latest = new Signal(Signal.NEXT, defaultValue, null);
+    }
+
+    /**
+     * 返回是否有最新的数据
+     */
+    public boolean hasValue() {
+        Signal s = latest;
+        return s != null && s.kind == Signal.NEXT;
+    }
+
+    /**
+     * 返回最新的数据，没有数据或已经结束时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public T getValue() {
+        Signal s = latest;
+        return s != null && s.kind == Signal.NEXT ? (T) s.value : null;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        BehaviorSubscription<T> bs = new BehaviorSubscription<>(subscriber, this);
+        subscriber.onSubscribe(bs);
+        if (add(bs)) {
+            if (bs.isCancelled()) {
+                remove(bs);
+            } else {
+                bs.emitFirst();
+            }
+            return;
+        }
+        Signal s = latest;
+        if (s.kind == Signal.ERROR) {
+            subscriber.onError(s.error);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return subscribers.get().length != 0;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (subscribers.get() == TERMINATED) {
+            s.cancel();
+            return;
+        }
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (subscribers.get() == TERMINATED) {
+            return;
+        }
+        Signal s = new Signal(Signal.NEXT, t, null);
+        latest = s;
+        for (BehaviorSubscription<T> bs : subscribers.get()) {
+            bs.emitNext(s);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        terminate(new Signal(Signal.COMPLETE, null, null));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        terminate(new Signal(Signal.ERROR, null, throwable));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void terminate(Signal s) {
+        if (subscribers.get() == TERMINATED) {
+            return;
+        }
+        latest = s;
+        for (BehaviorSubscription<T> bs : subscribers.getAndSet(TERMINATED)) {
+            bs.emitNext(s);
+        }
+    }
+
+    private boolean add(BehaviorSubscription<T> bs) {
+        for (; ; ) {
+            BehaviorSubscription<T>[] a = subscribers.get();
+            if (a == TERMINATED) {
+                return false;
+            }
+            int n = a.length;
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            BehaviorSubscription<T>[] b = new BehaviorSubscription[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = bs;
+            if (subscribers.compareAndSet(a, b)) {
+                return true;
+            }
+        }
+    }
+
+    private void remove(BehaviorSubscription<T> bs) {
+        for (; ; ) {
+            BehaviorSubscription<T>[] a = subscribers.get();
+            int n = a.length;
+            int index = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == bs) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            BehaviorSubscription<T>[] b = n == 1 ? EMPTY : new BehaviorSubscription[n - 1];
+            if (n != 1) {
+                System.arraycopy(a, 0, b, 0, index);
+                System.arraycopy(a, index + 1, b, index, n - index - 1);
+            }
+            if (subscribers.compareAndSet(a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 数据或结束信号，每个数据单独创建，用于区分订阅时读取的信号和之后发送的信号
+     */
+    private static final class Signal {
+
+        static final int NEXT = 0;
+        static final int COMPLETE = 1;
+        static final int ERROR = 2;
+
+        final int kind;
+        final Object value;
+        final Throwable error;
+
+        Signal(int kind, Object value, Throwable error) {
+            this.kind = kind;
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+    private static final class BehaviorSubscription<T> extends FlowSubscription {
+
+        private final Subscriber<T> actual;
+        private final BehaviorProcessor<T> parent;
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * 交接完成后发送线程直接发送
+         */
+        private volatile boolean fastPath;
+
+        /**
+         * 以下变量通过this加锁访问
+         */
+        private boolean next;
+        private boolean emitting;
+        private List<Signal> queue;
+        private Signal first;
+
+        /**
+         * 只在发送中的线程访问，通过交接保证可见性
+         */
+        private long emitted;
+
+        BehaviorSubscription(Subscriber<T> subscriber, BehaviorProcessor<T> parent) {
+            actual = subscriber;
+            this.parent = parent;
+        }
+
+        /**
+         * 订阅后发送最新的信号，期间发送线程的信号暂存在队列中
+         */
+        void emitFirst() {
+            Signal s;
+            synchronized (this) {
+                if (cancelled || next) {
+                    return;
+                }
+                next = true;
+                emitting = true;
+                s = parent.latest;
+                first = s;
+            }
+            if (s != null && !deliver(s)) {
+                return;
+            }
+            for (; ; ) {
+                List<Signal> q;
+                synchronized (this) {
+                    q = queue;
+                    if (q == null) {
+                        emitting = false;
+                        return;
+                    }
+                    queue = null;
+                }
+                for (Signal signal : q) {
+                    if (!deliver(signal)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        void emitNext(Signal s) {
+            if (!fastPath) {
+                synchronized (this) {
+                    if (cancelled || s == first) {
+                        return;
+                    }
+                    if (emitting) {
+                        if (queue == null) {
+                            queue = new ArrayList<>(4);
+                        }
+                        queue.add(s);
+                        return;
+                    }
+                    next = true;
+                }
+                fastPath = true;
+            }
+            deliver(s);
+        }
+
+        /**
+         * @return 是否可以继续发送
+         */
+        @SuppressWarnings("unchecked")
+        private boolean deliver(Signal s) {
+            if (cancelled) {
+                return false;
+            }
+            if (s.kind == Signal.COMPLETE) {
+                cancelled = true;
+                actual.onComplete();
+                return false;
+            }
+            if (s.kind == Signal.ERROR) {
+                cancelled = true;
+                actual.onError(s.error);
+                return false;
+            }
+            if (requested.get() == emitted) {
+                cancel();
+                actual.onError(new IllegalStateException("subscriber has no request for item!"));
+                return false;
+            }
+            try {
+                actual.onNext((T) s.value);
+            } catch (Exception e) {
+                cancel();
+                actual.onError(e);
+                return false;
+            }
+            emitted++;
+            return true;
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            parent.remove(this);
+        }
+    }
+
+}
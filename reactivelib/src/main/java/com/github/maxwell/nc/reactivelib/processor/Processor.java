@@ -0,0 +1,36 @@
+package com.github.maxwell.nc.reactivelib.processor;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+
+/**
+ * 处理者，既是订阅者也是生产者<br>
+ * 通过onNext、onComplete、onError直接发送数据给所有订阅者，也可以订阅其他生产者转发数据，
+ * 用于把回调形式的事件源接入数据流<br>
+ * onNext等方法必须串行调用，多个线程同时发送时使用{@link #serialized()}包装<br>
+ * 没有请求量时收到的数据不会缓存，订阅者会收到{@link IllegalStateException}<br>
+ *
+ * @see PublishProcessor
+ * @see BehaviorProcessor
+ * @see ReplayProcessor
+ */
+public abstract class Processor<T> extends Publisher<T> implements Subscriber<T> {
+
+    /**
+     * 返回是否有订阅者
+     */
+    public abstract boolean hasSubscribers();
+
+    /**
+     * 包装为可以在多个线程同时发送的处理者
+     *
+     * @see SerializedProcessor
+     */
+    public Processor<T> serialized() {
+        if (this instanceof SerializedProcessor) {
+            return this;
+        }
+        return new SerializedProcessor<>(this);
+    }
+
+}
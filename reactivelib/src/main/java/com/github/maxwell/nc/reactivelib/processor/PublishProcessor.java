@@ -0,0 +1,201 @@
+package com.github.maxwell.nc.reactivelib.processor;
+
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 多播处理者<br>
+ * 把收到的数据发送给当前所有订阅者，订阅者只收到订阅之后的数据，结束后订阅的只收到结束事件<br>
+ * 订阅者保存在写时复制的数组中，只在订阅和取消时通过CAS替换，发送数据时只读取数组，不加锁也不会重试<br>
+ * 订阅者没有请求量时会被取消并收到{@link IllegalStateException}
+ */
+public class PublishProcessor<T> extends Processor<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final PublishSubscription[] EMPTY = new PublishSubscription[0];
+
+    @SuppressWarnings("rawtypes")
+    private static final PublishSubscription[] TERMINATED = new PublishSubscription[0];
+
+    @SuppressWarnings("unchecked")
+    private final AtomicReference<PublishSubscription<T>[]> subscribers = new AtomicReference<PublishSubscription<T>[]>(EMPTY);
+
+    /**
+     * 在替换为{@link #TERMINATED}之前写入
+     */
+    private Throwable error;
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        PublishSubscription<T> ps = new PublishSubscription<>(subscriber, this);
+        subscriber.onSubscribe(ps);
+        if (add(ps)) {
+            if (ps.isCancelled()) {
+                remove(ps);
+            }
+            return;
+        }
+        Throwable ex = error;
+        if (ex != null) {
+            subscriber.onError(ex);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return subscribers.get().length != 0;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (subscribers.get() == TERMINATED) {
+            s.cancel();
+            return;
+        }
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T t) {
+        for (PublishSubscription<T> ps : subscribers.get()) {
+            ps.onNext(t);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onComplete() {
+        if (subscribers.get() == TERMINATED) {
+            return;
+        }
+        for (PublishSubscription<T> ps : subscribers.getAndSet(TERMINATED)) {
+            ps.onComplete();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onError(Throwable throwable) {
+        if (subscribers.get() == TERMINATED) {
+            return;
+        }
+        error = throwable;
+        for (PublishSubscription<T> ps : subscribers.getAndSet(TERMINATED)) {
+            ps.onError(throwable);
+        }
+    }
+
+    private boolean add(PublishSubscription<T> ps) {
+        for (; ; ) {
+            PublishSubscription<T>[] a = subscribers.get();
+            if (a == TERMINATED) {
+                return false;
+            }
+            int n = a.length;
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            PublishSubscription<T>[] b = new PublishSubscription[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = ps;
+            if (subscribers.compareAndSet(a, b)) {
+                return true;
+            }
+        }
+    }
+
+    private void remove(PublishSubscription<T> ps) {
+        for (; ; ) {
+            PublishSubscription<T>[] a = subscribers.get();
+            int n = a.length;
+            int index = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == ps) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            PublishSubscription<T>[] b = n == 1 ? EMPTY : new PublishSubscription[n - 1];
+            if (n != 1) {
+                System.arraycopy(a, 0, b, 0, index);
+                System.arraycopy(a, index + 1, b, index, n - index - 1);
+            }
+            if (subscribers.compareAndSet(a, b)) {
+                return;
+            }
+        }
+    }
+
+    private static final class PublishSubscription<T> extends FlowSubscription {
+
+        private final Subscriber<T> actual;
+        private final PublishProcessor<T> parent;
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * 只在发送线程访问
+         */
+        private long emitted;
+
+        PublishSubscription(Subscriber<T> subscriber, PublishProcessor<T> parent) {
+            actual = subscriber;
+            this.parent = parent;
+        }
+
+        void onNext(T t) {
+            if (cancelled) {
+                return;
+            }
+            if (requested.get() == emitted) {
+                cancel();
+                actual.onError(new IllegalStateException("subscriber has no request for item!"));
+                return;
+            }
+            try {
+                actual.onNext(t);
+            } catch (Exception e) {
+                cancel();
+                actual.onError(e);
+                return;
+            }
+            emitted++;
+        }
+
+        void onComplete() {
+            if (!cancelled) {
+                actual.onComplete();
+            }
+        }
+
+        void onError(Throwable throwable) {
+            if (!cancelled) {
+                actual.onError(throwable);
+            }
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            parent.remove(this);
+        }
+    }
+
+}
@@ -0,0 +1,335 @@
+package com.github.maxwell.nc.reactivelib.processor;
+
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 重放处理者<br>
+ * 收到的数据保存在有界缓存中，订阅者先收到缓存中的数据再接收新数据，结束后订阅的也会收到缓存的数据和结束事件<br>
+ * 缓存最多保存{@link #maxSize}个数据，或者只保存{@link #maxAge}纳秒内的数据，超出的旧数据被丢弃<br>
+ * 缓存是只由发送线程追加的单向链表，每个订阅者按各自的请求量从自己的位置读取，没有请求量时数据留在缓存中<br>
+ * 订阅者保存在写时复制的数组中，只在订阅和取消时通过CAS替换，发送数据时不加锁
+ */
+public class ReplayProcessor<T> extends Processor<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final ReplaySubscription[] EMPTY = new ReplaySubscription[0];
+
+    @SuppressWarnings("unchecked")
+    private final AtomicReference<ReplaySubscription<T>[]> subscribers = new AtomicReference<ReplaySubscription<T>[]>(EMPTY);
+
+    private final int maxSize;
+    private final long maxAge;
+
+    /**
+     * 最旧的数据的前一个节点，新的订阅者从这里开始读取，只由发送线程移动
+     */
+    private volatile Node head;
+
+    /**
+     * 以下变量只由发送线程访问
+     */
+    private Node tail;
+    private int size;
+
+    private volatile boolean done;
+    private Throwable error;
+
+    /**
+     * 按数量限制缓存
+     *
+     * @param size 缓存的最大数量（必须大于0）
+     */
+    public ReplayProcessor(int size) {
+        this(size, Long.MAX_VALUE);
+        if (size <= 0) {
+            throw new IndexOutOfBoundsException("size is out of bounds!");
+        }
+    }
+
+    /**
+     * 按时间限制缓存
+     *
+     * @param time 数据在缓存中保留的时间（必须大于0）
+     * @param unit 非空，时间单位
+     */
+    public ReplayProcessor(long time, TimeUnit unit) {
+        this(Integer.MAX_VALUE, checkAge(time, unit));
+    }
+
+    private ReplayProcessor(int maxSize, long maxAge) {
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        Node n = new Node(null, 0L);
+        head = n;
+        tail = n;
+    }
+
+    private static long checkAge(long time, TimeUnit unit) {
+        if (time <= 0) {
+            throw new IndexOutOfBoundsException("time is out of bounds!");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit is null!");
+        }
+        return unit.toNanos(time);
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        ReplaySubscription<T> rs = new ReplaySubscription<>(subscriber, this);
+        subscriber.onSubscribe(rs);
+        //结束后也加入，用于重放缓存的数据
+        add(rs);
+        if (rs.isCancelled()) {
+            remove(rs);
+            return;
+        }
+        replay(rs);
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return subscribers.get().length != 0;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (done) {
+            s.cancel();
+            return;
+        }
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (done) {
+            return;
+        }
+        long now = maxAge != Long.MAX_VALUE ? System.nanoTime() : 0L;
+        Node n = new Node(t, now);
+        tail.next = n;
+        tail = n;
+        if (++size > maxSize) {
+            head = head.next;
+            size--;
+        }
+        if (maxAge != Long.MAX_VALUE) {
+            Node h = head;
+            Node next = h.next;
+            while (next != null && now - next.time > maxAge) {
+                h = next;
+                next = h.next;
+                size--;
+            }
+            head = h;
+        }
+        for (ReplaySubscription<T> rs : subscribers.get()) {
+            replay(rs);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        for (ReplaySubscription<T> rs : subscribers.get()) {
+            replay(rs);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+        error = throwable;
+        done = true;
+        for (ReplaySubscription<T> rs : subscribers.get()) {
+            replay(rs);
+        }
+    }
+
+    private void add(ReplaySubscription<T> rs) {
+        for (; ; ) {
+            ReplaySubscription<T>[] a = subscribers.get();
+            int n = a.length;
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            ReplaySubscription<T>[] b = new ReplaySubscription[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = rs;
+            if (subscribers.compareAndSet(a, b)) {
+                return;
+            }
+        }
+    }
+
+    private void remove(ReplaySubscription<T> rs) {
+        for (; ; ) {
+            ReplaySubscription<T>[] a = subscribers.get();
+            int n = a.length;
+            int index = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == rs) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            ReplaySubscription<T>[] b = n == 1 ? EMPTY : new ReplaySubscription[n - 1];
+            if (n != 1) {
+                System.arraycopy(a, 0, b, 0, index);
+                System.arraycopy(a, index + 1, b, index, n - index - 1);
+            }
+            if (subscribers.compareAndSet(a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 新订阅者的起始位置，按时间限制时跳过已经过期的数据
+     */
+    private Node startNode() {
+        Node h = head;
+        if (maxAge != Long.MAX_VALUE) {
+            long now = System.nanoTime();
+            Node next = h.next;
+            while (next != null && now - next.time > maxAge) {
+                h = next;
+                next = h.next;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * 按订阅者的请求量从它的位置继续发送缓存的数据
+     */
+    @SuppressWarnings("unchecked")
+    private void replay(ReplaySubscription<T> rs) {
+        if (rs.wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        Subscriber<T> actual = rs.actual;
+        for (; ; ) {
+            Node node = rs.index;
+            if (node == null) {
+                node = startNode();
+            }
+            long r = rs.requested.get();
+            long e = rs.emitted;
+            while (e != r) {
+                if (rs.isCancelled()) {
+                    rs.index = null;
+                    return;
+                }
+                Node next = node.next;
+                if (next == null) {
+                    break;
+                }
+                try {
+                    actual.onNext((T) next.value);
+                } catch (Exception ex) {
+                    rs.cancel();
+                    actual.onError(ex);
+                    return;
+                }
+                e++;
+                node = next;
+            }
+            if (rs.isCancelled()) {
+                rs.index = null;
+                return;
+            }
+            if (done && node.next == null) {
+                rs.index = null;
+                remove(rs);
+                Throwable ex = error;
+                if (ex != null) {
+                    actual.onError(ex);
+                } else {
+                    actual.onComplete();
+                }
+                return;
+            }
+            rs.index = node;
+            rs.emitted = e;
+
+            int w = rs.wip.get();
+            if (missed == w) {
+                missed = rs.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            } else {
+                missed = w;
+            }
+        }
+    }
+
+    /**
+     * 缓存节点，value为节点的数据，time为加入缓存的时间
+     */
+    private static final class Node {
+
+        final Object value;
+        final long time;
+        volatile Node next;
+
+        Node(Object value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+
+    private static final class ReplaySubscription<T> extends FlowSubscription {
+
+        private final Subscriber<T> actual;
+        private final ReplayProcessor<T> parent;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        /**
+         * 已经发送的最后一个节点，只在重放循环中访问
+         */
+        Node index;
+        long emitted;
+
+        ReplaySubscription(Subscriber<T> subscriber, ReplayProcessor<T> parent) {
+            actual = subscriber;
+            this.parent = parent;
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                parent.replay(this);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            parent.remove(this);
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.github.maxwell.nc.reactivelib.processor;
+
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 串行发送的处理者<br>
+ * 多个线程同时调用onNext等方法时，没有竞争的线程直接发送，其他线程把信号放入无锁队列后返回，
+ * 由正在发送的线程按顺序发送，发送过程中不加锁<br>
+ * 可以通过{@link Processor#serialized()}转换
+ */
+final class SerializedProcessor<T> extends Processor<T> {
+
+    /**
+     * 代表null数据的占位对象
+     */
+    private static final Object NULL = new Object();
+
+    /**
+     * 代表onComplete的占位对象
+     */
+    private static final Object COMPLETE = new Object();
+
+    private final Processor<T> actual;
+
+    private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /**
+     * 收到结束事件后不再接收信号
+     */
+    private volatile boolean done;
+
+    SerializedProcessor(Processor<T> actual) {
+        this.actual = actual;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        actual.subscribe(subscriber);
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return actual.hasSubscribers();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (done) {
+            s.cancel();
+            return;
+        }
+        actual.onSubscribe(s);
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (done) {
+            return;
+        }
+        emit(t == null ? NULL : t);
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        emit(COMPLETE);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+        done = true;
+        emit(new ErrorSignal(throwable));
+    }
+
+    private void emit(Object signal) {
+        if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+            //没有竞争时直接发送
+            dispatch(signal);
+            if (wip.decrementAndGet() == 0) {
+                return;
+            }
+        } else {
+            queue.offer(signal);
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+        }
+        drainLoop();
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        for (; ; ) {
+            Object signal;
+            while ((signal = queue.poll()) != null) {
+                dispatch(signal);
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(Object signal) {
+        if (signal == COMPLETE) {
+            actual.onComplete();
+        } else if (signal instanceof ErrorSignal) {
+            actual.onError(((ErrorSignal) signal).error);
+        } else {
+            actual.onNext(signal == NULL ? null : (T) signal);
+        }
+    }
+
+    private static final class ErrorSignal {
+
+        final Throwable error;
+
+        ErrorSignal(Throwable error) {
+            this.error = error;
+        }
+    }
+
+}
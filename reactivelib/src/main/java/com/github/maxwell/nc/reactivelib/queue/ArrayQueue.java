@@ -0,0 +1,62 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 基于数组的有界队列<br>
+ * 容量向上取2的幂，通过下标与掩码计算元素位置，存入元素时不会分配节点对象<br>
+ */
+abstract class ArrayQueue<E> extends QueuePad2 implements SimpleQueue<E> {
+
+    final AtomicReferenceArray<E> buffer;
+    final int mask;
+
+    ArrayQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IndexOutOfBoundsException("capacity is out of bounds!");
+        }
+        int size = roundToPowerOfTwo(capacity);
+        buffer = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * 向上取2的幂
+     */
+    static int roundToPowerOfTwo(int value) {
+        return 1 << (32 - Integer.numberOfLeadingZeros(value - 1));
+    }
+
+    final int offset(long index) {
+        return (int) index & mask;
+    }
+
+    /**
+     * 返回队列容量
+     */
+    public final int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * 返回队列中的元素数量，其他线程同时存取时为近似值
+     */
+    public final int size() {
+        //先读取消费者下标，保证结果不为负数
+        long consumer = lvConsumerIndex();
+        return (int) (lvProducerIndex() - consumer);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return lvProducerIndex() == lvConsumerIndex();
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            //丢弃剩余元素
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 数组队列的消费者下标<br>
+ * 前后分别由{@link QueuePad1}和{@link QueuePad2}填充缓存行，避免和生产者下标产生伪共享
+ */
+abstract class ConsumerIndex extends QueuePad1 {
+
+    private static final AtomicLongFieldUpdater<ConsumerIndex> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(ConsumerIndex.class, "consumerIndex");
+
+    private volatile long consumerIndex;
+
+    final long lvConsumerIndex() {
+        return consumerIndex;
+    }
+
+    final void soConsumerIndex(long index) {
+        CONSUMER_INDEX.lazySet(this, index);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+/**
+ * 多生产者单消费者的有界数组队列<br>
+ * 允许多个线程同时调用{@link #offer(Object)}，生产者通过CAS竞争下标，只允许一个线程调用{@link #poll()}<br>
+ */
+public final class MpscArrayQueue<E> extends ArrayQueue<E> {
+
+    public MpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("offer null element!");
+        }
+        final int capacity = mask + 1;
+        long index;
+        do {
+            index = lvProducerIndex();
+            if (index - lvConsumerIndex() >= capacity) {
+                return false;
+            }
+        } while (!casProducerIndex(index, index + 1));
+        buffer.lazySet(offset(index), e);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long index = lvConsumerIndex();
+        int offset = offset(index);
+        E e = buffer.get(offset);
+        if (e == null) {
+            if (index == lvProducerIndex()) {
+                return null;
+            }
+            //生产者已经占用下标但尚未写入元素，等待写入完成
+            do {
+                e = buffer.get(offset);
+            } while (e == null);
+        }
+        buffer.lazySet(offset, null);
+        soConsumerIndex(index + 1);
+        return e;
+    }
+
+}
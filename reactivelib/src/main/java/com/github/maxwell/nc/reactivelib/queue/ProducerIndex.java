@@ -0,0 +1,28 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 数组队列的生产者下标<br>
+ * 前后分别由{@link QueuePad0}和{@link QueuePad1}填充缓存行，避免和消费者下标产生伪共享
+ */
+abstract class ProducerIndex extends QueuePad0 {
+
+    private static final AtomicLongFieldUpdater<ProducerIndex> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(ProducerIndex.class, "producerIndex");
+
+    private volatile long producerIndex;
+
+    final long lvProducerIndex() {
+        return producerIndex;
+    }
+
+    final void soProducerIndex(long index) {
+        PRODUCER_INDEX.lazySet(this, index);
+    }
+
+    final boolean casProducerIndex(long expect, long index) {
+        return PRODUCER_INDEX.compareAndSet(this, expect, index);
+    }
+
+}
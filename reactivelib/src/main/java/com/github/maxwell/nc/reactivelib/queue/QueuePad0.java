@@ -0,0 +1,13 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+/**
+ * 数组队列的填充：位于对象头和生产者下标之间<br>
+ * JVM只在同一个类内部重排字段，父类字段总是排在子类字段之前，
+ * 所以填充字段放在单独的类中，通过继承关系保证下标前后各有一段填充
+ */
+abstract class QueuePad0 {
+
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p0a, p0b, p0c, p0d, p0e;
+
+}
@@ -0,0 +1,11 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+/**
+ * 数组队列的填充：位于生产者下标和消费者下标之间，见{@link QueuePad0}
+ */
+abstract class QueuePad1 extends ProducerIndex {
+
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+    long p18, p19, p1a, p1b, p1c, p1d, p1e;
+
+}
@@ -0,0 +1,11 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+/**
+ * 数组队列的填充：位于消费者下标和队列数组字段之间，见{@link QueuePad0}
+ */
+abstract class QueuePad2 extends ConsumerIndex {
+
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+    long p28, p29, p2a, p2b, p2c, p2d, p2e;
+
+}
@@ -0,0 +1,36 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+/**
+ * 简单队列接口<br>
+ * 供操作符内部使用，不允许存入null，{@link #poll()}返回null表示队列为空<br>
+ *
+ * @param <E> 元素类型
+ */
+public interface SimpleQueue<E> {
+
+    /**
+     * 存入元素
+     *
+     * @param e 非空元素
+     * @return 队列已满时返回false
+     */
+    boolean offer(E e);
+
+    /**
+     * 取出元素
+     *
+     * @return 队列为空时返回null
+     */
+    E poll();
+
+    /**
+     * 返回队列是否为空
+     */
+    boolean isEmpty();
+
+    /**
+     * 清空队列，只能在消费者线程调用
+     */
+    void clear();
+
+}
@@ -0,0 +1,42 @@
+package com.github.maxwell.nc.reactivelib.queue;
+
+/**
+ * 单生产者单消费者的有界数组队列<br>
+ * 只允许一个线程调用{@link #offer(Object)}，一个线程调用{@link #poll()}<br>
+ * 生产者只检查目标位置是否为空来判断队列已满，不需要读取消费者下标<br>
+ */
+public final class SpscArrayQueue<E> extends ArrayQueue<E> {
+
+    public SpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("offer null element!");
+        }
+        long index = lvProducerIndex();
+        int offset = offset(index);
+        if (buffer.get(offset) != null) {
+            return false;
+        }
+        buffer.lazySet(offset, e);
+        soProducerIndex(index + 1);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long index = lvConsumerIndex();
+        int offset = offset(index);
+        E e = buffer.get(offset);
+        if (e == null) {
+            return null;
+        }
+        buffer.lazySet(offset, null);
+        soConsumerIndex(index + 1);
+        return e;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调度器基类<br>
+ * 子类只需要实现{@link #schedule(Runnable)}：延时通过{@link SharedTimer}计时，到期后再调度；
+ * 工作者在本调度器上串行执行任务；周期调度通过一个新的工作者执行<br>
+ * 子类可以覆盖延时调度，使用自身的定时能力；持有线程的子类需要覆盖{@link #start()}和{@link #shutdown()}
+ */
+public abstract class BaseScheduler implements Scheduler {
+
+    @Override
+    public Disposable schedule(Runnable runnable, long delay, TimeUnit unit) {
+        final ScheduledTask task = new ScheduledTask(runnable, null);
+        if (delay <= 0) {
+            schedule(task);
+            return task;
+        }
+        task.setTimer(SharedTimer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                BaseScheduler.this.schedule(task);
+            }
+        }, delay, unit));
+        return task;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable runnable, long initialDelay, long period, TimeUnit unit) {
+        Worker worker = createWorker();
+        worker.schedulePeriodically(runnable, initialDelay, period, unit);
+        return worker;
+    }
+
+    @Override
+    public long now(TimeUnit unit) {
+        return unit.convert(System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new SerialWorker(this, null);
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * IO调度器<br>
+ * 适合执行阻塞的IO操作，线程在空闲{@link #keepAliveNanos}后结束，期间可以被重复使用，不需要每次创建新线程<br>
+ * {@link #schedule(Runnable)}在可伸缩的线程池中执行，线程数量随并发任务数增长<br>
+ * 每个工作者从缓存中取出一个单线程执行器，工作者释放后放回缓存，下一个工作者继续使用同一个线程；
+ * 缓存中超过空闲时间的执行器在工作者释放时清理<br>
+ * 默认使用守护线程，{@link #shutdown()}时关闭缓存中的线程，正在使用的工作者在释放时关闭，
+ * 之后可以通过{@link #start()}重新创建线程池
+ */
+public class IoScheduler extends BaseScheduler {
+
+    /**
+     * 默认的线程空闲时间（秒）
+     */
+    static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final long keepAliveNanos;
+    private final ThreadFactory threadFactory;
+
+    /**
+     * 直接调度时使用的线程池
+     */
+    private final AtomicReference<ThreadPoolExecutor> executor;
+
+    private volatile boolean shutdown;
+
+    /**
+     * 空闲的执行器，按放回的先后排列
+     */
+    private final ConcurrentLinkedQueue<CachedExecutor> cache = new ConcurrentLinkedQueue<>();
+
+    public IoScheduler() {
+        this(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param keepAlive 线程的空闲时间，超过后线程结束
+     * @param unit      时间单位
+     */
+    public IoScheduler(long keepAlive, TimeUnit unit) {
+        this(keepAlive, unit, new NamedThreadFactory("ReactiveLite-IO"));
+    }
+
+    /**
+     * @param keepAlive     线程的空闲时间，超过后线程结束
+     * @param unit          时间单位
+     * @param threadFactory 创建线程的工厂
+     */
+    public IoScheduler(long keepAlive, TimeUnit unit, ThreadFactory threadFactory) {
+        if (keepAlive <= 0) {
+            throw new IndexOutOfBoundsException("keepAlive is out of bounds!");
+        }
+        if (threadFactory == null) {
+            throw new NullPointerException("threadFactory is null!");
+        }
+        keepAliveNanos = unit.toNanos(keepAlive);
+        this.threadFactory = threadFactory;
+        executor = new AtomicReference<>(create());
+    }
+
+    private ThreadPoolExecutor create() {
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, keepAliveNanos, TimeUnit.NANOSECONDS,
+                new SynchronousQueue<Runnable>(), threadFactory);
+    }
+
+    @Override
+    public void schedule(Runnable runnable) {
+        executor.get().execute(runnable);
+    }
+
+    @Override
+    public void start() {
+        ThreadPoolExecutor current = executor.get();
+        if (!current.isShutdown()) {
+            return;
+        }
+        ThreadPoolExecutor created = create();
+        if (executor.compareAndSet(current, created)) {
+            shutdown = false;
+        } else {
+            created.shutdown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        executor.get().shutdownNow();
+        CachedExecutor cached;
+        while ((cached = cache.poll()) != null) {
+            cached.executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public Worker createWorker() {
+        CachedExecutor cached = cache.poll();
+        if (cached == null || cached.executor.isShutdown()) {
+            cached = new CachedExecutor(keepAliveNanos, threadFactory);
+        }
+        return new IoWorker(cached);
+    }
+
+    /**
+     * 放回缓存，并清理超过空闲时间的执行器
+     */
+    private void release(CachedExecutor cached) {
+        if (shutdown) {
+            cached.executor.shutdownNow();
+            return;
+        }
+        long now = System.nanoTime();
+        cached.expireTime = now + keepAliveNanos;
+        cache.offer(cached);
+
+        CachedExecutor head;
+        while ((head = cache.peek()) != null && head.expireTime - now < 0) {
+            if (cache.remove(head)) {
+                head.executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 单线程执行器，线程空闲超时后结束，再次执行任务时重新创建
+     */
+    private static final class CachedExecutor extends BaseScheduler {
+
+        final ThreadPoolExecutor executor;
+
+        /**
+         * 在缓存中的过期时间
+         */
+        volatile long expireTime;
+
+        CachedExecutor(long keepAliveNanos, ThreadFactory threadFactory) {
+            executor = new ThreadPoolExecutor(1, 1, keepAliveNanos, TimeUnit.NANOSECONDS,
+                    new LinkedBlockingQueue<Runnable>(), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void schedule(Runnable runnable) {
+            executor.execute(runnable);
+        }
+
+    }
+
+    private final class IoWorker extends Worker {
+
+        private final CachedExecutor cached;
+        private final Worker actual;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        IoWorker(CachedExecutor cached) {
+            this.cached = cached;
+            actual = new SerialWorker(cached, null);
+        }
+
+        @Override
+        public Disposable schedule(Runnable runnable) {
+            return actual.schedule(runnable);
+        }
+
+        @Override
+        public Disposable schedule(Runnable runnable, long delay, TimeUnit unit) {
+            return actual.schedule(runnable, delay, unit);
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable runnable, long initialDelay, long period, TimeUnit unit) {
+            return actual.schedulePeriodically(runnable, initialDelay, period, unit);
+        }
+
+        @Override
+        public void dispose() {
+            actual.dispose();
+            if (released.compareAndSet(false, true)) {
+                release(cached);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return actual.isDisposed();
+        }
+
+    }
+
+}
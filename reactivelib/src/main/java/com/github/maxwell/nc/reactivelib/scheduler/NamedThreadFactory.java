@@ -0,0 +1,44 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按前缀加序号命名的守护线程工厂<br>
+ * 例如ReactiveLite-IO-1、ReactiveLite-IO-2，守护线程不会阻止JVM退出<br>
+ * 可以用于创建自定义的调度器，再通过{@link Schedulers}中的set方法替换默认的调度器
+ */
+public final class NamedThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final int priority;
+    private final AtomicInteger index = new AtomicInteger();
+
+    public NamedThreadFactory(String prefix) {
+        this(prefix, Thread.NORM_PRIORITY);
+    }
+
+    /**
+     * @param prefix   线程名称前缀
+     * @param priority 线程优先级，范围{@link Thread#MIN_PRIORITY}到{@link Thread#MAX_PRIORITY}
+     */
+    public NamedThreadFactory(String prefix, int priority) {
+        if (prefix == null) {
+            throw new NullPointerException("prefix is null!");
+        }
+        if (priority < Thread.MIN_PRIORITY || priority > Thread.MAX_PRIORITY) {
+            throw new IndexOutOfBoundsException("priority is out of bounds!");
+        }
+        this.prefix = prefix;
+        this.priority = priority;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, prefix + "-" + index.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(priority);
+        return thread;
+    }
+
+}
@@ -1,17 +1,35 @@
 package com.github.maxwell.nc.reactivelib.scheduler;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * 子线程调度器<br>
  * 每次创建新线程的调度器<br>
+ * 每个工作者独占一个新线程，工作者释放后线程结束<br>
  */
-public class NewThreadScheduler implements Scheduler {
+public class NewThreadScheduler extends BaseScheduler {
+
+    private final ThreadFactory threadFactory;
+
+    public NewThreadScheduler() {
+        this(new NamedThreadFactory("ReactiveLite-NewThread"));
+    }
+
+    public NewThreadScheduler(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
 
     @Override
     public void schedule(Runnable runnable) {
-        new Thread(runnable).start();
+        threadFactory.newThread(runnable).start();
+    }
+
+    @Override
+    public Worker createWorker() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(threadFactory);
+        return new SerialWorker(Schedulers.form(executor), executor);
     }
 
 }
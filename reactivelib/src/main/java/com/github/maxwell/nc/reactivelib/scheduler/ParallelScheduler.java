@@ -1,34 +1,141 @@
 package com.github.maxwell.nc.reactivelib.scheduler;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 多线程并发调度器<br>
  * 特别注意：使用此调度器后数据可能不是按照原始顺序接收<br>
- * 可以通过指定线程池大小，若指定值小于等于0则创建无限制线程池，如果等于1则创建单线程线程池<br>
+ * 可以通过指定线程池大小，若指定值小于等于0则创建无限制线程池，如果等于1则创建单线程线程池，
+ * 工作窃取模式下线程数固定为指定值，不支持无限制线程池<br>
+ * 需要保持顺序时可以通过{@link #createWorker()}串行执行<br>
+ * 工作窃取模式下每个线程有独立的任务队列，空闲线程从其他队列窃取任务，
+ * 每个工作者固定分配到一个线程的队列（轮流分配），减少锁竞争并保持缓存局部性<br>
+ * 通过线程池大小创建时线程在第一次调度时才创建，{@link #shutdown()}后可以通过{@link #start()}重新创建；
+ * 通过Executor创建时由调用者管理线程池
  */
-public class ParallelScheduler implements Scheduler {
+public class ParallelScheduler extends BaseScheduler {
 
-    private final Executor executor;
+    private final int poolSize;
+    private final boolean workStealing;
+
+    /**
+     * 为空时线程池由调用者管理
+     */
+    private final ThreadFactory threadFactory;
+
+    private final AtomicReference<Executor> executor;
 
     public ParallelScheduler(Executor executor) {
-        this.executor = executor;
+        poolSize = 0;
+        workStealing = false;
+        threadFactory = null;
+        this.executor = new AtomicReference<>(executor);
     }
 
     public ParallelScheduler(int poolSize) {
+        this(poolSize, false);
+    }
+
+    /**
+     * @param poolSize     线程池大小，小于等于0则创建无限制线程池（工作窃取模式除外）
+     * @param workStealing 是否使用工作窃取模式，此模式下线程池大小必须大于0
+     * @throws IndexOutOfBoundsException 工作窃取模式下线程池大小小于等于0
+     */
+    public ParallelScheduler(int poolSize, boolean workStealing) {
+        this(poolSize, workStealing, new NamedThreadFactory("ReactiveLite-Parallel"));
+    }
+
+    /**
+     * @param poolSize      线程池大小，小于等于0则创建无限制线程池（工作窃取模式除外）
+     * @param workStealing  是否使用工作窃取模式，此模式下线程池大小必须大于0
+     * @param threadFactory 创建线程的工厂
+     * @throws IndexOutOfBoundsException 工作窃取模式下线程池大小小于等于0
+     */
+    public ParallelScheduler(int poolSize, boolean workStealing, ThreadFactory threadFactory) {
+        if (workStealing && poolSize <= 0) {
+            throw new IndexOutOfBoundsException("poolSize is out of bounds!");
+        }
+        if (threadFactory == null) {
+            throw new NullPointerException("threadFactory is null!");
+        }
+        this.poolSize = poolSize;
+        this.workStealing = workStealing;
+        this.threadFactory = threadFactory;
+        executor = new AtomicReference<>(create());
+    }
+
+    private Executor create() {
+        if (workStealing) {
+            return new WorkStealingExecutor(poolSize, threadFactory);
+        }
         if (poolSize <= 0) {
-            executor = Executors.newCachedThreadPool();
+            return Executors.newCachedThreadPool(threadFactory);
         } else if (poolSize == 1) {
-            executor = Executors.newSingleThreadExecutor();
+            return Executors.newSingleThreadExecutor(threadFactory);
         } else {
-            executor = Executors.newFixedThreadPool(poolSize);
+            return Executors.newFixedThreadPool(poolSize, threadFactory);
         }
     }
 
     @Override
     public void schedule(Runnable runnable) {
-        executor.execute(runnable);
+        executor.get().execute(runnable);
+    }
+
+    @Override
+    public Worker createWorker() {
+        if (!workStealing) {
+            return super.createWorker();
+        }
+        final int lane = ((WorkStealingExecutor) executor.get()).nextLane();
+        return new SerialWorker(new BaseScheduler() {
+            @Override
+            public void schedule(Runnable runnable) {
+                //重新启动后仍然提交到同一个下标的队列
+                ((WorkStealingExecutor) executor.get()).execute(runnable, lane);
+            }
+        }, null);
+    }
+
+    @Override
+    public void start() {
+        if (threadFactory == null) {
+            return;
+        }
+        Executor current = executor.get();
+        if (!isShutdown(current)) {
+            return;
+        }
+        Executor created = create();
+        if (!executor.compareAndSet(current, created)) {
+            shutdown(created);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (threadFactory != null) {
+            shutdown(executor.get());
+        }
+    }
+
+    private static boolean isShutdown(Executor executor) {
+        if (executor instanceof WorkStealingExecutor) {
+            return ((WorkStealingExecutor) executor).isShutdown();
+        }
+        return ((ExecutorService) executor).isShutdown();
+    }
+
+    private static void shutdown(Executor executor) {
+        if (executor instanceof WorkStealingExecutor) {
+            ((WorkStealingExecutor) executor).shutdown();
+        } else {
+            ((ExecutorService) executor).shutdownNow();
+        }
     }
 
 }
@@ -0,0 +1,78 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 可取消的调度任务<br>
+ * 释放后不再执行，并取消关联的定时
+ */
+final class ScheduledTask implements Runnable, Disposable {
+
+    private final Runnable actual;
+
+    /**
+     * 等待定时的任务集合，释放时从中移除，可以为空
+     */
+    private final Set<ScheduledTask> parent;
+
+    /**
+     * 是否已经进入执行队列，用于周期任务跳过重叠的周期
+     */
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private volatile Future<?> timer;
+    private volatile boolean disposed;
+
+    ScheduledTask(Runnable actual, Set<ScheduledTask> parent) {
+        this.actual = actual;
+        this.parent = parent;
+    }
+
+    void setTimer(Future<?> future) {
+        timer = future;
+        if (disposed) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 标记进入执行队列
+     *
+     * @return 已经在队列中时返回false
+     */
+    boolean markQueued() {
+        return queued.compareAndSet(false, true);
+    }
+
+    @Override
+    public void run() {
+        queued.set(false);
+        if (!disposed) {
+            actual.run();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        Future<?> f = timer;
+        if (f != null) {
+            f.cancel(false);
+        }
+        if (parent != null) {
+            parent.remove(this);
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+}
@@ -1,7 +1,12 @@
 package com.github.maxwell.nc.reactivelib.scheduler;
 
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.util.concurrent.TimeUnit;
+
 /**
- * 调度器接口
+ * 调度器接口<br>
+ * 实现时通常继承{@link BaseScheduler}，只需要实现{@link #schedule(Runnable)}
  */
 public interface Scheduler {
 
@@ -12,4 +17,86 @@ public interface Scheduler {
      */
     void schedule(Runnable runnable);
 
+    /**
+     * 延时调度，等待期间不占用线程
+     *
+     * @param runnable 需要执行的操作
+     * @param delay    延时，小于等于0时立即调度
+     * @param unit     时间单位
+     * @return 用于取消尚未执行的操作
+     */
+    Disposable schedule(Runnable runnable, long delay, TimeUnit unit);
+
+    /**
+     * 周期调度，同一操作不会并发执行，上一次还没有执行时跳过此次周期
+     *
+     * @param runnable     需要执行的操作
+     * @param initialDelay 首次执行的延时
+     * @param period       执行周期
+     * @param unit         时间单位
+     * @return 用于停止周期调度
+     */
+    Disposable schedulePeriodically(Runnable runnable, long initialDelay, long period, TimeUnit unit);
+
+    /**
+     * 调度器的当前时间
+     *
+     * @param unit 返回值的时间单位
+     */
+    long now(TimeUnit unit);
+
+    /**
+     * 创建工作者，通过同一个工作者调度的操作按顺序串行执行
+     */
+    Worker createWorker();
+
+    /**
+     * 重新启动已经关闭的调度器，没有关闭时没有影响
+     */
+    void start();
+
+    /**
+     * 关闭调度器持有的线程，尚未执行的操作不再执行，
+     * 之后调度会抛出{@link java.util.concurrent.RejectedExecutionException}，直到调用{@link #start()}<br>
+     * 不持有线程的调度器没有影响
+     */
+    void shutdown();
+
+    /**
+     * 调度器工作者<br>
+     * 调度的操作按提交顺序（延时操作按到期顺序）串行执行，释放后取消所有尚未执行的操作
+     */
+    abstract class Worker implements Disposable {
+
+        /**
+         * 串行调度
+         *
+         * @param runnable 需要执行的操作
+         * @return 用于取消尚未执行的操作
+         */
+        public abstract Disposable schedule(Runnable runnable);
+
+        /**
+         * 串行延时调度
+         *
+         * @param runnable 需要执行的操作
+         * @param delay    延时，小于等于0时立即调度
+         * @param unit     时间单位
+         * @return 用于取消尚未执行的操作
+         */
+        public abstract Disposable schedule(Runnable runnable, long delay, TimeUnit unit);
+
+        /**
+         * 串行周期调度，上一次还没有执行时跳过此次周期
+         *
+         * @param runnable     需要执行的操作
+         * @param initialDelay 首次执行的延时
+         * @param period       执行周期
+         * @param unit         时间单位
+         * @return 用于停止周期调度
+         */
+        public abstract Disposable schedulePeriodically(Runnable runnable, long initialDelay, long period, TimeUnit unit);
+
+    }
+
 }
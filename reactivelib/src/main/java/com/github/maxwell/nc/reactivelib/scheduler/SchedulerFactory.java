@@ -0,0 +1,15 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+/**
+ * 调度器工厂<br>
+ * 用于替换{@link Schedulers}中默认的调度器，例如{@link Schedulers#setParallelSchedulerFactory(SchedulerFactory)}<br>
+ * 并发获取调度器时可能多次调用，多余的调度器会被{@link Scheduler#shutdown()}，因此创建时不应该启动线程
+ */
+public interface SchedulerFactory {
+
+    /**
+     * 创建调度器
+     */
+    Scheduler create();
+
+}
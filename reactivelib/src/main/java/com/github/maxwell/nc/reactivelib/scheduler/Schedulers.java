@@ -1,36 +1,112 @@
 package com.github.maxwell.nc.reactivelib.scheduler;
 
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.lang.reflect.InvocationTargetException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * 调度器管理器
+ * 调度器管理器<br>
+ * 内置调度器在第一次获取时通过CAS创建，不加锁；并发获取时多创建的调度器会被立即关闭，
+ * 由于内置调度器在第一次调度时才创建线程，因此没有额外开销<br>
+ * 内置调度器都使用守护线程，不会阻止JVM退出，也可以通过{@link #shutdown()}关闭，{@link #start()}重新启动<br>
+ * 可以通过set方法替换默认的调度器工厂，替换时关闭当前的调度器，下次获取时通过新的工厂创建
  */
 public final class Schedulers {
 
-    private static SingleThreadScheduler singleThreadScheduler;
-    private static NewThreadScheduler newThreadScheduler;
-    private static MainThreadScheduler mainThreadScheduler;
-    private static ParallelScheduler parallelScheduler;
+    /**
+     * Android扩展模块中主线程调度器的类名，依赖reactivelib-android时自动加载
+     */
+    private static final String MAIN_THREAD_SCHEDULER = "com.github.maxwell.nc.reactivelib.android.MainThreadScheduler";
+
+    private static final SchedulerSlot SINGLE = new SchedulerSlot(new SchedulerFactory() {
+        @Override
+        public Scheduler create() {
+            return new SingleThreadScheduler();
+        }
+    });
+
+    private static final SchedulerSlot NEW_THREAD = new SchedulerSlot(new SchedulerFactory() {
+        @Override
+        public Scheduler create() {
+            return new NewThreadScheduler();
+        }
+    });
+
+    private static final SchedulerSlot PARALLEL = new SchedulerSlot(new SchedulerFactory() {
+        @Override
+        public Scheduler create() {
+            return new ParallelScheduler(Runtime.getRuntime().availableProcessors(), true);
+        }
+    });
+
+    private static final SchedulerSlot IO = new SchedulerSlot(new SchedulerFactory() {
+        @Override
+        public Scheduler create() {
+            return new IoScheduler();
+        }
+    });
+
+    private static final SchedulerSlot VIRTUAL = new SchedulerSlot(new SchedulerFactory() {
+        @Override
+        public Scheduler create() {
+            return new VirtualThreadScheduler();
+        }
+    });
+
+    private static final SchedulerSlot MAIN_THREAD = new SchedulerSlot(new SchedulerFactory() {
+        @Override
+        public Scheduler create() {
+            return loadMainThreadScheduler();
+        }
+    });
+
+    private static final TrampolineScheduler TRAMPOLINE = new TrampolineScheduler();
+
+    private Schedulers() {
+    }
 
     /**
      * 单一子线程调度器
      */
-    public static synchronized Scheduler single() {
-        if (singleThreadScheduler == null) {
-            singleThreadScheduler = new SingleThreadScheduler();
-        }
-        return singleThreadScheduler;
+    public static Scheduler single() {
+        return SINGLE.get();
     }
 
     /**
-     * 创建子线程调度器
+     * 创建子线程调度器<br>
+     * 每次调度都创建新线程，执行阻塞的IO操作时应该使用{@link #io()}
      */
     public static Scheduler newThread() {
-        if (newThreadScheduler == null) {
-            newThreadScheduler = new NewThreadScheduler();
-        }
         //虽然是单一的调度器，内部实现创建线程
-        return newThreadScheduler;
+        return NEW_THREAD.get();
+    }
+
+    /**
+     * IO调度器<br>
+     * 适合执行阻塞的IO操作，空闲线程缓存60秒后结束，期间可以重复使用
+     */
+    public static Scheduler io() {
+        return IO.get();
+    }
+
+    /**
+     * 虚拟线程调度器<br>
+     * JDK21以上每个任务在新的虚拟线程中执行，不支持虚拟线程时（例如Android）返回{@link #io()}
+     */
+    public static Scheduler virtual() {
+        return VirtualThreadScheduler.isSupported() ? VIRTUAL.get() : io();
+    }
+
+    /**
+     * 蹦床调度器<br>
+     * 在调用线程执行，任务中再次调度的任务排队到当前任务返回后执行，不会增加调用栈深度
+     */
+    public static Scheduler trampoline() {
+        return TRAMPOLINE;
     }
 
     /**
@@ -41,24 +117,169 @@ public final class Schedulers {
     }
 
     /**
-     * 创建主线程调度器
+     * 创建主线程调度器<br>
+     * 没有通过{@link #setMainThreadScheduler(Scheduler)}设置时，加载reactivelib-android模块中的主线程调度器
+     *
+     * @throws IllegalStateException 没有设置主线程调度器，也没有依赖reactivelib-android模块
      */
     public static Scheduler mainThread() {
-        if (mainThreadScheduler == null) {
-            mainThreadScheduler = new MainThreadScheduler();
+        return MAIN_THREAD.get();
+    }
+
+    /**
+     * 设置主线程调度器<br>
+     * 用于非Android平台（例如桌面UI线程）或者测试中替换主线程调度器
+     *
+     * @param scheduler 主线程调度器，为null时下次使用重新加载默认的调度器
+     */
+    public static void setMainThreadScheduler(Scheduler scheduler) {
+        MAIN_THREAD.set(scheduler);
+    }
+
+    private static Scheduler loadMainThreadScheduler() {
+        try {
+            return (Scheduler) Class.forName(MAIN_THREAD_SCHEDULER).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("main thread scheduler is not set, "
+                    + "add reactivelib-android dependency or call Schedulers.setMainThreadScheduler!");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("main thread scheduler has no default constructor!", e);
+        } catch (InvocationTargetException e) {
+            //构造方法抛出的异常
+            throw new IllegalStateException("main thread scheduler can not be created!", e.getCause());
+        } catch (Exception e) {
+            //InstantiationException、IllegalAccessException或类型不匹配
+            throw new IllegalStateException("main thread scheduler can not be created!", e);
         }
-        return mainThreadScheduler;
     }
 
     /**
      * 创建并行调度器<br>
-     * 并行上限为CPU处理器数量
+     * 并行上限为CPU处理器数量，使用工作窃取模式
      */
     public static Scheduler parallel() {
-        if (parallelScheduler == null) {
-            parallelScheduler = new ParallelScheduler(Runtime.getRuntime().availableProcessors());
+        return PARALLEL.get();
+    }
+
+    /**
+     * 替换{@link #single()}的调度器工厂
+     *
+     * @param factory 调度器工厂，为null时恢复默认
+     */
+    public static void setSingleSchedulerFactory(SchedulerFactory factory) {
+        SINGLE.setFactory(factory);
+    }
+
+    /**
+     * 替换{@link #newThread()}的调度器工厂
+     *
+     * @param factory 调度器工厂，为null时恢复默认
+     */
+    public static void setNewThreadSchedulerFactory(SchedulerFactory factory) {
+        NEW_THREAD.setFactory(factory);
+    }
+
+    /**
+     * 替换{@link #parallel()}的调度器工厂，例如指定线程数量或线程优先级
+     *
+     * @param factory 调度器工厂，为null时恢复默认
+     */
+    public static void setParallelSchedulerFactory(SchedulerFactory factory) {
+        PARALLEL.setFactory(factory);
+    }
+
+    /**
+     * 替换{@link #io()}的调度器工厂
+     *
+     * @param factory 调度器工厂，为null时恢复默认
+     */
+    public static void setIoSchedulerFactory(SchedulerFactory factory) {
+        IO.setFactory(factory);
+    }
+
+    /**
+     * 关闭所有已经创建的内置调度器和共享定时器，用于热重载或者程序退出前释放线程<br>
+     * 关闭后调度会抛出{@link java.util.concurrent.RejectedExecutionException}，直到调用{@link #start()}
+     */
+    public static void shutdown() {
+        SINGLE.shutdown();
+        NEW_THREAD.shutdown();
+        PARALLEL.shutdown();
+        IO.shutdown();
+        VIRTUAL.shutdown();
+        SharedTimer.shutdown();
+    }
+
+    /**
+     * 重新启动{@link #shutdown()}关闭的调度器和共享定时器
+     */
+    public static void start() {
+        SharedTimer.start();
+        SINGLE.start();
+        NEW_THREAD.start();
+        PARALLEL.start();
+        IO.start();
+        VIRTUAL.start();
+    }
+
+    /**
+     * 保存一个内置调度器，第一次获取时通过CAS创建
+     */
+    private static final class SchedulerSlot {
+
+        private final SchedulerFactory defaultFactory;
+        private volatile SchedulerFactory factory;
+        private final AtomicReference<Scheduler> current = new AtomicReference<>();
+
+        SchedulerSlot(SchedulerFactory defaultFactory) {
+            this.defaultFactory = defaultFactory;
+        }
+
+        Scheduler get() {
+            for (; ; ) {
+                Scheduler s = current.get();
+                if (s != null) {
+                    return s;
+                }
+                SchedulerFactory f = factory;
+                Scheduler created = (f != null ? f : defaultFactory).create();
+                if (current.compareAndSet(null, created)) {
+                    return created;
+                }
+                //其他线程已经创建
+                created.shutdown();
+            }
+        }
+
+        /**
+         * 直接设置调度器，不关闭原来的调度器
+         */
+        void set(Scheduler scheduler) {
+            current.set(scheduler);
+        }
+
+        void setFactory(SchedulerFactory factory) {
+            this.factory = factory;
+            Scheduler old = current.getAndSet(null);
+            if (old != null) {
+                old.shutdown();
+            }
+        }
+
+        void start() {
+            Scheduler s = current.get();
+            if (s != null) {
+                s.start();
+            }
         }
-        return parallelScheduler;
+
+        void shutdown() {
+            Scheduler s = current.get();
+            if (s != null) {
+                s.shutdown();
+            }
+        }
+
     }
 
     /**
@@ -67,7 +288,24 @@ public final class Schedulers {
      * @param executor 指定的Executor
      */
     public static Scheduler form(final Executor executor) {
-        return new Scheduler() {
+        if (executor instanceof ScheduledExecutorService) {
+            final ScheduledExecutorService scheduled = (ScheduledExecutorService) executor;
+            //可以直接计时，不需要经过共享定时器
+            return new BaseScheduler() {
+                @Override
+                public void schedule(Runnable runnable) {
+                    scheduled.execute(runnable);
+                }
+
+                @Override
+                public Disposable schedule(Runnable runnable, long delay, TimeUnit unit) {
+                    ScheduledTask task = new ScheduledTask(runnable, null);
+                    task.setTimer(scheduled.schedule(task, delay, unit));
+                    return task;
+                }
+            };
+        }
+        return new BaseScheduler() {
             @Override
             public void schedule(Runnable runnable) {
                 executor.execute(runnable);
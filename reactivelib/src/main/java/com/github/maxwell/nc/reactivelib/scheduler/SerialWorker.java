@@ -0,0 +1,151 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 串行工作者<br>
+ * 任务放入队列，由一个排空任务在{@link #target}中按顺序执行，同一时刻最多只有一个排空任务在运行<br>
+ * 延时和周期通过{@link SharedTimer}计时，到期后放入队列
+ */
+final class SerialWorker extends Scheduler.Worker implements Runnable {
+
+    private final Scheduler target;
+
+    /**
+     * 工作者独占的线程池，释放时关闭，可以为空
+     */
+    private final ExecutorService owned;
+
+    private final ConcurrentLinkedQueue<ScheduledTask> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /**
+     * 等待定时的任务
+     */
+    private final Set<ScheduledTask> timed =
+            Collections.newSetFromMap(new ConcurrentHashMap<ScheduledTask, Boolean>());
+
+    private volatile boolean disposed;
+
+    SerialWorker(Scheduler target, ExecutorService owned) {
+        this.target = target;
+        this.owned = owned;
+    }
+
+    @Override
+    public Disposable schedule(Runnable runnable) {
+        ScheduledTask task = new ScheduledTask(runnable, null);
+        enqueue(task);
+        return task;
+    }
+
+    @Override
+    public Disposable schedule(Runnable runnable, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            return schedule(runnable);
+        }
+        final ScheduledTask task = new ScheduledTask(runnable, timed);
+        timed.add(task);
+        task.setTimer(SharedTimer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                timed.remove(task);
+                enqueue(task);
+            }
+        }, delay, unit));
+        if (disposed) {
+            task.dispose();
+        }
+        return task;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable runnable, long initialDelay, long period, TimeUnit unit) {
+        final ScheduledTask task = new ScheduledTask(runnable, timed);
+        timed.add(task);
+        task.setTimer(SharedTimer.schedulePeriodically(new Runnable() {
+            @Override
+            public void run() {
+                enqueue(task);
+            }
+        }, initialDelay, period, unit));
+        if (disposed) {
+            task.dispose();
+        }
+        return task;
+    }
+
+    private void enqueue(ScheduledTask task) {
+        if (disposed || task.isDisposed() || !task.markQueued()) {
+            return;
+        }
+        queue.offer(task);
+        if (wip.getAndIncrement() == 0) {
+            target.schedule(this);
+        }
+    }
+
+    /**
+     * 排空任务
+     */
+    @Override
+    public void run() {
+        int missed = 1;
+        for (; ; ) {
+            ScheduledTask task;
+            while ((task = queue.poll()) != null) {
+                if (disposed) {
+                    queue.clear();
+                    return;
+                }
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    //包括Error在内都不影响后续任务执行
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+            if (disposed) {
+                queue.clear();
+                return;
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        for (ScheduledTask task : timed) {
+            task.dispose();
+        }
+        timed.clear();
+        if (wip.getAndIncrement() == 0) {
+            queue.clear();
+        }
+        if (owned != null) {
+            owned.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 共享定时器<br>
+ * 所有延时或周期执行的操作共用一个守护线程，到期时只执行很短的操作（通常是把任务交给调度器），
+ * 等待期间不会占用任何线程<br>
+ * 定时线程在第一次使用时才创建，通过{@link Schedulers#shutdown()}关闭，{@link Schedulers#start()}重新创建
+ */
+public final class SharedTimer {
+
+    private SharedTimer() {
+    }
+
+    private static final AtomicReference<ScheduledExecutorService> EXECUTOR = new AtomicReference<>(create());
+
+    private static final Scheduler SCHEDULER = new BaseScheduler() {
+        @Override
+        public void schedule(Runnable runnable) {
+            EXECUTOR.get().execute(runnable);
+        }
+
+        @Override
+        public Disposable schedule(Runnable runnable, long delay, TimeUnit unit) {
+            ScheduledTask task = new ScheduledTask(runnable, null);
+            task.setTimer(SharedTimer.schedule(task, delay, unit));
+            return task;
+        }
+    };
+
+    /**
+     * 创建定时线程池，线程在第一次提交任务时才创建<br>
+     * 取消的任务立即移出队列，避免大量取消的delay和retryBackoff任务堆积到期限
+     */
+    private static ScheduledExecutorService create() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("ReactiveLite-Timer"));
+        try {
+            executor.setRemoveOnCancelPolicy(true);
+        } catch (NoSuchMethodError e) {
+            //Android API 21以下没有此方法，取消的任务到期后才移出队列
+        }
+        return executor;
+    }
+
+    static void start() {
+        ScheduledExecutorService current = EXECUTOR.get();
+        if (!current.isShutdown()) {
+            return;
+        }
+        ScheduledExecutorService created = create();
+        if (!EXECUTOR.compareAndSet(current, created)) {
+            created.shutdown();
+        }
+    }
+
+    static void shutdown() {
+        EXECUTOR.get().shutdownNow();
+    }
+
+    /**
+     * 在定时线程执行的调度器，只适合执行很短的操作<br>
+     * 时间相关的操作没有指定调度器时使用
+     */
+    public static Scheduler scheduler() {
+        return SCHEDULER;
+    }
+
+    /**
+     * 延时执行
+     *
+     * @param runnable 到期执行的操作，应该尽快返回
+     * @param delay    延时
+     * @param unit     时间单位
+     */
+    public static ScheduledFuture<?> schedule(Runnable runnable, long delay, TimeUnit unit) {
+        return EXECUTOR.get().schedule(runnable, delay, unit);
+    }
+
+    /**
+     * 周期执行
+     *
+     * @param runnable     到期执行的操作，应该尽快返回
+     * @param initialDelay 首次执行的延时
+     * @param period       执行周期
+     * @param unit         时间单位
+     */
+    public static ScheduledFuture<?> schedulePeriodically(Runnable runnable, long initialDelay, long period, TimeUnit unit) {
+        return EXECUTOR.get().scheduleAtFixedRate(runnable, initialDelay, period, unit);
+    }
+
+}
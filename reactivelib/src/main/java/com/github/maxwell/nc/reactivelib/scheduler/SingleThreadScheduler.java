@@ -1,18 +1,59 @@
 package com.github.maxwell.nc.reactivelib.scheduler;
 
-import java.util.concurrent.Executor;
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 单一子线程复用调度器<br>
+ * 延时调度直接由此线程计时，不需要经过共享定时器<br>
+ * 线程在第一次调度时才创建，关闭后可以通过{@link #start()}重新创建
  */
-public class SingleThreadScheduler implements Scheduler {
+public class SingleThreadScheduler extends BaseScheduler {
+
+    private final ThreadFactory threadFactory;
+    private final AtomicReference<ScheduledExecutorService> executor;
 
-    private final Executor executor = Executors.newSingleThreadExecutor();
+    public SingleThreadScheduler() {
+        this(new NamedThreadFactory("ReactiveLite-Single"));
+    }
+
+    public SingleThreadScheduler(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+        executor = new AtomicReference<>(Executors.newSingleThreadScheduledExecutor(threadFactory));
+    }
 
     @Override
     public void schedule(Runnable runnable) {
-        executor.execute(runnable);
+        executor.get().execute(runnable);
+    }
+
+    @Override
+    public Disposable schedule(Runnable runnable, long delay, TimeUnit unit) {
+        ScheduledTask task = new ScheduledTask(runnable, null);
+        task.setTimer(executor.get().schedule(task, delay, unit));
+        return task;
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService current = executor.get();
+        if (!current.isShutdown()) {
+            return;
+        }
+        ScheduledExecutorService created = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        if (!executor.compareAndSet(current, created)) {
+            created.shutdown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        executor.get().shutdownNow();
     }
 
 }
@@ -0,0 +1,74 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import com.github.maxwell.nc.reactivelib.subscription.Disposable;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 蹦床调度器<br>
+ * 任务在调用线程执行：当前线程没有正在执行的蹦床任务时立即执行，否则放入当前线程的队列，
+ * 等正在执行的任务返回后按顺序执行，因此任务中再次调度不会增加调用栈深度<br>
+ * 延时调度会阻塞调用线程直到到期；工作者的延时和周期任务到期后在共享定时线程执行<br>
+ * 通过{@link Schedulers#trampoline()}获取
+ */
+public final class TrampolineScheduler extends BaseScheduler {
+
+    private static final ThreadLocal<TrampolineQueue> QUEUE = new ThreadLocal<TrampolineQueue>() {
+        @Override
+        protected TrampolineQueue initialValue() {
+            return new TrampolineQueue();
+        }
+    };
+
+    @Override
+    public void schedule(Runnable runnable) {
+        TrampolineQueue q = QUEUE.get();
+        q.tasks.offer(runnable);
+        if (q.draining) {
+            return;
+        }
+        q.draining = true;
+        try {
+            Runnable task;
+            while ((task = q.tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    //包括Error在内都不影响后续任务执行
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        } finally {
+            q.draining = false;
+        }
+    }
+
+    @Override
+    public Disposable schedule(Runnable runnable, long delay, TimeUnit unit) {
+        ScheduledTask task = new ScheduledTask(runnable, null);
+        if (delay > 0) {
+            try {
+                unit.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                task.dispose();
+                return task;
+            }
+        }
+        schedule(task);
+        return task;
+    }
+
+    /**
+     * 每个线程独立的任务队列，只在所属线程访问
+     */
+    private static final class TrampolineQueue {
+
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        boolean draining;
+
+    }
+
+}
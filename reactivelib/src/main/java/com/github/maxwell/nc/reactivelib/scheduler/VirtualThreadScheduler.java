@@ -0,0 +1,95 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 虚拟线程调度器<br>
+ * 每个任务在新的虚拟线程中执行，虚拟线程阻塞时不占用系统线程，适合大量并发的阻塞操作<br>
+ * 需要JDK21以上，通过反射创建，因此仍然可以按Java 7编译；不支持时可以通过{@link #isSupported()}判断，
+ * 此时{@link Schedulers#virtual()}使用{@link Schedulers#io()}代替
+ */
+public class VirtualThreadScheduler extends BaseScheduler {
+
+    private final AtomicReference<ExecutorService> executor;
+
+    /**
+     * @throws UnsupportedOperationException 当前JVM不支持虚拟线程
+     */
+    public VirtualThreadScheduler() {
+        ExecutorService created = create();
+        if (created == null) {
+            throw new UnsupportedOperationException("virtual thread is not supported!");
+        }
+        executor = new AtomicReference<>(created);
+    }
+
+    /**
+     * 返回当前JVM是否支持虚拟线程
+     */
+    public static boolean isSupported() {
+        return Holder.FACTORY != null;
+    }
+
+    private static final class Holder {
+
+        static final ThreadFactory FACTORY = createFactory();
+
+        /**
+         * 相当于Thread.ofVirtual().name("ReactiveLite-Virtual-", 1).factory()
+         */
+        private static ThreadFactory createFactory() {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                builder = builderClass.getMethod("name", String.class, long.class)
+                        .invoke(builder, "ReactiveLite-Virtual-", 1L);
+                return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+    }
+
+    /**
+     * 相当于Executors.newThreadPerTaskExecutor(factory)
+     */
+    private static ExecutorService create() {
+        ThreadFactory factory = Holder.FACTORY;
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void schedule(Runnable runnable) {
+        executor.get().execute(runnable);
+    }
+
+    @Override
+    public void start() {
+        ExecutorService current = executor.get();
+        if (!current.isShutdown()) {
+            return;
+        }
+        ExecutorService created = create();
+        if (created != null && !executor.compareAndSet(current, created)) {
+            created.shutdown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        executor.get().shutdownNow();
+    }
+
+}
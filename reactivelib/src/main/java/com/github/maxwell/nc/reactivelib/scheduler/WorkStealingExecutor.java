@@ -0,0 +1,220 @@
+package com.github.maxwell.nc.reactivelib.scheduler;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 工作窃取线程池<br>
+ * 每个线程有独立的无锁任务队列，提交任务时不会竞争同一把锁；线程自身队列为空时从其他线程的队列窃取任务，
+ * 仍然没有任务时挂起<br>
+ * 在池中线程提交的任务进入该线程自身的队列，其他线程提交的任务轮流分配<br>
+ * 线程在第一次提交任务时才创建，关闭后不能重新启动<br>
+ * 不使用ForkJoinPool，以兼容较低版本的Android
+ */
+final class WorkStealingExecutor implements Executor {
+
+    /**
+     * 当前线程所属的队列，不是池中线程时为null
+     */
+    private static final ThreadLocal<Lane> CURRENT = new ThreadLocal<>();
+
+    private final Lane[] lanes;
+    private final ThreadFactory threadFactory;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean shutdown;
+
+    /**
+     * 轮流分配的下标
+     */
+    private final AtomicInteger index = new AtomicInteger();
+
+    /**
+     * 挂起的线程数量
+     */
+    private final AtomicInteger idle = new AtomicInteger();
+
+    WorkStealingExecutor(int parallelism, ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+        lanes = new Lane[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            lanes[i] = new Lane(i);
+        }
+    }
+
+    private void startLanes() {
+        for (Lane lane : lanes) {
+            Thread thread = threadFactory.newThread(lane);
+            lane.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * 关闭所有线程，丢弃尚未执行的任务
+     */
+    void shutdown() {
+        shutdown = true;
+        for (Lane lane : lanes) {
+            lane.queue.clear();
+            Thread thread = lane.thread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * 线程数量
+     */
+    int parallelism() {
+        return lanes.length;
+    }
+
+    /**
+     * 轮流选择一个线程
+     */
+    int nextLane() {
+        return (index.getAndIncrement() & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+        Lane current = CURRENT.get();
+        if (current != null && current.owner() == this) {
+            execute(runnable, current.id);
+        } else {
+            execute(runnable, nextLane());
+        }
+    }
+
+    /**
+     * 提交到指定线程的队列
+     *
+     * @param runnable 需要执行的操作
+     * @param lane     线程下标
+     */
+    void execute(Runnable runnable, int lane) {
+        if (shutdown) {
+            throw new RejectedExecutionException("executor is shutdown!");
+        }
+        if (!started.get() && started.compareAndSet(false, true)) {
+            startLanes();
+        }
+        Lane target = lanes[lane];
+        target.queue.offer(runnable);
+        if (!target.wakeUp() && idle.get() != 0) {
+            //目标线程正忙，唤醒一个空闲线程来窃取
+            wakeUpAny(lane);
+        }
+    }
+
+    private void wakeUpAny(int from) {
+        Lane[] lanes = this.lanes;
+        int n = lanes.length;
+        for (int i = 1; i < n; i++) {
+            if (lanes[(from + i) % n].wakeUp()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 从其他线程的队列窃取任务
+     */
+    private Runnable steal(int self) {
+        Lane[] lanes = this.lanes;
+        int n = lanes.length;
+        for (int i = 1; i < n; i++) {
+            Runnable r = lanes[(self + i) % n].queue.poll();
+            if (r != null) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasWork() {
+        for (Lane lane : lanes) {
+            if (!lane.queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class Lane implements Runnable {
+
+        final int id;
+        final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 挂起标记，先标记再检查队列，提交方先入队再检查标记，保证不会丢失唤醒
+         */
+        private final AtomicBoolean parked = new AtomicBoolean();
+
+        /**
+         * 执行此队列的线程，启动后不为空
+         */
+        volatile Thread thread;
+
+        Lane(int id) {
+            this.id = id;
+        }
+
+        WorkStealingExecutor owner() {
+            return WorkStealingExecutor.this;
+        }
+
+        /**
+         * 唤醒挂起的线程
+         *
+         * @return 线程处于挂起状态并被唤醒时返回true
+         */
+        boolean wakeUp() {
+            if (parked.get() && parked.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void run() {
+            CURRENT.set(this);
+            Thread self = Thread.currentThread();
+            while (!shutdown) {
+                Runnable r = queue.poll();
+                if (r == null) {
+                    r = steal(id);
+                }
+                if (r != null) {
+                    try {
+                        r.run();
+                    } catch (Throwable e) {
+                        self.getUncaughtExceptionHandler().uncaughtException(self, e);
+                    }
+                    continue;
+                }
+
+                parked.set(true);
+                idle.incrementAndGet();
+                if (!hasWork() && !shutdown) {
+                    LockSupport.park(this);
+                }
+                idle.decrementAndGet();
+                parked.set(false);
+            }
+        }
+
+    }
+
+}
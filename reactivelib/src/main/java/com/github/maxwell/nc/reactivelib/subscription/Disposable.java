@@ -0,0 +1,19 @@
+package com.github.maxwell.nc.reactivelib.subscription;
+
+/**
+ * 可释放的资源接口<br>
+ * 例如尚未执行的调度任务、调度器工作者等
+ */
+public interface Disposable {
+
+    /**
+     * 释放资源，多次调用没有副作用
+     */
+    void dispose();
+
+    /**
+     * 返回是否已经释放
+     */
+    boolean isDisposed();
+
+}
@@ -1,15 +1,26 @@
 package com.github.maxwell.nc.reactivelib.subscription;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 /**
  * 带取消的订阅信息<br>
+ * 每个阶段持有自己的取消状态，取消时通过{@link #markCancelled()}原子切换状态，只向上游传递一次取消
  */
 public abstract class FlowSubscription implements Subscription {
 
+    private static final AtomicIntegerFieldUpdater<FlowSubscription> ONCE =
+            AtomicIntegerFieldUpdater.newUpdater(FlowSubscription.class, "once");
+
     /**
      * 取消标记
      */
     protected volatile boolean cancelled = false;
 
+    /**
+     * 取消状态，0为未取消，1为已取消
+     */
+    private volatile int once;
+
     /**
      * 返回是否已经取消订阅
      */
@@ -22,7 +33,17 @@ public abstract class FlowSubscription implements Subscription {
      */
     @Override
     public void cancel() {
+        markCancelled();
+    }
+
+    /**
+     * 标记为已取消
+     *
+     * @return 只有第一次调用返回true，此时调用者负责取消上游和释放资源
+     */
+    protected final boolean markCancelled() {
         cancelled = true;
+        return ONCE.compareAndSet(this, 0, 1);
     }
 
 }
@@ -0,0 +1,45 @@
+package com.github.maxwell.nc.reactivelib.subscription;
+
+import com.github.maxwell.nc.reactivelib.callback.FlowStream;
+
+/**
+ * 可融合的订阅信息<br>
+ * 下游订阅者在onSubscribe中通过{@link #requestFusion(int)}请求融合模式，
+ * 同步融合（{@link #SYNC}）成功后上游不再回调onNext、onComplete和onError，下游也不再调用request方法，
+ * 而是直接通过{@link #isEmpty()}和{@link #next()}拉取数据，{@link #isEmpty()}返回true代表数据已经结束<br>
+ * 拉取数据时抛出的异常由下游按onError处理
+ *
+ * @param <T> 数据类型
+ */
+public interface FusionSubscription<T> extends Subscription, FlowStream<T> {
+
+    /**
+     * 不融合
+     */
+    int NONE = 0;
+
+    /**
+     * 同步融合
+     */
+    int SYNC = 1;
+
+    /**
+     * 请求方标记：下游是线程边界，拉取数据可能在其他线程执行，
+     * 会执行用户回调的中间操作符此时应该拒绝融合，避免回调跑到其他线程
+     */
+    int BOUNDARY = 4;
+
+    /**
+     * 请求融合，只能在onSubscribe中调用
+     *
+     * @param mode 请求的融合模式，可以附加{@link #BOUNDARY}标记
+     * @return 实际的融合模式
+     */
+    int requestFusion(int mode);
+
+    /**
+     * 返回是否已经没有数据
+     */
+    boolean isEmpty() throws Exception;
+
+}
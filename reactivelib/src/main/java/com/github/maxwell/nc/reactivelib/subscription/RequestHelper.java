@@ -0,0 +1,86 @@
+package com.github.maxwell.nc.reactivelib.subscription;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求量计算工具<br>
+ * 多次调用{@link Subscription#request(long)}的请求量会累加，累加结果超过{@link Long#MAX_VALUE}时视为无限请求，不会溢出<br>
+ */
+public final class RequestHelper {
+
+    private RequestHelper() {
+    }
+
+    /**
+     * 校验请求量，请求量必须大于0
+     */
+    public static boolean validate(long count) {
+        return count > 0;
+    }
+
+    /**
+     * 相加，溢出时返回{@link Long#MAX_VALUE}
+     */
+    public static long addCap(long a, long b) {
+        long u = a + b;
+        if (u < 0L) {
+            return Long.MAX_VALUE;
+        }
+        return u;
+    }
+
+    /**
+     * 相乘，溢出时返回{@link Long#MAX_VALUE}
+     */
+    public static long multiplyCap(long a, long b) {
+        long u = a * b;
+        if (((a | b) >>> 31) != 0 && a != 0L && u / a != b) {
+            return Long.MAX_VALUE;
+        }
+        return u;
+    }
+
+    /**
+     * 累加请求量
+     *
+     * @param requested 当前请求量
+     * @param count     新增的请求量
+     * @return 累加前的请求量，为0时说明调用者需要负责发送数据
+     */
+    public static long add(AtomicLong requested, long count) {
+        for (; ; ) {
+            long r = requested.get();
+            if (r == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            long u = addCap(r, count);
+            if (requested.compareAndSet(r, u)) {
+                return r;
+            }
+        }
+    }
+
+    /**
+     * 扣减已经发送的数量，无限请求时不扣减
+     *
+     * @param requested 当前请求量
+     * @param count     已经发送的数量
+     * @return 扣减后的请求量
+     */
+    public static long produced(AtomicLong requested, long count) {
+        for (; ; ) {
+            long r = requested.get();
+            if (r == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            long u = r - count;
+            if (u < 0L) {
+                u = 0L;
+            }
+            if (requested.compareAndSet(r, u)) {
+                return u;
+            }
+        }
+    }
+
+}
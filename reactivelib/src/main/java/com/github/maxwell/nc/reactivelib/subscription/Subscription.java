@@ -8,6 +8,7 @@ public interface Subscription {
     /**
      * 请求数据<br>
      * 注意调用此方法应该放在onSubscribe方法中的最后一行，否则onSubscribe中的操作会在onNext等回调之后<br>
+     * 多次调用时请求量会累加，累加超过{@link Long#MAX_VALUE}时视为无限请求<br>
      *
      * @param count 请求数量，指定{@link Long#MAX_VALUE}则为无限请求(直到生产者生产完毕)
      */
@@ -0,0 +1,152 @@
+package com.github.maxwell.nc.reactivelib.subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 可切换上游的订阅信息<br>
+ * 用于重试等需要依次订阅多个上游的操作符，下游只收到一次onSubscribe，
+ * 切换上游时把尚未满足的请求量转发给新的上游<br>
+ * 子类在onNext之后（或者切换上游之前）通过{@link #produced(long)}扣除已经发送的数量<br>
+ * 请求、扣除、切换和取消通过{@link #wip}串行处理，并发调用的操作记录后由正在处理的线程补充执行
+ */
+public abstract class SubscriptionArbiter extends FlowSubscription {
+
+    /**
+     * 以下变量只在串行处理时访问
+     */
+    private Subscription actual;
+    private long requested;
+
+    private final AtomicReference<Subscription> missedSubscription = new AtomicReference<>();
+    private final AtomicLong missedRequested = new AtomicLong();
+    private final AtomicLong missedProduced = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /**
+     * 切换到新的上游，旧的上游必须已经结束，不会被取消
+     *
+     * @param s 新的上游
+     */
+    public final void setSubscription(Subscription s) {
+        if (cancelled) {
+            s.cancel();
+            return;
+        }
+        if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+            actual = s;
+            long r = requested;
+            if (wip.decrementAndGet() != 0) {
+                drainLoop();
+            }
+            if (r != 0) {
+                s.request(r);
+            }
+            return;
+        }
+        missedSubscription.set(s);
+        drain();
+    }
+
+    @Override
+    public void request(long count) {
+        if (!RequestHelper.validate(count)) {
+            return;
+        }
+        if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+            requested = RequestHelper.addCap(requested, count);
+            Subscription s = actual;
+            if (wip.decrementAndGet() != 0) {
+                drainLoop();
+            }
+            if (s != null) {
+                s.request(count);
+            }
+            return;
+        }
+        RequestHelper.add(missedRequested, count);
+        drain();
+    }
+
+    /**
+     * 扣除已经发送的数量
+     */
+    public final void produced(long count) {
+        if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+            long r = requested;
+            if (r != Long.MAX_VALUE) {
+                requested = Math.max(0, r - count);
+            }
+            if (wip.decrementAndGet() != 0) {
+                drainLoop();
+            }
+            return;
+        }
+        RequestHelper.add(missedProduced, count);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        if (markCancelled()) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        drainLoop();
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        long requestAmount = 0;
+        Subscription requestTarget = null;
+        for (; ; ) {
+            Subscription ms = missedSubscription.getAndSet(null);
+            long mr = missedRequested.getAndSet(0);
+            long mp = missedProduced.getAndSet(0);
+            Subscription a = actual;
+
+            if (cancelled) {
+                if (a != null) {
+                    a.cancel();
+                    actual = null;
+                }
+                if (ms != null) {
+                    ms.cancel();
+                }
+            } else {
+                long r = requested;
+                if (r != Long.MAX_VALUE) {
+                    r = RequestHelper.addCap(r, mr);
+                    if (r != Long.MAX_VALUE) {
+                        r = Math.max(0, r - mp);
+                    }
+                    requested = r;
+                }
+                if (ms != null) {
+                    //新的上游请求所有尚未满足的数量
+                    actual = ms;
+                    requestAmount = r;
+                    requestTarget = ms;
+                } else if (a != null && mr != 0) {
+                    requestAmount = RequestHelper.addCap(requestAmount, mr);
+                    requestTarget = a;
+                }
+            }
+
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                if (requestAmount != 0) {
+                    requestTarget.request(requestAmount);
+                }
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.github.maxwell.nc.reactivelib.thread;
+
+import com.github.maxwell.nc.reactivelib.Publisher;
+import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+import com.github.maxwell.nc.reactivelib.scheduler.SharedTimer;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延时发送的生产者<br>
+ * 每个数据和onComplete都延时{@link #delay}后发送，onError不延时，直接抛弃尚未发送的数据<br>
+ * 所有信号通过同一个调度器工作者发送，延时相同所以顺序不变，等待期间不占用线程；
+ * 没有设置调度器{@link #scheduler}时在共享的定时线程{@link SharedTimer#scheduler()}发送<br>
+ * 可以通过{@link Publisher#delay(long, TimeUnit)}和{@link Publisher#delay(long, TimeUnit, Scheduler)}转换
+ */
+public class PublisherDelay<T> extends Publisher<T> {
+
+    private final Publisher<T> source;
+    private final long delay;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+
+    public PublisherDelay(Publisher<T> source, long delay, TimeUnit unit, Scheduler scheduler) {
+        this.source = source;
+        this.delay = delay;
+        this.unit = unit;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<T> subscriber) {
+        Scheduler.Worker worker = (scheduler != null ? scheduler : SharedTimer.scheduler()).createWorker();
+        source.subscribe(new DelaySubscriber<>(subscriber, delay, unit, worker));
+    }
+
+    private static final class DelaySubscriber<T> extends FlowSubscription implements Subscriber<T> {
+
+        private final Subscriber<T> actual;
+        private final long delay;
+        private final TimeUnit unit;
+        private final Scheduler.Worker worker;
+        private Subscription upstream;
+
+        /**
+         * 出错后尚未到期的数据不再发送
+         */
+        private volatile boolean failed;
+
+        DelaySubscriber(Subscriber<T> subscriber, long delay, TimeUnit unit, Scheduler.Worker worker) {
+            actual = subscriber;
+            this.delay = delay;
+            this.unit = unit;
+            this.worker = worker;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(final T t) {
+            worker.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (cancelled || failed) {
+                        return;
+                    }
+                    try {
+                        actual.onNext(t);
+                    } catch (Exception e) {
+                        cancel();
+                        actual.onError(e);
+                    }
+                }
+            }, delay, unit);
+        }
+
+        @Override
+        public void onComplete() {
+            worker.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (cancelled || failed) {
+                        return;
+                    }
+                    actual.onComplete();
+                    worker.dispose();
+                }
+            }, delay, unit);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            failed = true;
+            worker.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (cancelled) {
+                        return;
+                    }
+                    actual.onError(throwable);
+                    worker.dispose();
+                }
+            });
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+            worker.dispose();
+        }
+
+    }
+
+}
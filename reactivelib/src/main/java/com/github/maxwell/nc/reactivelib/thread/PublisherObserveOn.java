@@ -2,92 +2,324 @@ package com.github.maxwell.nc.reactivelib.thread;
 
 import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
+import com.github.maxwell.nc.reactivelib.metrics.ReactiveMetrics;
+import com.github.maxwell.nc.reactivelib.metrics.StageMetrics;
+import com.github.maxwell.nc.reactivelib.queue.SpscArrayQueue;
 import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
 import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.FusionSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.RequestHelper;
 import com.github.maxwell.nc.reactivelib.subscription.Subscription;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * 观察者执行的线程控制的生产者<br>
  * 指定特定调度器来控制观察者回调中onNext、onComplete和onError回调执行的线程<br>
+ * 上游数据先放入容量为{@link #prefetch}的队列，每个订阅只有一个排空任务在调度器中按顺序发送队列中的数据，
+ * 因此即使使用多线程调度器也能保证数据顺序，并且onComplete和onError总是在所有数据之后回调<br>
+ * 每消耗{@link #prefetch}的3/4数据后向上游补充请求<br>
+ * 上游支持同步融合时不使用队列，排空任务直接从上游拉取数据<br>
+ * 开启{@link ReactiveMetrics}时记录每个数据入队的时间，以及排空任务开始时的队列深度和在调度器中等待的时间<br>
  * 通过操作符{@link Publisher#observeOn(Scheduler)}转换生产者
  */
 public class PublisherObserveOn<T> extends Publisher<T> {
 
     private final Publisher<T> source;
     private final Scheduler scheduler;
+    private final int prefetch;
 
-    public PublisherObserveOn(Publisher<T> source, Scheduler scheduler) {
+    public PublisherObserveOn(Publisher<T> source, Scheduler scheduler, int prefetch) {
         this.source = source;
         this.scheduler = scheduler;
+        this.prefetch = prefetch;
     }
 
     @Override
     protected void subscribeActual(Subscriber<T> subscriber) {
-        source.subscribe(new ObserveOnSubscriber<>(subscriber, scheduler));
+        source.subscribe(new ObserveOnSubscriber<>(subscriber, scheduler, prefetch, ReactiveMetrics.stage("observeOn", scheduler)));
     }
 
-    private static final class ObserveOnSubscriber<T> implements Subscriber<T> {
+    private static final class ObserveOnSubscriber<T> extends FlowSubscription implements Subscriber<T>, Runnable {
+
+        /**
+         * 队列中代表null数据的占位对象
+         */
+        private static final Object NULL = new Object();
 
         private final Subscriber<T> actual;
         private final Scheduler scheduler;
-        private FlowSubscription flowSubscription;
+        private final int prefetch;
+
+        /**
+         * 补充请求的阈值
+         */
+        private final int limit;
+        private SpscArrayQueue<Object> queue;
+
+        /**
+         * 同步融合成功时不为空
+         */
+        private FusionSubscription<T> fusion;
+
+        /**
+         * 排空任务计数，只有从0开始增加的线程才调度排空任务
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private Subscription upstream;
+
+        private volatile boolean done;
+        private Throwable error;
 
-        public ObserveOnSubscriber(Subscriber<T> subscriber, Scheduler scheduler) {
+        /**
+         * 以下变量只在排空任务中访问
+         */
+        private long emitted;
+        private int consumed;
+
+        /**
+         * 没有开启统计时为null
+         */
+        private final StageMetrics metrics;
+
+        /**
+         * 调度排空任务的时间，开启统计时才记录
+         */
+        private long scheduledAt;
+
+        ObserveOnSubscriber(Subscriber<T> subscriber, Scheduler scheduler, int prefetch, StageMetrics metrics) {
             actual = subscriber;
             this.scheduler = scheduler;
+            this.prefetch = prefetch;
+            this.metrics = metrics;
+            limit = prefetch - (prefetch >> 2);
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public void onSubscribe(final Subscription s) {
-            if (s instanceof FlowSubscription) {
-                flowSubscription = (FlowSubscription) s;
+            upstream = s;
+            if (s instanceof FusionSubscription) {
+                FusionSubscription<T> f = (FusionSubscription<T>) s;
+                if (f.requestFusion(FusionSubscription.SYNC | FusionSubscription.BOUNDARY) == FusionSubscription.SYNC) {
+                    fusion = f;
+                    //onSubscribe不在调度方法中
+                    actual.onSubscribe(this);
+                    return;
+                }
             }
+            queue = new SpscArrayQueue<>(prefetch);
             //onSubscribe不在调度方法中
-            actual.onSubscribe(s);
+            actual.onSubscribe(this);
+            s.request(prefetch);
         }
 
         @Override
         public void onNext(final T t) {
-            if (flowSubscription != null && flowSubscription.isCancelled()) {
+            if (done) {
                 return;
             }
-            scheduler.schedule(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        if (flowSubscription != null && flowSubscription.isCancelled()) {
+            long start = ReactiveMetrics.ENABLED && metrics != null ? System.nanoTime() : 0L;
+            if (!queue.offer(t == null ? NULL : t)) {
+                upstream.cancel();
+                error = new IllegalStateException("observeOn queue is full, upstream ignored request count!");
+                done = true;
+            }
+            schedule();
+            if (ReactiveMetrics.ENABLED && metrics != null) {
+                metrics.onNext(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            if (done) {
+                return;
+            }
+            error = throwable;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long count) {
+            if (RequestHelper.validate(count)) {
+                RequestHelper.add(requested, count);
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!markCancelled()) {
+                return;
+            }
+            upstream.cancel();
+            if (wip.getAndIncrement() == 0 && queue != null) {
+                queue.clear();
+            }
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                if (ReactiveMetrics.ENABLED && metrics != null) {
+                    scheduledAt = System.nanoTime();
+                }
+                scheduler.schedule(this);
+            }
+        }
+
+        /**
+         * 排空任务，按顺序发送数据
+         */
+        @Override
+        public void run() {
+            if (ReactiveMetrics.ENABLED && metrics != null) {
+                metrics.onQueue(queue != null ? queue.size() : 0, System.nanoTime() - scheduledAt);
+            }
+            if (fusion != null) {
+                runSync();
+            } else {
+                runAsync();
+            }
+        }
+
+        /**
+         * 同步融合时直接从上游拉取数据，拉取完毕即完成
+         */
+        private void runSync() {
+            int missed = 1;
+            long e = emitted;
+            FusionSubscription<T> f = fusion;
+
+            for (; ; ) {
+                long r = requested.get();
+
+                try {
+                    while (e != r) {
+                        if (cancelled) {
                             return;
                         }
-                        actual.onNext(t);
-                    } catch (Exception e) {
-                        flowSubscription.cancel();
-                        onError(e);
+                        if (f.isEmpty()) {
+                            actual.onComplete();
+                            return;
+                        }
+                        actual.onNext(f.next());
+                        e++;
+                    }
+
+                    if (cancelled) {
+                        return;
                     }
+                    if (f.isEmpty()) {
+                        actual.onComplete();
+                        return;
+                    }
+                } catch (Exception ex) {
+                    cancel();
+                    actual.onError(ex);
+                    return;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
                 }
-            });
+            }
         }
 
-        @Override
-        public void onComplete() {
-            scheduler.schedule(new Runnable() {
-                @Override
-                public void run() {
-                    if (flowSubscription != null && flowSubscription.isCancelled()) {
+        /**
+         * 从队列中取出数据发送
+         */
+        @SuppressWarnings("unchecked")
+        private void runAsync() {
+            int missed = 1;
+            long e = emitted;
+            int c = consumed;
+
+            for (; ; ) {
+                long r = requested.get();
+
+                while (e != r) {
+                    boolean d = done;
+                    Object v = queue.poll();
+                    boolean empty = v == null;
+
+                    if (checkTerminated(d, empty)) {
                         return;
                     }
-                    actual.onComplete();
+                    if (empty) {
+                        break;
+                    }
+
+                    try {
+                        actual.onNext(v == NULL ? null : (T) v);
+                    } catch (Exception ex) {
+                        cancel();
+                        actual.onError(ex);
+                        return;
+                    }
+
+                    e++;
+                    if (++c == limit) {
+                        c = 0;
+                        upstream.request(limit);
+                    }
+                }
+
+                if (e == r && checkTerminated(done, queue.isEmpty())) {
+                    return;
                 }
-            });
+
+                int w = wip.get();
+                if (missed == w) {
+                    emitted = e;
+                    consumed = c;
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
         }
 
-        @Override
-        public void onError(final Throwable throwable) {
-            scheduler.schedule(new Runnable() {
-                @Override
-                public void run() {
-                    actual.onError(throwable);
+        /**
+         * 检查是否已经结束，错误在队列中的数据发送完后再回调
+         */
+        private boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            if (d && empty) {
+                Throwable ex = error;
+                if (ex != null) {
+                    actual.onError(ex);
+                } else {
+                    actual.onComplete();
                 }
-            });
+                return true;
+            }
+            return false;
         }
 
     }
@@ -3,10 +3,13 @@ package com.github.maxwell.nc.reactivelib.thread;
 import com.github.maxwell.nc.reactivelib.Publisher;
 import com.github.maxwell.nc.reactivelib.Subscriber;
 import com.github.maxwell.nc.reactivelib.scheduler.Scheduler;
+import com.github.maxwell.nc.reactivelib.subscription.FlowSubscription;
+import com.github.maxwell.nc.reactivelib.subscription.Subscription;
 
 /**
  * 订阅操作执行线程调度的生产者<br>
  * 指定特定调度器来控制生产者被订阅时的操作执行所在的线程，包括subscribe操作和onSubscribe回调<br>
+ * 此生产者不支持融合，避免下游把上游的数据生产拉到其他线程执行<br>
  * 可以通过{@link Publisher#subscribeOn(Scheduler)}操作符来转换
  */
 public class PublisherSubscribeOn<T> extends Publisher<T> {
@@ -25,10 +28,54 @@ public class PublisherSubscribeOn<T> extends Publisher<T> {
 
             @Override
             public void run() {
-                source.subscribe(subscriber);
+                source.subscribe(new SubscribeOnSubscriber<>(subscriber));
             }
 
         });
     }
 
+    private static final class SubscribeOnSubscriber<T> extends FlowSubscription implements Subscriber<T> {
+
+        private final Subscriber<T> actual;
+        private Subscription upstream;
+
+        SubscribeOnSubscriber(Subscriber<T> subscriber) {
+            actual = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T t) {
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void request(long count) {
+            upstream.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            if (markCancelled()) {
+                upstream.cancel();
+            }
+        }
+
+    }
+
 }